@@ -34,11 +34,14 @@ import java.util.TimeZone;
 import javax.faces.application.Resource;
 import javax.faces.application.ResourceHandler;
 import javax.faces.application.ResourceWrapper;
+import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
+import javax.portlet.PortletConfig;
 import javax.portlet.faces.BridgeConfig;
 
 import com.liferay.faces.bridge.internal.BridgeConfigAttributeMap;
 import com.liferay.faces.bridge.util.internal.RequestMapUtil;
+import com.liferay.faces.bridge.util.internal.ServletResourceURLUtil;
 import com.liferay.faces.util.config.ConfiguredServletMapping;
 import com.liferay.faces.util.logging.Logger;
 import com.liferay.faces.util.logging.LoggerFactory;
@@ -134,7 +137,18 @@ public class ResourceInnerImpl extends ResourceWrapper implements Serializable {
 					List<ConfiguredServletMapping> configuredFacesServletMappings = (List<ConfiguredServletMapping>)
 						bridgeConfig.getAttributes().get(BridgeConfigAttributeMap.CONFIGURED_FACES_SERVLET_MAPPINGS);
 
-					if (configuredFacesServletMappings != null) {
+					// If the resource can be served directly by the FacesServlet, then the servlet-mapping extension
+					// must remain in the requestPath.
+					ExternalContext externalContext = facesContext.getExternalContext();
+					String contextRelativePath = ServletResourceURLUtil.toContextRelativePath(wrappedRequestPath,
+							externalContext.getRequestContextPath());
+					PortletConfig portletConfig = RequestMapUtil.getPortletConfig(facesContext);
+
+					if (ServletResourceURLUtil.isServletResourcePath(portletConfig, contextRelativePath,
+								getLibraryName(), configuredFacesServletMappings)) {
+						logger.debug("Retained servlet-mapping in requestPath=[{0}]", wrappedRequestPath);
+					}
+					else if (configuredFacesServletMappings != null) {
 
 						for (ConfiguredServletMapping configuredServletMapping : configuredFacesServletMappings) {
 
@@ -27,8 +27,18 @@ import com.liferay.faces.bridge.bean.BeanManager;
  */
 public abstract class BeanManagerCompatImpl implements BeanManager {
 
+	// Private Constants
+	private static final ClassValue<Boolean> MANAGED_BEAN_ANNOTATED = new ClassValue<Boolean>() {
+
+			@Override
+			protected Boolean computeValue(Class<?> type) {
+				return type.getAnnotation(ManagedBean.class) != null;
+			}
+		};
+
 	/**
-	 * Determines whether or not the specified object is annotated as a JSF managed-bean.
+	 * Determines whether or not the specified object is annotated as a JSF managed-bean. Since this method is called
+	 * for every request and session attribute, the verdict is cached per class rather than looked up by reflection.
 	 *
 	 * @param   obj  The object to check.
 	 *
@@ -36,12 +46,11 @@ public abstract class BeanManagerCompatImpl implements BeanManager {
 	 */
 	protected boolean hasManagedBeanAnnotation(Object object) {
 
-		if ((object != null) && (object.getClass().getAnnotation(ManagedBean.class) != null)) {
+		if ((object != null) && MANAGED_BEAN_ANNOTATED.get(object.getClass())) {
 			return true;
 		}
 		else {
 			return false;
 		}
 	}
-
 }
@@ -25,10 +25,27 @@ import com.liferay.faces.util.config.FacesConfig;
  */
 public class BeanManagerFactoryImpl extends BeanManagerFactory {
 
+	// Private Data Members
+	private volatile CachedBeanManager cachedBeanManager;
+
+	/**
+	 * Returns a bean manager for the specified faces config. Since {@link BeanManagerImpl} is immutable and the faces
+	 * config of the application does not change after startup, the bean manager is reused for as long as the same
+	 * faces config instance is specified.
+	 */
 	@Override
 	public BeanManager getBeanManager(FacesConfig facesConfig) {
 
-		return new BeanManagerImpl(facesConfig.getConfiguredManagedBeans());
+		CachedBeanManager cachedBeanManager = this.cachedBeanManager;
+
+		if ((cachedBeanManager == null) || (cachedBeanManager.facesConfig != facesConfig)) {
+
+			BeanManager beanManager = new BeanManagerImpl(facesConfig.getConfiguredManagedBeans());
+			cachedBeanManager = new CachedBeanManager(facesConfig, beanManager);
+			this.cachedBeanManager = cachedBeanManager;
+		}
+
+		return cachedBeanManager.beanManager;
 	}
 
 	public BeanManagerFactory getWrapped() {
@@ -37,4 +54,15 @@ public class BeanManagerFactoryImpl extends BeanManagerFactory {
 		return null;
 	}
 
+	private static final class CachedBeanManager {
+
+		// Private Final Data Members
+		private final BeanManager beanManager;
+		private final FacesConfig facesConfig;
+
+		private CachedBeanManager(FacesConfig facesConfig, BeanManager beanManager) {
+			this.facesConfig = facesConfig;
+			this.beanManager = beanManager;
+		}
+	}
 }
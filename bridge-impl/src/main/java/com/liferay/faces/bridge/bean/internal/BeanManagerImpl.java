@@ -15,6 +15,7 @@
  */
 package com.liferay.faces.bridge.bean.internal;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,18 +31,26 @@ public class BeanManagerImpl extends BeanManagerCompatImpl {
 	// Private Constants
 	private static final String JAVAX_PORTLET_P = "javax.portlet.p.";
 
-	// Private Data Members
-	private Map<String, ConfiguredManagedBean> configuredManagedBeanSet;
+	// Private Final Data Members
+	private final Map<String, String> configuredManagedBeanClassNames;
 
 	public BeanManagerImpl(List<ConfiguredManagedBean> configuredManagedBeans) {
 
-		this.configuredManagedBeanSet = new HashMap<String, ConfiguredManagedBean>();
+		// Precompute an immutable map of managed-bean names to class names, since the map is consulted for every
+		// request and session attribute.
+		if ((configuredManagedBeans == null) || configuredManagedBeans.isEmpty()) {
+			this.configuredManagedBeanClassNames = Collections.emptyMap();
+		}
+		else {
 
-		if (configuredManagedBeans != null) {
+			Map<String, String> configuredManagedBeanClassNames = new HashMap<String, String>();
 
 			for (ConfiguredManagedBean configuredManagedBean : configuredManagedBeans) {
-				this.configuredManagedBeanSet.put(configuredManagedBean.getManagedBeanName(), configuredManagedBean);
+				configuredManagedBeanClassNames.put(configuredManagedBean.getManagedBeanName(),
+					configuredManagedBean.getManagedBeanClass());
 			}
+
+			this.configuredManagedBeanClassNames = Collections.unmodifiableMap(configuredManagedBeanClassNames);
 		}
 	}
 
@@ -56,7 +65,7 @@ public class BeanManagerImpl extends BeanManagerCompatImpl {
 			}
 			else {
 
-				if (name != null) {
+				if ((name != null) && !configuredManagedBeanClassNames.isEmpty()) {
 
 					// Section PLT.18.3 of the Portlet 2.0 Specification titled "Binding Attributes into a Session"
 					// requires that PortletSession attribute names be namespaced/prefixed with the
@@ -70,11 +79,11 @@ public class BeanManagerImpl extends BeanManagerCompatImpl {
 						}
 					}
 
-					ConfiguredManagedBean configuredManagedBean = configuredManagedBeanSet.get(name);
+					String configuredManagedBeanClassName = configuredManagedBeanClassNames.get(name);
 
-					if (configuredManagedBean != null) {
+					if (configuredManagedBeanClassName != null) {
 						String managedBeanClass = value.getClass().getName();
-						managedBean = managedBeanClass.equals(configuredManagedBean.getManagedBeanClass());
+						managedBean = managedBeanClass.equals(configuredManagedBeanClassName);
 					}
 				}
 			}
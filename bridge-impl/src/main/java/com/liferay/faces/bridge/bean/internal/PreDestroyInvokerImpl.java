@@ -15,8 +15,8 @@
  */
 package com.liferay.faces.bridge.bean.internal;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.portlet.faces.annotation.BridgePreDestroy;
 
@@ -34,45 +34,91 @@ public class PreDestroyInvokerImpl implements PreDestroyInvoker {
 	private static final Logger logger = LoggerFactory.getLogger(PreDestroyInvokerImpl.class);
 
 	// Private Constants
+	private static final ClassValue<Boolean> ANNOTATION_METHODS_OVERRIDDEN = new ClassValue<Boolean>() {
+
+			@Override
+			protected Boolean computeValue(Class<?> type) {
+
+				Class<?> clazz = type;
+
+				while ((clazz != null) && (clazz != PreDestroyInvokerImpl.class)) {
+
+					if (isDeclared(clazz, "hasBridgePreDestroyAnnotation") ||
+							isDeclared(clazz, "hasPreDestroyAnnotation")) {
+						return Boolean.TRUE;
+					}
+
+					clazz = clazz.getSuperclass();
+				}
+
+				return Boolean.FALSE;
+			}
+		};
+	private static final ClassValue<OverriddenPreDestroyMethods> OVERRIDDEN_PRE_DESTROY_METHODS =
+		new ClassValue<OverriddenPreDestroyMethods>() {
+
+			@Override
+			protected OverriddenPreDestroyMethods computeValue(Class<?> type) {
+				return new OverriddenPreDestroyMethods();
+			}
+		};
+	private static final ClassValue<PreDestroyMethods> PRE_DESTROY_METHODS = new ClassValue<PreDestroyMethods>() {
+
+			@Override
+			protected PreDestroyMethods computeValue(Class<?> type) {
+				return PreDestroyMethods.create(type, new PreDestroyInvokerImpl());
+			}
+		};
+
+	// Private Final Data Members
+	private final OverriddenPreDestroyMethods overriddenPreDestroyMethods;
+
+	public PreDestroyInvokerImpl() {
+
+		// Since the annotated methods of a class do not change, they are cached in a ClassValue that is shared by all
+		// instances. But if a subclass overrides hasPreDestroyAnnotation(Method) or
+		// hasBridgePreDestroyAnnotation(Method), then the annotated methods are determined by the overriding methods
+		// and cached in a ClassValue that is shared by all instances of the subclass.
+		if (ANNOTATION_METHODS_OVERRIDDEN.get(getClass())) {
+			this.overriddenPreDestroyMethods = OVERRIDDEN_PRE_DESTROY_METHODS.get(getClass());
+		}
+		else {
+			this.overriddenPreDestroyMethods = null;
+		}
+	}
 
 	public void invokeAnnotatedMethods(Object managedBean, boolean preferPreDestroy) {
 
 		if (managedBean != null) {
 
 			Class<?> clazz = managedBean.getClass();
-			Method[] methods = managedBean.getClass().getMethods();
+			PreDestroyMethods preDestroyMethods = getPreDestroyMethods(clazz);
 
-			if (methods != null) {
+			if (preferPreDestroy) {
 
-				for (Method method : methods) {
+				for (Method method : preDestroyMethods.getPreDestroyMethods()) {
 
-					if (preferPreDestroy) {
+					try {
+						logger.debug("Invoking @PreDestroy method named [{0}] on managedBean class=[{1}]",
+							method.getName(), clazz.getName());
+						method.invoke(managedBean, new Object[] {});
+					}
+					catch (Exception e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+			}
+			else {
 
-						if (hasPreDestroyAnnotation(method)) {
+				for (Method method : preDestroyMethods.getBridgePreDestroyMethods()) {
 
-							try {
-								logger.debug("Invoking @PreDestroy method named [{0}] on managedBean class=[{1}]",
-									method.getName(), clazz.getName());
-								method.invoke(managedBean, new Object[] {});
-							}
-							catch (Exception e) {
-								logger.error(e.getMessage(), e);
-							}
-						}
+					try {
+						logger.debug("Invoking @BridgePreDestroy method named [{0}] on managedBean class=[{1}]",
+							method.getName(), clazz.getName());
+						method.invoke(managedBean, new Object[] {});
 					}
-					else {
-
-						if (hasBridgePreDestroyAnnotation(method)) {
-
-							try {
-								logger.debug("Invoking @BridgePreDestroy method named [{0}] on managedBean class=[{1}]",
-									method.getName(), clazz.getName());
-								method.invoke(managedBean, new Object[] {});
-							}
-							catch (Exception e) {
-								logger.error(e.getMessage(), e);
-							}
-						}
+					catch (Exception e) {
+						logger.error(e.getMessage(), e);
 					}
 				}
 			}
@@ -89,27 +135,7 @@ public class PreDestroyInvokerImpl implements PreDestroyInvoker {
 	 * @return  true if the specified method is annotated with a PreDestroy annotation.
 	 */
 	protected boolean hasBridgePreDestroyAnnotation(Method method) {
-
-		if (method.getReturnType() == Void.TYPE) {
-			Class<?>[] parameterTypes = method.getParameterTypes();
-
-			if ((parameterTypes == null) || (parameterTypes.length == 0)) {
-				Annotation[] annotations = method.getAnnotations();
-
-				if (annotations != null) {
-
-					for (Annotation annotation : annotations) {
-
-						if (annotation.annotationType().getName().equals(
-									"javax.portlet.faces.annotation.BridgePreDestroy")) {
-							return true;
-						}
-					}
-				}
-			}
-		}
-
-		return false;
+		return PreDestroyMethods.isCallbackMethod(method, "javax.portlet.faces.annotation.BridgePreDestroy");
 	}
 
 	/**
@@ -122,25 +148,58 @@ public class PreDestroyInvokerImpl implements PreDestroyInvoker {
 	 * @return  true if the specified method is annotated with a PreDestroy annotation.
 	 */
 	protected boolean hasPreDestroyAnnotation(Method method) {
+		return PreDestroyMethods.isCallbackMethod(method, "javax.annotation.PreDestroy");
+	}
 
-		if (method.getReturnType() == Void.TYPE) {
-			Class<?>[] parameterTypes = method.getParameterTypes();
+	/**
+	 * Returns the annotated methods of the specified managed-bean class, as determined by {@link
+	 * #hasPreDestroyAnnotation(Method)} and {@link #hasBridgePreDestroyAnnotation(Method)}.
+	 */
+	/* package-private */ PreDestroyMethods getPreDestroyMethods(Class<?> clazz) {
 
-			if ((parameterTypes == null) || (parameterTypes.length == 0)) {
-				Annotation[] annotations = method.getAnnotations();
+		if (overriddenPreDestroyMethods == null) {
+			return PRE_DESTROY_METHODS.get(clazz);
+		}
+		else {
+			return overriddenPreDestroyMethods.get(clazz, this);
+		}
+	}
 
-				if (annotations != null) {
+	private static boolean isDeclared(Class<?> clazz, String methodName) {
 
-					for (Annotation annotation : annotations) {
+		try {
+			clazz.getDeclaredMethod(methodName, Method.class);
 
-						if (annotation.annotationType().getName().equals("javax.annotation.PreDestroy")) {
-							return true;
-						}
-					}
-				}
-			}
+			return true;
 		}
+		catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * This class caches the annotated methods of managed-bean classes as determined by the overriding annotation
+	 * methods of a subclass of {@link PreDestroyInvokerImpl}. Since the annotation methods are expected to depend only
+	 * on the subclass, the annotated methods are determined by the first instance of the subclass that looks them up.
+	 */
+	private static final class OverriddenPreDestroyMethods extends ClassValue<PreDestroyMethods> {
 
-		return false;
+		// Private Final Data Members
+		private final AtomicReference<PreDestroyInvokerImpl> preDestroyInvokerImpl =
+			new AtomicReference<PreDestroyInvokerImpl>();
+
+		public PreDestroyMethods get(Class<?> clazz, PreDestroyInvokerImpl preDestroyInvokerImpl) {
+
+			// Since the instance is registered when it looks up annotated methods (rather than when it is constructed),
+			// the overriding annotation methods are never called on an instance that is not fully constructed.
+			this.preDestroyInvokerImpl.compareAndSet(null, preDestroyInvokerImpl);
+
+			return get(clazz);
+		}
+
+		@Override
+		protected PreDestroyMethods computeValue(Class<?> type) {
+			return PreDestroyMethods.create(type, preDestroyInvokerImpl.get());
+		}
 	}
 }
@@ -58,14 +58,23 @@ public class PreDestroyInvokerMojarraImpl extends PreDestroyInvokerImpl {
 
 			if (invokePreDestroyMethod != null) {
 
-				try {
-					logger.debug(
-						"Invoking methods annotated with @PreDestroy: mojarraInjectionProvider=[{0}] managedBean=[{1}]",
-						mojarraInjectionProvider, managedBean);
-					invokePreDestroyMethod.invoke(mojarraInjectionProvider, managedBean);
+				// Since the InjectionProvider has to discover the @PreDestroy methods of the managed-bean by
+				// reflection, avoid calling it for classes that are known not to declare any.
+				if ((managedBean == null) || !getPreDestroyMethods(managedBean.getClass()).isPreDestroyDeclared()) {
+					logger.trace("Not invoking mojarraInjectionProvider for managedBean=[{0}] without @PreDestroy",
+						managedBean);
 				}
-				catch (Exception e) {
-					logger.error(e);
+				else {
+
+					try {
+						logger.debug(
+							"Invoking methods annotated with @PreDestroy: mojarraInjectionProvider=[{0}] managedBean=[{1}]",
+							mojarraInjectionProvider, managedBean);
+						invokePreDestroyMethod.invoke(mojarraInjectionProvider, managedBean);
+					}
+					catch (Exception e) {
+						logger.error(e);
+					}
 				}
 			}
 			else {
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.bean.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class holds the lifecycle-callback metadata of a managed-bean class: the public methods annotated with {@link
+ * javax.annotation.PreDestroy} and {@link javax.portlet.faces.annotation.BridgePreDestroy}, and whether or not any
+ * method of the class hierarchy (regardless of visibility) is annotated with {@link javax.annotation.PreDestroy}. The
+ * metadata is computed once per class (see {@link PreDestroyInvokerImpl#getPreDestroyMethods(Class)}) so that
+ * destroying the managed-beans of an expired session or a request scope does not require scanning the methods of the
+ * class. Classes without any callbacks share a single empty instance.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class PreDestroyMethods {
+
+	// Private Constants
+	private static final Method[] EMPTY_METHODS = new Method[0];
+	private static final PreDestroyMethods NONE = new PreDestroyMethods(EMPTY_METHODS, EMPTY_METHODS, false);
+
+	// Private Final Data Members
+	private final Method[] bridgePreDestroyMethods;
+	private final boolean preDestroyDeclared;
+	private final Method[] preDestroyMethods;
+
+	private PreDestroyMethods(Method[] preDestroyMethods, Method[] bridgePreDestroyMethods,
+		boolean preDestroyDeclared) {
+
+		this.preDestroyMethods = preDestroyMethods;
+		this.bridgePreDestroyMethods = bridgePreDestroyMethods;
+		this.preDestroyDeclared = preDestroyDeclared;
+	}
+
+	/**
+	 * Computes the lifecycle-callback metadata of the specified class by consulting the {@link
+	 * PreDestroyInvokerImpl#hasPreDestroyAnnotation(Method)} and {@link
+	 * PreDestroyInvokerImpl#hasBridgePreDestroyAnnotation(Method)} methods of the specified invoker.
+	 */
+	/* package-private */ static PreDestroyMethods create(Class<?> clazz, PreDestroyInvokerImpl preDestroyInvokerImpl) {
+
+		List<Method> preDestroyMethods = new ArrayList<Method>();
+		List<Method> bridgePreDestroyMethods = new ArrayList<Method>();
+
+		for (Method method : clazz.getMethods()) {
+
+			if (preDestroyInvokerImpl.hasPreDestroyAnnotation(method)) {
+				preDestroyMethods.add(method);
+			}
+
+			if (preDestroyInvokerImpl.hasBridgePreDestroyAnnotation(method)) {
+				bridgePreDestroyMethods.add(method);
+			}
+		}
+
+		boolean preDestroyDeclared = !preDestroyMethods.isEmpty();
+		Class<?> declaringClass = clazz;
+
+		while (!preDestroyDeclared && (declaringClass != null)) {
+
+			for (Method method : declaringClass.getDeclaredMethods()) {
+
+				if (preDestroyInvokerImpl.hasPreDestroyAnnotation(method)) {
+					preDestroyDeclared = true;
+
+					break;
+				}
+			}
+
+			declaringClass = declaringClass.getSuperclass();
+		}
+
+		if (preDestroyMethods.isEmpty() && bridgePreDestroyMethods.isEmpty() && !preDestroyDeclared) {
+			return NONE;
+		}
+		else {
+			return new PreDestroyMethods(toArray(preDestroyMethods), toArray(bridgePreDestroyMethods),
+					preDestroyDeclared);
+		}
+	}
+
+	/**
+	 * Determines whether or not the specified method is annotated with the annotation that has the specified name and
+	 * has a void return type and zero parameters.
+	 */
+	/* package-private */ static boolean isCallbackMethod(Method method, String annotationName) {
+
+		if (method.getReturnType() == Void.TYPE) {
+			Class<?>[] parameterTypes = method.getParameterTypes();
+
+			if ((parameterTypes == null) || (parameterTypes.length == 0)) {
+				Annotation[] annotations = method.getAnnotations();
+
+				if (annotations != null) {
+
+					for (Annotation annotation : annotations) {
+
+						if (annotation.annotationType().getName().equals(annotationName)) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the public methods of the class that are annotated with {@link
+	 * javax.portlet.faces.annotation.BridgePreDestroy}.
+	 */
+	/* package-private */ Method[] getBridgePreDestroyMethods() {
+		return bridgePreDestroyMethods;
+	}
+
+	/**
+	 * Returns the public methods of the class that are annotated with {@link javax.annotation.PreDestroy}.
+	 */
+	/* package-private */ Method[] getPreDestroyMethods() {
+		return preDestroyMethods;
+	}
+
+	/**
+	 * Returns true if any method of the class hierarchy, regardless of visibility, is annotated with {@link
+	 * javax.annotation.PreDestroy}.
+	 */
+	/* package-private */ boolean isPreDestroyDeclared() {
+		return preDestroyDeclared;
+	}
+
+	private static Method[] toArray(List<Method> methods) {
+
+		if (methods.isEmpty()) {
+			return EMPTY_METHODS;
+		}
+		else {
+			return methods.toArray(new Method[methods.size()]);
+		}
+	}
+}
@@ -26,8 +26,15 @@ import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.portlet.faces.annotation.BridgeRequestScoped;
 
+import com.liferay.faces.bridge.context.map.internal.RequestScopeMap;
+
 
 /**
+ * This class is the CDI {@link Context} for beans annotated with {@link BridgeRequestScoped}. Instances are stored as
+ * request attributes so that they are visible to (and saved/restored by) the bridge request scope. In order to avoid
+ * calling through the request attribute wrappers of the portlet container on every lookup, instances are looked up with
+ * {@link RequestScopeMap#getCachedAttribute(String)} when the request map is the bridge's {@link RequestScopeMap}.
+ *
  * @author  Neil Griffin
  */
 public class BridgeRequestBeanContext implements Context {
@@ -40,6 +47,25 @@ public class BridgeRequestBeanContext implements Context {
 	@Override
 	public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
 
+		FacesContext facesContext = FacesContext.getCurrentInstance();
+		ExternalContext externalContext = facesContext.getExternalContext();
+
+		return get(contextual, creationalContext, externalContext.getRequestMap());
+	}
+
+	@Override
+	public Class<? extends Annotation> getScope() {
+		return BridgeRequestScoped.class;
+	}
+
+	@Override
+	public boolean isActive() {
+		return FacesContext.getCurrentInstance() != null;
+	}
+
+	/* package-private */ <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext,
+		Map<String, Object> requestMap) {
+
 		Bean<T> bean = (Bean<T>) contextual;
 
 		String attributeName = bean.getName();
@@ -50,13 +76,17 @@ public class BridgeRequestBeanContext implements Context {
 			attributeName = beanClass.getName();
 		}
 
-		FacesContext facesContext = FacesContext.getCurrentInstance();
-
-		ExternalContext externalContext = facesContext.getExternalContext();
-
-		Map<String, Object> requestMap = externalContext.getRequestMap();
+		// The instance might have been created in a previous phase of the portlet lifecycle and restored as a request
+		// attribute by the bridge request scope.
+		T bridgeRequestScopedBean;
 
-		T bridgeRequestScopedBean = (T) requestMap.get(attributeName);
+		if (requestMap instanceof RequestScopeMap) {
+			RequestScopeMap requestScopeMap = (RequestScopeMap) requestMap;
+			bridgeRequestScopedBean = (T) requestScopeMap.getCachedAttribute(attributeName);
+		}
+		else {
+			bridgeRequestScopedBean = (T) requestMap.get(attributeName);
+		}
 
 		if (bridgeRequestScopedBean == null) {
 
@@ -71,14 +101,4 @@ public class BridgeRequestBeanContext implements Context {
 
 		return bridgeRequestScopedBean;
 	}
-
-	@Override
-	public Class<? extends Annotation> getScope() {
-		return BridgeRequestScoped.class;
-	}
-
-	@Override
-	public boolean isActive() {
-		return FacesContext.getCurrentInstance() != null;
-	}
 }
@@ -19,28 +19,71 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 
 /**
+ * This class is a {@link CapturingWriter} that copies the characters of consecutive write operations into a segmented
+ * arena of pooled char buffers. Each segment is captured as a single {@link WriterOperation} that writes the entire
+ * segment in bulk when invoked. Flush and close operations are captured as separate writer operations so that their
+ * ordering with respect to the captured characters is maintained. After the captured writer operations have been
+ * invoked, the buffers can be returned to the pool via {@link #releaseWriterOperations(List)}.
+ *
  * @author  Neil Griffin
  */
 public class CapturingWriterImpl extends CapturingWriter {
 
+	// Private Constants
+	private static final int SEGMENT_SIZE = 8192;
+	private static final int MAX_POOLED_SEGMENTS = 64;
+	private static final BlockingQueue<char[]> SEGMENT_POOL = new ArrayBlockingQueue<char[]>(MAX_POOLED_SEGMENTS);
+
 	// Private Data Members
+	private SegmentWriteOperation currentSegment;
 	private List<WriterOperation> writerOperations;
 
 	public CapturingWriterImpl() {
 		this.writerOperations = new ArrayList<WriterOperation>();
 	}
 
+	/**
+	 * Returns the char buffers of the specified writer operations to the pool. If any buffers were returned, then the
+	 * specified list is cleared so that the released writer operations cannot be invoked again. Callers should release
+	 * the writer operations in a finally block so that the buffers are returned to the pool even if invoking the
+	 * writer operations fails.
+	 */
+	public static void releaseWriterOperations(List<WriterOperation> writerOperations) {
+
+		if (writerOperations != null) {
+
+			boolean released = false;
+
+			for (WriterOperation writerOperation : writerOperations) {
+
+				if (writerOperation instanceof SegmentWriteOperation) {
+
+					SegmentWriteOperation segmentWriteOperation = (SegmentWriteOperation) writerOperation;
+					segmentWriteOperation.release();
+					released = true;
+				}
+			}
+
+			// Note that only lists that were captured by this class contain segments, and those lists are modifiable.
+			if (released) {
+				writerOperations.clear();
+			}
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
-		writerOperations.add(new CloseOperation());
+		writerOperations.add(CloseOperation.INSTANCE);
 	}
 
 	@Override
 	public void flush() throws IOException {
-		writerOperations.add(new FlushOperation());
+		writerOperations.add(FlushOperation.INSTANCE);
 	}
 
 	@Override
@@ -52,20 +95,20 @@ public class CapturingWriterImpl extends CapturingWriter {
 	public void write(char[] cbuf) throws IOException {
 
 		if (cbuf != null) {
-			writerOperations.add(new CbufWriteOperation(cbuf));
+			write(cbuf, 0, cbuf.length);
 		}
 	}
 
 	@Override
 	public void write(int c) throws IOException {
-		writerOperations.add(new IntWriteOperation(c));
+		getWritableSegment().append((char) c);
 	}
 
 	@Override
 	public void write(String str) throws IOException {
 
 		if (str != null) {
-			writerOperations.add(new StrWriteOperation(str));
+			write(str, 0, str.length());
 		}
 	}
 
@@ -73,7 +116,18 @@ public class CapturingWriterImpl extends CapturingWriter {
 	public void write(char[] cbuf, int off, int len) throws IOException {
 
 		if (cbuf != null) {
-			writerOperations.add(new CBufOffLenWriterOperation(cbuf, off, len));
+
+			if ((off < 0) || (len < 0) || (off > (cbuf.length - len))) {
+				throw new IndexOutOfBoundsException();
+			}
+
+			while (len > 0) {
+
+				SegmentWriteOperation segment = getWritableSegment();
+				int count = segment.append(cbuf, off, len);
+				off += count;
+				len -= count;
+			}
 		}
 	}
 
@@ -81,46 +135,49 @@ public class CapturingWriterImpl extends CapturingWriter {
 	public void write(String str, int off, int len) throws IOException {
 
 		if (str != null) {
-			writerOperations.add(new StrOffLenWriteOperation(str, off, len));
-		}
-	}
 
-	private static class CBufOffLenWriterOperation implements WriterOperation {
+			if ((off < 0) || (len < 0) || (off > (str.length() - len))) {
+				throw new IndexOutOfBoundsException();
+			}
 
-		private char[] cbuf;
-		private int off;
-		private int len;
+			while (len > 0) {
 
-		public CBufOffLenWriterOperation(char[] cbuf, int off, int len) {
-			this.cbuf = cbuf.clone();
-			this.off = off;
-			this.len = len;
-		}
-
-		@Override
-		public void invoke(Writer writer) throws IOException {
-			writer.write(cbuf, off, len);
+				SegmentWriteOperation segment = getWritableSegment();
+				int count = segment.append(str, off, len);
+				off += count;
+				len -= count;
+			}
 		}
 	}
 
-	private static class CbufWriteOperation implements WriterOperation {
+	/**
+	 * Returns the segment that is able to receive characters, which is the current segment if it is the last captured
+	 * writer operation (i.e. no flush or close operation has been captured and the list of writer operations has not
+	 * been cleared since it was created) and is not full. Otherwise, a new segment is started.
+	 */
+	private SegmentWriteOperation getWritableSegment() {
 
-		private char[] cbuf;
+		int size = writerOperations.size();
 
-		public CbufWriteOperation(char[] cbuf) {
-			this.cbuf = cbuf.clone();
-		}
+		if ((size == 0) || (writerOperations.get(size - 1) != currentSegment) || currentSegment.isFull()) {
 
-		@Override
-		public void invoke(Writer writer) throws IOException {
-			writer.write(cbuf);
+			char[] chars = SEGMENT_POOL.poll();
+
+			if (chars == null) {
+				chars = new char[SEGMENT_SIZE];
+			}
+
+			currentSegment = new SegmentWriteOperation(chars);
+			writerOperations.add(currentSegment);
 		}
+
+		return currentSegment;
 	}
 
-	private static class CloseOperation implements WriterOperation {
+	private static final class CloseOperation implements WriterOperation {
 
-		public CloseOperation() {
-		}
+		// Private Constants
+		private static final CloseOperation INSTANCE = new CloseOperation();
 
 		@Override
 		public void invoke(Writer writer) throws IOException {
@@ -128,10 +185,10 @@ public class CapturingWriterImpl extends CapturingWriter {
 		}
 	}
 
-	private static class FlushOperation implements WriterOperation {
+	private static final class FlushOperation implements WriterOperation {
 
-		public FlushOperation() {
-		}
+		// Private Constants
+		private static final FlushOperation INSTANCE = new FlushOperation();
 
 		@Override
 		public void invoke(Writer writer) throws IOException {
@@ -139,49 +196,73 @@ public class CapturingWriterImpl extends CapturingWriter {
 		}
 	}
 
-	private static class IntWriteOperation implements WriterOperation {
+	private static final class SegmentWriteOperation implements WriterOperation {
 
-		private int c;
+		// Private Data Members
+		private char[] chars;
+		private int length;
 
-		public IntWriteOperation(int c) {
-			this.c = c;
+		public SegmentWriteOperation(char[] chars) {
+			this.chars = chars;
 		}
 
 		@Override
 		public void invoke(Writer writer) throws IOException {
-			writer.write(c);
+
+			verifyNotReleased();
+			writer.write(chars, 0, length);
+		}
+
+		public void append(char c) {
+
+			verifyNotReleased();
+			chars[length++] = c;
 		}
-	}
 
-	private static class StrOffLenWriteOperation implements WriterOperation {
+		public int append(char[] cbuf, int off, int len) {
 
-		private String str;
-		private int off;
-		private int len;
+			verifyNotReleased();
 
-		public StrOffLenWriteOperation(String str, int off, int len) {
-			this.str = str;
-			this.off = off;
-			this.len = len;
+			int count = Math.min(len, chars.length - length);
+			System.arraycopy(cbuf, off, chars, length, count);
+			length += count;
+
+			return count;
 		}
 
-		@Override
-		public void invoke(Writer writer) throws IOException {
-			writer.write(str, off, len);
+		public int append(String str, int off, int len) {
+
+			verifyNotReleased();
+
+			int count = Math.min(len, chars.length - length);
+			str.getChars(off, off + count, chars, length);
+			length += count;
+
+			return count;
 		}
-	}
 
-	private static class StrWriteOperation implements WriterOperation {
+		/**
+		 * Returns true if the segment is unable to receive more characters, either because it is full or because it
+		 * has been released.
+		 */
+		public boolean isFull() {
+			return (chars == null) || (length == chars.length);
+		}
 
-		private String str;
+		public void release() {
 
-		public StrWriteOperation(String str) {
-			this.str = str;
+			if (chars != null) {
+				SEGMENT_POOL.offer(chars);
+				chars = null;
+			}
 		}
 
-		@Override
-		public void invoke(Writer writer) throws IOException {
-			writer.write(str);
+		private void verifyNotReleased() {
+
+			if (chars == null) {
+				throw new IllegalStateException(
+					"Unable to use a captured writer operation after its buffer has been returned to the pool");
+			}
 		}
 	}
 }
@@ -64,6 +64,7 @@ import com.liferay.faces.bridge.context.BridgePortalContext;
 import com.liferay.faces.bridge.context.map.internal.ContextMapFactory;
 import com.liferay.faces.bridge.context.map.internal.RequestHeaderMap;
 import com.liferay.faces.bridge.context.map.internal.RequestHeaderValuesMap;
+import com.liferay.faces.bridge.context.map.internal.RequestScopeMap;
 import com.liferay.faces.bridge.filter.internal.HttpServletResponseHeaderAdapter;
 import com.liferay.faces.bridge.filter.internal.HttpServletResponseResourceAdapter;
 import com.liferay.faces.bridge.internal.BridgeExt;
@@ -1426,10 +1427,17 @@ public class ExternalContextImpl extends ExternalContextCompat_Portlet3_Impl {
 		boolean preferPreDestroy = PortletConfigParam.PreferPreDestroy.getBooleanValue(portletConfig);
 		applicationMap = contextMapFactory.getApplicationScopeMap(portletContext, preferPreDestroy);
 
-		// Initialize the request attribute map.
+		// Initialize the request attribute map. If the request attribute map is being replaced (because the request
+		// has been replaced), then continue to track the managed-beans that were put into the previous one.
+		Map<String, Object> previousRequestAttributeMap = requestAttributeMap;
 		requestAttributeMap = contextMapFactory.getRequestScopeMap(portletContext, portletRequest,
 				portletResponse.getNamespace(), preferPreDestroy);
 
+		if ((previousRequestAttributeMap instanceof RequestScopeMap) &&
+				(requestAttributeMap instanceof RequestScopeMap)) {
+			((RequestScopeMap) requestAttributeMap).trackManagedBeans((RequestScopeMap) previousRequestAttributeMap);
+		}
+
 		// Initialize the session map.
 		sessionMap = contextMapFactory.getSessionScopeMap(portletContext, portletRequest.getPortletSession(true),
 				PortletSession.PORTLET_SCOPE, preferPreDestroy);
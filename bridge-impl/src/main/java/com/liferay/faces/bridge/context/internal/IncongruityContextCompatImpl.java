@@ -342,29 +342,37 @@ public abstract class IncongruityContextCompatImpl extends IncongruityContextBas
 		else if (incongruousAction == IncongruousAction.WRITE_RESPONSE_OUTPUT_WRITER) {
 			DelayedResponseOutputWriter delayedResponseOutputWriter = (DelayedResponseOutputWriter)
 				getResponseOutputWriter();
-			String delayedOutput = delayedResponseOutputWriter.toString();
-			logger.debug("writing responseOutputWriter, delayedOutput=[{0}]", delayedOutput);
+			int size = delayedResponseOutputWriter.size();
+			logger.debug("writing responseOutputWriter, delayedOutput.length=[{0}]", size);
 
-			if ((delayedOutput != null) && (delayedOutput.length() > 0)) {
-				Writer outputWriter = externalContext.getResponseOutputWriter();
-				outputWriter.write(delayedOutput);
+			// Return the chunks to the pool even if writing the delayed output to the response fails.
+			try {
+
+				if (size > 0) {
+					Writer outputWriter = externalContext.getResponseOutputWriter();
+					delayedResponseOutputWriter.writeTo(outputWriter);
+				}
+			}
+			finally {
+				delayedResponseOutputWriter.reset();
 			}
 		}
 		else if (incongruousAction == IncongruousAction.WRITE_RESPONSE_OUTPUT_STREAM) {
 			DelayedResponseOutputStream delayedResponseOutputStream = (DelayedResponseOutputStream)
 				getResponseOutputStream();
-			byte[] delayedOutputByteArray = delayedResponseOutputStream.toByteArray();
-			int length = 0;
+			int size = delayedResponseOutputStream.size();
+			logger.debug("writing responseOutputStream, delayedOutput.length=[{0}]", size);
 
-			if (delayedOutputByteArray != null) {
-				length = delayedOutputByteArray.length;
-			}
+			// Return the chunks to the pool even if writing the delayed output to the response fails.
+			try {
 
-			logger.debug("writing responseOutputStream, delayedOutputByteArray.length=[{0}]", length);
-
-			if ((delayedOutputByteArray != null) && (length > 0)) {
-				OutputStream outputStream = externalContext.getResponseOutputStream();
-				outputStream.write(delayedOutputByteArray);
+				if (size > 0) {
+					OutputStream outputStream = externalContext.getResponseOutputStream();
+					delayedResponseOutputStream.writeTo(outputStream);
+				}
+			}
+			finally {
+				delayedResponseOutputStream.reset();
 			}
 		}
 
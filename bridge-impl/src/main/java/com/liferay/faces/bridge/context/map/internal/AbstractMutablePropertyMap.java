@@ -56,6 +56,18 @@ public abstract class AbstractMutablePropertyMap<V> extends AbstractPropertyMap<
 		return getMutableProperty(name);
 	}
 
+	/**
+	 * Returns the names of the properties as an array that is a copy of the (cached) set of property names, so that the
+	 * caller can iterate over the names without allocating an {@link Enumeration} or a {@link java.util.Map.Entry} for
+	 * each property.
+	 */
+	protected String[] getPropertyNameArray() {
+
+		initPropertyNames();
+
+		return propertyNames.toArray(new String[propertyNames.size()]);
+	}
+
 	@Override
 	protected Enumeration<String> getPropertyNames() {
 
@@ -34,6 +34,14 @@ import com.liferay.faces.util.logging.LoggerFactory;
 
 
 /**
+ * This class provides a namespace-aware view of the request parameters. In order to avoid building a namespaced (or
+ * prefixed) parameter name for every lookup, the parameter values are indexed by their actual names, their
+ * non-namespaced names, and their non-prefixed names upon the first lookup. The index is updated whenever the map is
+ * modified, and is discarded (to be rebuilt upon the next lookup) whenever a view is returned by {@link #entrySet()} or
+ * {@link #values()}, since the caller could modify the parameters via the view. The namespaced (or prefixed) name is
+ * only built in order to look up a parameter that is missing from the index if the parameter-map within the
+ * PortletRequest was unable to iterate over all of the parameters when the index was built.
+ *
  * @author  Neil Griffin
  */
 public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
@@ -50,6 +58,8 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 	private BridgeRequestScope bridgeRequestScope;
 	private String defaultRenderKitId;
 	private Map<String, String> facesViewParameterMap;
+	private Map<String, String[]> parameterIndex;
+	private boolean parameterIndexComplete;
 	private String parameterPrefix;
 	private String namespace;
 	private boolean namespaceViewState;
@@ -100,23 +110,21 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 			values[values.length - 1] = value;
 		}
 
-		if (namespacedKey) {
-			wrappedParameterMap.put(key, values);
-		}
-		else {
+		String parameterName = key;
 
-			if (strictParameterNamespacing) {
-				wrappedParameterMap.put(namespace + key, values);
-			}
-			else {
-				wrappedParameterMap.put(key, values);
-			}
+		if (!namespacedKey && strictParameterNamespacing) {
+			parameterName = namespace + key;
 		}
+
+		wrappedParameterMap.put(parameterName, values);
+		reindexParameter(parameterName);
 	}
 
 	@Override
 	public void clear() {
+
 		wrappedParameterMap.clear();
+		parameterIndex = null;
 	}
 
 	/**
@@ -131,16 +139,14 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 		// If the specified key has a valid value, then
 		if (key != null) {
 
-			// Determine whether or not the key is present in the parameter-map within the PortletRequest. This should
-			// be a quick lookup (minimal performance impact).
-			found = wrappedParameterMap.containsKey(key);
-
-			if (!found) {
-				found = wrappedParameterMap.containsKey(namespace + key);
-			}
+			// Determine whether or not the key is present in the index of the parameter-map within the PortletRequest.
+			// This is a quick lookup that does not require the namespaced (or prefixed) name of the key to be built.
+			found = getParameterIndex().containsKey(key);
 
-			if (!found && separatorCharEnabled) {
-				found = wrappedParameterMap.containsKey(parameterPrefix + key);
+			// NOTE: Just in case the parameter-map within the PortletRequest is unable to iterate over all of the
+			// parameters (for example, a Liferay WSRP producer portlet), try to find the value directly.
+			if (!found && !parameterIndexComplete) {
+				found = (getWrappedParameterValues(key.toString()) != null);
 			}
 
 			if (!found) {
@@ -202,19 +208,10 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 						// nothing to do -- just here for comments readability.
 					}
 
-					// Otherwise, iterate through the parameter names to see if the name is present. This is done as a
-					// last resort since getting the parameter names is an expensive operation.
+					// Otherwise, check the parameter names to see if the name is present. This is done as a last resort
+					// since getting the parameter names is an expensive operation.
 					else {
-
-						Set<String> parameterNames = keySet();
-
-						for (String parameterName : parameterNames) {
-							found = parameterName.equals(keyAsString);
-
-							if (found) {
-								break;
-							}
-						}
+						found = keySet().contains(keyAsString);
 					}
 				}
 			}
@@ -230,20 +227,22 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 
 	@Override
 	public Set<java.util.Map.Entry<String, String[]>> entrySet() {
+
+		// Since the caller could modify the parameters via the returned set, the index must be rebuilt.
+		parameterIndex = null;
+
 		return wrappedParameterMap.entrySet();
 	}
 
 	@Override
 	public String[] get(Object key) {
 
-		String[] values = wrappedParameterMap.get(key);
+		String[] values = getParameterIndex().get(key);
 
-		if (values == null) {
-			values = wrappedParameterMap.get(namespace + key);
-		}
-
-		if ((values == null) && separatorCharEnabled) {
-			values = wrappedParameterMap.get(parameterPrefix + key);
+		// NOTE: Just in case the parameter-map within the PortletRequest is unable to iterate over all of the
+		// parameters (for example, a Liferay WSRP producer portlet), try to get the value directly.
+		if ((values == null) && (key != null) && !parameterIndexComplete) {
+			values = getWrappedParameterValues(key.toString());
 		}
 
 		if (values == null) {
@@ -351,17 +350,33 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 
 	@Override
 	public String[] put(String key, String[] value) {
-		return wrappedParameterMap.put(key, value);
+
+		String[] previousValue = wrappedParameterMap.put(key, value);
+		reindexParameter(key);
+
+		return previousValue;
 	}
 
 	@Override
 	public void putAll(Map<? extends String, ? extends String[]> m) {
+
 		wrappedParameterMap.putAll(m);
+
+		for (String key : m.keySet()) {
+			reindexParameter(key);
+		}
 	}
 
 	@Override
 	public String[] remove(Object key) {
-		return wrappedParameterMap.remove(key);
+
+		String[] previousValue = wrappedParameterMap.remove(key);
+
+		if (key instanceof String) {
+			reindexParameter((String) key);
+		}
+
+		return previousValue;
 	}
 
 	@Override
@@ -371,6 +386,10 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 
 	@Override
 	public Collection<String[]> values() {
+
+		// Since the caller could modify the parameters via the returned collection, the index must be rebuilt.
+		parameterIndex = null;
+
 		return wrappedParameterMap.values();
 	}
 
@@ -429,4 +448,122 @@ public class FacesRequestParameterMapImpl implements FacesRequestParameterMap {
 
 		return specialParameterValue;
 	}
+
+	private Map<String, String[]> getParameterIndex() {
+
+		if (parameterIndex == null) {
+			parameterIndex = indexParameters();
+		}
+
+		return parameterIndex;
+	}
+
+	/**
+	 * Returns the values of the specified key by looking up the actual name, the namespaced name, and the prefixed name
+	 * (in that order) in the parameter-map within the PortletRequest.
+	 */
+	private String[] getWrappedParameterValues(String key) {
+
+		String[] values = wrappedParameterMap.get(key);
+
+		if (values == null) {
+			values = wrappedParameterMap.get(namespace + key);
+		}
+
+		if ((values == null) && separatorCharEnabled) {
+			values = wrappedParameterMap.get(parameterPrefix + key);
+		}
+
+		return values;
+	}
+
+	/**
+	 * Indexes the parameter values by their non-prefixed names, then by their non-namespaced names, and finally by
+	 * their actual names, so that the index provides the same precedence as looking up the actual name, the namespaced
+	 * name, and the prefixed name (in that order). If the number of iterated parameters does not match the size of the
+	 * parameter-map within the PortletRequest, then the index is flagged as incomplete so that parameters which are
+	 * missing from the index are looked up directly.
+	 */
+	private Map<String, String[]> indexParameters() {
+
+		Map<String, String[]> index = new HashMap<String, String[]>();
+		Set<Map.Entry<String, String[]>> entrySet = wrappedParameterMap.entrySet();
+
+		if (separatorCharEnabled) {
+
+			for (Map.Entry<String, String[]> mapEntry : entrySet) {
+
+				String parameterName = mapEntry.getKey();
+				String[] values = mapEntry.getValue();
+
+				if ((parameterName != null) && (values != null) && parameterName.startsWith(parameterPrefix)) {
+					index.put(parameterName.substring(parameterPrefix.length()), values);
+				}
+			}
+		}
+
+		for (Map.Entry<String, String[]> mapEntry : entrySet) {
+
+			String parameterName = mapEntry.getKey();
+			String[] values = mapEntry.getValue();
+
+			if ((parameterName != null) && (values != null) && parameterName.startsWith(namespace)) {
+				index.put(parameterName.substring(namespace.length()), values);
+			}
+		}
+
+		int parameterCount = 0;
+
+		for (Map.Entry<String, String[]> mapEntry : entrySet) {
+
+			String[] values = mapEntry.getValue();
+
+			if (values != null) {
+				index.put(mapEntry.getKey(), values);
+			}
+
+			parameterCount++;
+		}
+
+		parameterIndexComplete = (parameterCount == wrappedParameterMap.size());
+
+		if (!parameterIndexComplete) {
+			logger.debug("Unable to index all {0} request parameters (indexed {1})", wrappedParameterMap.size(),
+				parameterCount);
+		}
+
+		return index;
+	}
+
+	private void reindexKey(String key) {
+
+		String[] values = getWrappedParameterValues(key);
+
+		if (values == null) {
+			parameterIndex.remove(key);
+		}
+		else {
+			parameterIndex.put(key, values);
+		}
+	}
+
+	/**
+	 * Updates the index for each of the keys that are able to refer to the specified parameter name.
+	 */
+	private void reindexParameter(String parameterName) {
+
+		// If the index has not been built (or has been discarded), then it will be built upon the next lookup.
+		if ((parameterIndex != null) && (parameterName != null)) {
+
+			reindexKey(parameterName);
+
+			if (parameterName.startsWith(namespace)) {
+				reindexKey(parameterName.substring(namespace.length()));
+			}
+
+			if (separatorCharEnabled && parameterName.startsWith(parameterPrefix)) {
+				reindexKey(parameterName.substring(parameterPrefix.length()));
+			}
+		}
+	}
 }
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+
+/**
+ * This class is a {@link CaseInsensitiveHashMap} that computes its values on demand. Each value that is requested by
+ * key is computed individually (and remembered, even if the key is absent), and all of the values are computed only
+ * when the map is iterated or otherwise inspected as a whole. Values that were put into the map before then take
+ * precedence over the values that are computed all at once. Since it is designed to exist and be used within the
+ * scope of a request, it is not thread-safe.
+ *
+ * @author  Neil Griffin
+ */
+public abstract class LazyCaseInsensitiveHashMap<V> extends CaseInsensitiveHashMap<V> {
+
+	// serialVersionUID
+	private static final long serialVersionUID = 1826355093165627403L;
+
+	// Private Data Members
+	private Set<String> absentKeys;
+	private boolean populated;
+
+	@Override
+	public void clear() {
+
+		populated = true;
+		absentKeys = null;
+		super.clear();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+
+		computeValueIfNecessary(key);
+
+		return super.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+
+		populateIfNecessary();
+
+		return super.containsValue(value);
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+
+		populateIfNecessary();
+
+		return super.entrySet();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super V> action) {
+
+		populateIfNecessary();
+		super.forEach(action);
+	}
+
+	@Override
+	public V get(Object key) {
+
+		computeValueIfNecessary(key);
+
+		return super.get(key);
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+
+		V value = defaultValue;
+
+		if (containsKey(key)) {
+			value = get(key);
+		}
+
+		return value;
+	}
+
+	@Override
+	public boolean isEmpty() {
+
+		populateIfNecessary();
+
+		return super.isEmpty();
+	}
+
+	@Override
+	public Set<String> keySet() {
+
+		populateIfNecessary();
+
+		return super.keySet();
+	}
+
+	@Override
+	public V remove(Object key) {
+
+		populateIfNecessary();
+
+		return super.remove(key);
+	}
+
+	@Override
+	public int size() {
+
+		populateIfNecessary();
+
+		return super.size();
+	}
+
+	@Override
+	public Collection<V> values() {
+
+		populateIfNecessary();
+
+		return super.values();
+	}
+
+	/**
+	 * Puts all of the values into the map by calling {@link #put(String, Object)}.
+	 */
+	protected abstract void computeAllValues();
+
+	/**
+	 * Returns the value associated with the specified key, or null if the map does not contain the key.
+	 *
+	 * @param  key  The key as specified by the caller (not converted to lower case).
+	 */
+	protected abstract V computeValue(String key);
+
+	private void computeValueIfNecessary(Object key) {
+
+		if (!populated && (key != null) && !super.containsKey(key)) {
+
+			String lowerCaseKey = getLowerCaseKey(key);
+
+			// Since looking up a key that is absent is just as expensive as looking up a key that is present, remember
+			// the keys that are absent.
+			if ((absentKeys == null) || !absentKeys.contains(lowerCaseKey)) {
+
+				String keyAsString = key.toString();
+				V value = computeValue(keyAsString);
+
+				if (value == null) {
+
+					if (absentKeys == null) {
+						absentKeys = new HashSet<String>();
+					}
+
+					absentKeys.add(lowerCaseKey);
+				}
+				else {
+					put(keyAsString, value);
+				}
+			}
+		}
+	}
+
+	private void populateIfNecessary() {
+
+		if (!populated) {
+
+			populated = true;
+			absentKeys = null;
+
+			// Keep the values that were put into the map (either by the caller or by computing them individually) so
+			// that they take precedence over the values that are computed all at once.
+			Map<String, V> previousValues = null;
+
+			if (!super.isEmpty()) {
+				previousValues = new HashMap<String, V>(this);
+			}
+
+			computeAllValues();
+
+			if (previousValues != null) {
+				super.putAll(previousValues);
+			}
+		}
+	}
+}
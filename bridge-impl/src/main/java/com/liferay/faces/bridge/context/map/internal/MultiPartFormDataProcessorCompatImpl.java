@@ -17,7 +17,15 @@ package com.liferay.faces.bridge.context.map.internal;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -36,6 +44,7 @@ import javax.portlet.ResourceRequest;
 import javax.portlet.faces.BridgeFactoryFinder;
 import javax.servlet.http.Part;
 
+import com.liferay.faces.bridge.internal.BridgeExt;
 import com.liferay.faces.bridge.internal.PortletConfigParam;
 import com.liferay.faces.util.context.map.FacesRequestParameterMap;
 import com.liferay.faces.util.logging.Logger;
@@ -52,6 +61,9 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 	// Logger
 	private static final Logger logger = LoggerFactory.getLogger(MultiPartFormDataProcessorCompatImpl.class);
 
+	// Private Constants
+	private static final String CONTENT_RANGE = "Content-Range";
+
 	protected abstract void addUploadedFile(Map<String, List<UploadedFile>> uploadedFileMap, String fieldName,
 		UploadedFile uploadedFile);
 
@@ -63,15 +75,29 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 		// Parse the request parameters and save all uploaded files in a map.
 		Map<String, List<UploadedFile>> uploadedFileMap = new HashMap<>();
 
-		// Determine the max file upload size threshold (in bytes).
-		long defaultMaxFileSize = PortletConfigParam.UploadedFileMaxSize.getDefaultLongValue();
-		long uploadedFileMaxSize = PortletConfigParam.UploadedFileMaxSize.getLongValue(portletConfig);
+		// Determine the max file upload size threshold (in bytes). Since the size of the request is governed by
+		// <multipart-config> in web.xml, the threshold is only enforced if it has been specified as an init-param.
+		long uploadedFileMaxSize = Long.MAX_VALUE;
 
-		if (defaultMaxFileSize != uploadedFileMaxSize) {
-			logger.warn("Ignoring init param {0}=[{1}] since it has been replaced by <multipart-config> in web.xml",
-				PortletConfigParam.UploadedFileMaxSize.getName(), uploadedFileMaxSize);
+		if (PortletConfigParam.UploadedFileMaxSize.isConfigured(portletConfig)) {
+			uploadedFileMaxSize = PortletConfigParam.UploadedFileMaxSize.getLongValue(portletConfig);
 		}
 
+		// Determine the size (in bytes) at or below which uploaded files are kept in memory (in a byte array).
+		long uploadedFileMemoryThreshold = Math.min(PortletConfigParam.UploadedFileMemoryThreshold.getLongValue(
+					portletConfig), Integer.MAX_VALUE);
+
+		// If configured, get a digester that computes the digest of uploaded files while they are saved.
+		UploadedFileDigester uploadedFileDigester = getUploadedFileDigester(portletConfig);
+
+		// Determine whether or not files may be uploaded in chunks that are sent in multiple resource requests.
+		boolean chunkingEnabled = (clientDataRequest instanceof ResourceRequest) &&
+			PortletConfigParam.UploadedFileChunkingEnabled.getBooleanValue(portletConfig);
+
+		// Get the manager that keeps track of the number of bytes used by uploaded files.
+		UploadedFileStorageManager uploadedFileStorageManager = UploadedFileStorageManager.getInstance(
+				portletConfig.getPortletContext());
+
 		// FACES-271: Include name+value pairs found in the ActionRequest/ResourceRequest.
 		PortletParameters portletParameters;
 
@@ -129,6 +155,9 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 		UploadedFileFactory uploadedFileFactory = (UploadedFileFactory) BridgeFactoryFinder.getFactory(
 				portletConfig.getPortletContext(), UploadedFileFactory.class);
 
+		// Keep track of whether or not a chunk of an uploaded file was received but more chunks are expected.
+		boolean chunkIncomplete = false;
+
 		// Begin parsing the request for file parts:
 		try {
 			Collection<Part> parts = clientDataRequest.getParts();
@@ -154,51 +183,158 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 
 						File uploadedFilePath = new File(uploadedFilesPath, fileName);
 						String uploadedFilePathAbsolutePath = uploadedFilePath.getAbsolutePath();
-						part.write(uploadedFilePathAbsolutePath);
+						long partSize = part.getSize();
+						UploadedFileChunk uploadedFileChunk = null;
 
-						// If the copy was successful, then
-						if (uploadedFilePath.exists()) {
+						if (chunkingEnabled) {
 
-							// If present, build up a map of headers. According to Hypertext Transfer Protocol --
-							// HTTP/1.1 (http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.2), header names
-							// are case-insensitive. In order to support this, use a TreeMap with case insensitive
-							// keys.
-							Map<String, List<String>> headersMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+							String contentRange = part.getHeader(CONTENT_RANGE);
 
-							Collection<String> headerNames = part.getHeaderNames();
+							if (contentRange == null) {
+								contentRange = clientDataRequest.getProperty(CONTENT_RANGE);
+							}
 
-							for (String headerName : headerNames) {
-								Collection<String> headerValues = part.getHeaders(headerName);
-								List<String> headerValueList = new ArrayList<>();
+							uploadedFileChunk = UploadedFileChunk.parse(contentRange);
+						}
 
-								for (String headerValue : headerValues) {
-									headerValueList.add(headerValue);
+						// If the uploaded file is being sent in chunks, then write the current chunk to the partial
+						// file.
+						if (uploadedFileChunk != null) {
+
+							// Since the same file name might be uploaded more than once during the session, the
+							// chunks are written to a partial file that is specific to the portlet, the file upload
+							// field, and the file name.
+							String uploadId = facesRequestParameterMap.getNamespace() + "/" + fieldName + "/" +
+								fileName;
+							com.liferay.faces.util.model.UploadedFile uploadedFile = writeChunk(uploadedFileChunk,
+									part, uploadId, uploadedFilesPath, uploadedFilePath, fileName, characterEncoding,
+									uploadedFileMaxSize, uploadedFileFactory, uploadedFileStorageManager);
+
+							// If the last chunk was received, then the uploaded file is complete.
+							if (uploadedFile != null) {
+
+								if (uploadedFile.getStatus() ==
+										com.liferay.faces.util.model.UploadedFile.Status.FILE_SAVED) {
+									facesRequestParameterMap.addValue(fieldName, uploadedFilePathAbsolutePath);
 								}
 
-								headersMap.put(headerName, headerValueList);
+								addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
 							}
 
-							// Put a valid UploadedFile instance into the map that contains all of the
-							// uploaded file's attributes, along with a successful status.
+							// Otherwise, more chunks are expected.
+							else {
+								chunkIncomplete = true;
+							}
+						}
+
+						// Otherwise, if the uploaded file exceeds the max file upload size threshold, then reject it
+						// before it is written to disk.
+						else if (partSize > uploadedFileMaxSize) {
+
+							String message = "Uploaded file=[" + fileName + "] size=[" + partSize +
+								"] exceeds the maximum size=[" + uploadedFileMaxSize + "]";
+							com.liferay.faces.util.model.UploadedFile uploadedFile = getSizeLimitExceededUploadedFile(
+									uploadedFileFactory, part, characterEncoding, fileName, partSize, message);
+							addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
+						}
+
+						// Otherwise, if the uploaded file does not exceed the in-memory threshold, then keep its
+						// contents in memory so that it is only written to disk if the application asks for its path.
+						else if ((partSize > 0L) && (partSize <= uploadedFileMemoryThreshold)) {
+
+							byte[] bytes = readBytes(part.getInputStream(), (int) partSize);
 							Map<String, Object> attributeMap = new HashMap<>();
-							String id = Long.toString(((long) hashCode()) + System.currentTimeMillis());
-							com.liferay.faces.util.model.UploadedFile uploadedFile =
-								uploadedFileFactory.getUploadedFile(uploadedFilePathAbsolutePath, attributeMap,
-									characterEncoding, part.getContentType(), headersMap, id, null, fileName,
-									part.getSize(), com.liferay.faces.util.model.UploadedFile.Status.FILE_SAVED);
 
+							if (uploadedFileDigester != null) {
+								uploadedFileDigester.digest(bytes, attributeMap);
+							}
+
+							com.liferay.faces.util.model.UploadedFile uploadedFile = new UploadedFileMemoryImpl(
+									uploadedFilePathAbsolutePath, attributeMap, characterEncoding,
+									part.getContentType(), getHeadersMap(part), getId(), fileName, bytes,
+									uploadedFileStorageManager);
+
+							// Note that the file does not exist at this path until the application calls
+							// UploadedFile.getAbsolutePath(), so the value of the request parameter only identifies
+							// the uploaded file.
 							facesRequestParameterMap.addValue(fieldName, uploadedFilePathAbsolutePath);
 							addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
-							logger.debug("Received uploaded file fieldName=[{0}] fileName=[{1}]", fieldName, fileName);
+							logger.debug("Received uploaded file fieldName=[{0}] fileName=[{1}] in memory", fieldName,
+								fileName);
+						}
+
+						// Otherwise, if writing the uploaded file to disk would exceed the quota of the session (or
+						// the quota of all sessions), then reject it.
+						else if (!uploadedFileStorageManager.reserve(uploadedFilesPath, partSize)) {
+
+							String message = "Uploaded file=[" + fileName + "] size=[" + partSize +
+								"] exceeds the quota of uploaded files";
+							com.liferay.faces.util.model.UploadedFile uploadedFile = getSizeLimitExceededUploadedFile(
+									uploadedFileFactory, part, characterEncoding, fileName, partSize, message);
+							addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
 						}
+
+						// Otherwise, let the servlet container write the uploaded file to disk. Containers typically
+						// do this by moving (renaming) the temporary file that backs the part rather than copying it.
 						else {
 
-							if (fileName.trim().length() > 0) {
-								Exception e = new IOException("Failed to copy the stream of uploaded file=[" +
-										fileName + "] to a temporary file (possibly a zero-length uploaded file)");
+							createDirectory(uploadedFilesPath);
+
+							Map<String, Object> attributeMap = new HashMap<>();
+
+							// If a digest is to be computed, then copy the stream of the uploaded file to disk so that
+							// the digest and the byte count can be computed in the same pass. Otherwise, let the
+							// servlet container write the file.
+							try {
+
+								if ((uploadedFileDigester != null) && (partSize > 0L)) {
+									uploadedFileDigester.write(part.getInputStream(), uploadedFilePath, attributeMap);
+								}
+								else {
+
+									part.write(uploadedFilePathAbsolutePath);
+
+									// A zero-byte uploaded file has the digest of the empty input.
+									if (uploadedFileDigester != null) {
+										uploadedFileDigester.digest(new byte[0], attributeMap);
+									}
+								}
+							}
+							finally {
+
+								if (uploadedFilePath.exists()) {
+									uploadedFileStorageManager.commit(uploadedFilesPath, partSize);
+								}
+								else {
+									uploadedFileStorageManager.cancel(uploadedFilesPath, partSize);
+								}
+							}
+
+							// If the copy was successful, then
+							if (uploadedFilePath.exists()) {
+
+								// Put a valid UploadedFile instance into the map that contains all of the
+								// uploaded file's attributes, along with a successful status.
 								com.liferay.faces.util.model.UploadedFile uploadedFile =
-									uploadedFileFactory.getUploadedFile(e);
+									uploadedFileFactory.getUploadedFile(uploadedFilePathAbsolutePath, attributeMap,
+										characterEncoding, part.getContentType(), getHeadersMap(part), getId(), null,
+										fileName, partSize,
+										com.liferay.faces.util.model.UploadedFile.Status.FILE_SAVED);
+
+								facesRequestParameterMap.addValue(fieldName, uploadedFilePathAbsolutePath);
 								addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
+								logger.debug("Received uploaded file fieldName=[{0}] fileName=[{1}]", fieldName,
+									fileName);
+							}
+							else {
+
+								if (fileName.trim().length() > 0) {
+									Exception e = new IOException("Failed to copy the stream of uploaded file=[" +
+											fileName + "] to a temporary file (possibly a zero-length uploaded file)");
+									com.liferay.faces.util.model.UploadedFile uploadedFile =
+										uploadedFileFactory.getUploadedFile(e);
+									addUploadedFile(uploadedFileMap, fieldName, uploadedFile);
+								}
 							}
 						}
 					}
@@ -233,9 +369,100 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 
 		}
 
+		// If more chunks are expected, then the value of the field is not known until the last chunk is received. In
+		// order to prevent the field from failing validation (for example, if it is required), indicate that the
+		// UploadedFileChunkPhaseListener is to skip the remaining phases of the JSF lifecycle.
+		if (chunkIncomplete) {
+			clientDataRequest.setAttribute(BridgeExt.UPLOADED_FILE_CHUNK_INCOMPLETE, Boolean.TRUE);
+		}
+
 		return uploadedFileMap;
 	}
 
+	private void createDirectory(File uploadedFilesPath) {
+
+		if (!uploadedFilesPath.exists() && !uploadedFilesPath.mkdirs()) {
+			logger.warn("Unable to create directory for uploadedFilesPath=[{0}]", uploadedFilesPath);
+		}
+	}
+
+	private Map<String, List<String>> getHeadersMap(Part part) {
+
+		// If present, build up a map of headers. According to Hypertext Transfer Protocol -- HTTP/1.1
+		// (http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.2), header names are case-insensitive. In order
+		// to support this, use a TreeMap with case insensitive keys.
+		Map<String, List<String>> headersMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		Collection<String> headerNames = part.getHeaderNames();
+
+		for (String headerName : headerNames) {
+			Collection<String> headerValues = part.getHeaders(headerName);
+			List<String> headerValueList = new ArrayList<>();
+
+			for (String headerValue : headerValues) {
+				headerValueList.add(headerValue);
+			}
+
+			headersMap.put(headerName, headerValueList);
+		}
+
+		return headersMap;
+	}
+
+	private String getId() {
+		return Long.toString(((long) hashCode()) + System.currentTimeMillis());
+	}
+
+	/**
+	 * Returns an uploaded file with a status of ERROR that indicates that a previous chunk is missing. The client can
+	 * resume the upload by sending the chunk at the expected position, which is specified by the {@link
+	 * BridgeExt#UPLOADED_FILE_CHUNK_POSITION} attribute.
+	 */
+	private com.liferay.faces.util.model.UploadedFile getMissingChunkUploadedFile(
+		UploadedFileFactory uploadedFileFactory, UploadedFileChunk uploadedFileChunk, Part part,
+		String characterEncoding, String fileName, long expectedPosition) {
+
+		String message = "Missing chunk of uploaded file=[" + fileName + "] expected position=[" + expectedPosition +
+			"] received position=[" + uploadedFileChunk.getFirstBytePos() + "]";
+		logger.debug(message);
+
+		Map<String, Object> attributeMap = new HashMap<>();
+		attributeMap.put(BridgeExt.UPLOADED_FILE_CHUNK_POSITION, expectedPosition);
+
+		return uploadedFileFactory.getUploadedFile(null, attributeMap, characterEncoding, part.getContentType(),
+				getHeadersMap(part), getId(), message, fileName, uploadedFileChunk.getCompleteLength(),
+				com.liferay.faces.util.model.UploadedFile.Status.ERROR);
+	}
+
+	private com.liferay.faces.util.model.UploadedFile getSizeLimitExceededUploadedFile(
+		UploadedFileFactory uploadedFileFactory, Part part, String characterEncoding, String fileName, long partSize,
+		String message) {
+
+		logger.debug(message);
+
+		return uploadedFileFactory.getUploadedFile(null, new HashMap<String, Object>(), characterEncoding,
+				part.getContentType(), getHeadersMap(part), getId(), message, fileName, partSize,
+				com.liferay.faces.util.model.UploadedFile.Status.FILE_SIZE_LIMIT_EXCEEDED);
+	}
+
+	private UploadedFileDigester getUploadedFileDigester(PortletConfig portletConfig) {
+
+		UploadedFileDigester uploadedFileDigester = null;
+		String algorithm = PortletConfigParam.UploadedFileDigestAlgorithm.getStringValue(portletConfig);
+
+		if ((algorithm != null) && (algorithm.length() > 0)) {
+
+			try {
+				uploadedFileDigester = new UploadedFileDigester(MessageDigest.getInstance(algorithm));
+			}
+			catch (NoSuchAlgorithmException e) {
+				logger.error("Unable to compute the digest of uploaded files: {0}", e.getMessage());
+			}
+		}
+
+		return uploadedFileDigester;
+	}
+
 	private String getValidFileName(String contentDispositionHeader) {
 
 		String[] headerParts = contentDispositionHeader.split(";");
@@ -267,4 +494,147 @@ public abstract class MultiPartFormDataProcessorCompatImpl {
 
 		return null;
 	}
+
+	private byte[] readBytes(InputStream inputStream, int size) throws IOException {
+
+		byte[] bytes = new byte[size];
+		int totalBytesRead = 0;
+
+		try {
+
+			int bytesRead = 0;
+
+			while ((totalBytesRead < size) && (bytesRead != -1)) {
+
+				bytesRead = inputStream.read(bytes, totalBytesRead, size - totalBytesRead);
+
+				if (bytesRead > 0) {
+					totalBytesRead += bytesRead;
+				}
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+
+		if (totalBytesRead < size) {
+			bytes = Arrays.copyOf(bytes, totalBytesRead);
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Writes the specified chunk of an uploaded file to the partial file, and returns the uploaded file if it is
+	 * complete (or has been rejected). Otherwise, returns null since more chunks are expected. The partial file is
+	 * specific to the upload (see {@link UploadedFileChunk#getPartialFileName(String)}) and the chunks of an upload are
+	 * written one at a time.
+	 */
+	private com.liferay.faces.util.model.UploadedFile writeChunk(UploadedFileChunk uploadedFileChunk, Part part,
+		String uploadId, File uploadedFilesPath, File uploadedFilePath, String fileName, String characterEncoding,
+		long uploadedFileMaxSize, UploadedFileFactory uploadedFileFactory,
+		UploadedFileStorageManager uploadedFileStorageManager) throws IOException {
+
+		File partialFilePath = new File(uploadedFilesPath, uploadedFileChunk.getPartialFileName(uploadId));
+
+		synchronized (UploadedFileChunk.getPartialFileLock(partialFilePath)) {
+			return writeChunk(uploadedFileChunk, part, partialFilePath, uploadedFilesPath, uploadedFilePath, fileName,
+					characterEncoding, uploadedFileMaxSize, uploadedFileFactory, uploadedFileStorageManager);
+		}
+	}
+
+	private com.liferay.faces.util.model.UploadedFile writeChunk(UploadedFileChunk uploadedFileChunk, Part part,
+		File partialFilePath, File uploadedFilesPath, File uploadedFilePath, String fileName, String characterEncoding,
+		long uploadedFileMaxSize, UploadedFileFactory uploadedFileFactory,
+		UploadedFileStorageManager uploadedFileStorageManager) throws IOException {
+
+		com.liferay.faces.util.model.UploadedFile uploadedFile = null;
+		long completeLength = uploadedFileChunk.getCompleteLength();
+		long partialFileLength = partialFilePath.length();
+
+		if (completeLength > uploadedFileMaxSize) {
+
+			String message = "Uploaded file=[" + fileName + "] size=[" + completeLength +
+				"] exceeds the maximum size=[" + uploadedFileMaxSize + "]";
+			uploadedFile = getSizeLimitExceededUploadedFile(uploadedFileFactory, part, characterEncoding, fileName,
+					completeLength, message);
+		}
+
+		// Otherwise, if the position of the chunk is beyond the end of the partial file, then a previous chunk is
+		// missing. Reject the chunk before anything is reserved or written.
+		else if (uploadedFileChunk.getFirstBytePos() > partialFileLength) {
+			uploadedFile = getMissingChunkUploadedFile(uploadedFileFactory, uploadedFileChunk, part, characterEncoding,
+					fileName, partialFileLength);
+		}
+
+		// Otherwise, if writing the chunk would exceed the quota of the session (or the quota of all sessions), then
+		// reject it.
+		else if (!uploadedFileStorageManager.reserve(uploadedFilesPath, uploadedFileChunk.getLength())) {
+
+			String message = "Uploaded file=[" + fileName + "] size=[" + completeLength +
+				"] exceeds the quota of uploaded files";
+			uploadedFile = getSizeLimitExceededUploadedFile(uploadedFileFactory, part, characterEncoding, fileName,
+					completeLength, message);
+		}
+		else {
+
+			createDirectory(uploadedFilesPath);
+
+			boolean written = false;
+
+			try {
+				written = uploadedFileChunk.writeTo(partialFilePath, part.getInputStream());
+			}
+			finally {
+
+				if (written) {
+					uploadedFileStorageManager.commit(uploadedFilesPath, uploadedFileChunk.getLength());
+				}
+				else {
+					uploadedFileStorageManager.cancel(uploadedFilesPath, uploadedFileChunk.getLength());
+				}
+			}
+
+			if (written) {
+
+				// Since the bytes of a re-sent chunk replace the bytes that were previously received, they are no
+				// longer used.
+				long replacedBytes = partialFileLength - uploadedFileChunk.getFirstBytePos();
+
+				if (replacedBytes > 0L) {
+					uploadedFileStorageManager.release(uploadedFilesPath, replacedBytes);
+				}
+
+				logger.debug("Received chunk position=[{0}] length=[{1}] of uploaded file=[{2}] size=[{3}]",
+					uploadedFileChunk.getFirstBytePos(), uploadedFileChunk.getLength(), fileName, completeLength);
+
+				if (uploadedFileChunk.isLast()) {
+
+					Path partialPath = partialFilePath.toPath();
+					Path uploadedPath = uploadedFilePath.toPath();
+
+					try {
+						Files.move(partialPath, uploadedPath, StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+					}
+					catch (AtomicMoveNotSupportedException e) {
+						Files.move(partialPath, uploadedPath, StandardCopyOption.REPLACE_EXISTING);
+					}
+
+					uploadedFile = uploadedFileFactory.getUploadedFile(uploadedFilePath.getAbsolutePath(),
+							new HashMap<String, Object>(), characterEncoding, part.getContentType(),
+							getHeadersMap(part), getId(), null, fileName, uploadedFilePath.length(),
+							com.liferay.faces.util.model.UploadedFile.Status.FILE_SAVED);
+					logger.debug("Received all chunks of uploaded file=[{0}]", fileName);
+				}
+			}
+			// Otherwise, the partial file was truncated after its length was determined.
+			else {
+				uploadedFile = getMissingChunkUploadedFile(uploadedFileFactory, uploadedFileChunk, part,
+						characterEncoding, fileName, partialFilePath.length());
+			}
+		}
+
+		return uploadedFile;
+	}
 }
@@ -26,8 +26,6 @@ import javax.portlet.PortletSession;
 
 import com.liferay.faces.bridge.internal.PortletConfigParam;
 import com.liferay.faces.util.context.map.FacesRequestParameterMap;
-import com.liferay.faces.util.logging.Logger;
-import com.liferay.faces.util.logging.LoggerFactory;
 import com.liferay.faces.util.model.UploadedFile;
 
 
@@ -37,9 +35,6 @@ import com.liferay.faces.util.model.UploadedFile;
 public class MultiPartFormDataProcessorImpl extends MultiPartFormDataProcessorCompatImpl
 	implements MultiPartFormDataProcessor {
 
-	// Logger
-	private static final Logger logger = LoggerFactory.getLogger(MultiPartFormDataProcessorImpl.class);
-
 	@Override
 	public Map<String, List<UploadedFile>> process(ClientDataRequest clientDataRequest, PortletConfig portletConfig,
 		FacesRequestParameterMap facesRequestParameterMap) {
@@ -48,21 +43,12 @@ public class MultiPartFormDataProcessorImpl extends MultiPartFormDataProcessorCo
 
 		String uploadedFilesDir = PortletConfigParam.UploadedFilesDir.getStringValue(portletConfig);
 
-		// Using the portlet sessionId, determine a unique folder path and create the path if it does not exist.
+		// Using the portlet sessionId, determine a unique folder path. Note that the path is created when the first
+		// uploaded file is written to disk, and is deleted when the session is destroyed.
 		String sessionId = portletSession.getId();
-
-		// FACES-1452: Non-alpha-numeric characters must be removed order to ensure that the folder will be
-		// created properly.
-		sessionId = sessionId.replaceAll("[^A-Za-z0-9]", "");
-
-		File uploadedFilesPath = new File(uploadedFilesDir, sessionId);
-
-		if (!uploadedFilesPath.exists()) {
-
-			if (!uploadedFilesPath.mkdirs()) {
-				logger.warn("Unable to create directory for uploadedFilesPath=[{0}]", uploadedFilesPath);
-			}
-		}
+		UploadedFileStorageManager uploadedFileStorageManager = UploadedFileStorageManager.getInstance(
+				portletConfig.getPortletContext());
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir, sessionId);
 
 		return iterateOver(clientDataRequest, portletConfig, facesRequestParameterMap, uploadedFilesPath);
 	}
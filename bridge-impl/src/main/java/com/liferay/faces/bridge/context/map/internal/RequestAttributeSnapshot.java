@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * This class provides a point-in-time copy of the names and values of the request attributes, obtained in a single
+ * pass. It is intended for internal scans of the entire request scope, which would otherwise allocate a {@link
+ * Map.Entry} (and a backing {@link java.util.Enumeration}) for each attribute. Since removing attributes from the
+ * request does not affect the snapshot, it is also safe to remove attributes while iterating over it.
+ *
+ * @author  Neil Griffin
+ */
+public final class RequestAttributeSnapshot {
+
+	// Private Final Data Members
+	private final String[] names;
+	private final Object[] values;
+
+	/* package-private */ RequestAttributeSnapshot(String[] names, Object[] values) {
+		this.names = names;
+		this.values = values;
+	}
+
+	/**
+	 * Returns a snapshot of the attributes in the specified request map. If the map is the bridge's {@link
+	 * RequestScopeMap} then the snapshot is taken directly from the underlying portlet request. Otherwise, the snapshot
+	 * is taken from the entries of the map.
+	 *
+	 * @param  requestMap  The request map, typically obtained from {@link
+	 *                     javax.faces.context.ExternalContext#getRequestMap()}.
+	 */
+	public static RequestAttributeSnapshot of(Map<String, Object> requestMap) {
+
+		RequestAttributeSnapshot requestAttributeSnapshot;
+
+		if (requestMap instanceof RequestScopeMap) {
+
+			RequestScopeMap requestScopeMap = (RequestScopeMap) requestMap;
+			requestAttributeSnapshot = requestScopeMap.getSnapshot();
+		}
+		else {
+
+			Set<Map.Entry<String, Object>> mapEntries = requestMap.entrySet();
+			int size = mapEntries.size();
+			String[] names = new String[size];
+			Object[] values = new Object[size];
+			int index = 0;
+
+			for (Map.Entry<String, Object> mapEntry : mapEntries) {
+				names[index] = mapEntry.getKey();
+				values[index] = mapEntry.getValue();
+				index++;
+			}
+
+			requestAttributeSnapshot = new RequestAttributeSnapshot(names, values);
+		}
+
+		return requestAttributeSnapshot;
+	}
+
+	/**
+	 * Returns the name of the attribute at the specified index.
+	 */
+	public String getName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the value of the attribute at the specified index.
+	 */
+	public Object getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the number of attributes in the snapshot.
+	 */
+	public int size() {
+		return names.length;
+	}
+}
@@ -23,12 +23,14 @@ import com.liferay.faces.util.logging.LoggerFactory;
 
 
 /**
- * This class provides a {@link Map<String,String>} abstraction over request headers. Since it is designed to exist and
- * be used within the scope of a request, it is not thread-safe.
+ * This class provides a {@link Map<String,String>} abstraction over request headers. The value of each header is
+ * obtained from the underlying request header values map on demand, and the map is populated with all of the headers
+ * only when it is iterated. Since it is designed to exist and be used within the scope of a request, it is not
+ * thread-safe.
  *
  * @author  Neil Griffin
  */
-public class RequestHeaderMap extends CaseInsensitiveHashMap<String> {
+public class RequestHeaderMap extends LazyCaseInsensitiveHashMap<String> {
 
 	// serialVersionUID
 	private static final long serialVersionUID = 7916822183626170352L;
@@ -36,7 +38,16 @@ public class RequestHeaderMap extends CaseInsensitiveHashMap<String> {
 	// Logger
 	private static final Logger logger = LoggerFactory.getLogger(RequestHeaderMap.class);
 
+	// Private Final Data Members
+	private final Map<String, String[]> requestHeaderValuesMap;
+
 	public RequestHeaderMap(Map<String, String[]> requestHeaderValuesMap) {
+		this.requestHeaderValuesMap = requestHeaderValuesMap;
+	}
+
+	@Override
+	protected void computeAllValues() {
+
 		Set<Map.Entry<String, String[]>> entrySet = requestHeaderValuesMap.entrySet();
 
 		if (entrySet != null) {
@@ -57,4 +68,16 @@ public class RequestHeaderMap extends CaseInsensitiveHashMap<String> {
 		}
 	}
 
+	@Override
+	protected String computeValue(String key) {
+
+		String value = null;
+		String[] values = requestHeaderValuesMap.get(key);
+
+		if ((values != null) && (values.length > 0)) {
+			value = values[0];
+		}
+
+		return value;
+	}
 }
@@ -31,8 +31,10 @@ import com.liferay.faces.util.logging.LoggerFactory;
 
 
 /**
- * This class provides a @link Map<String,String[]>} abstraction over request header values. Since it is designed to
- * exist and be used within the scope of a request, it is not thread-safe.
+ * This class provides a @link Map<String,String[]>} abstraction over request header values. In order to avoid
+ * enumerating all of the portlet request properties when only a few headers are read, the value of each header is
+ * obtained from the portlet request on demand, and the map is populated with all of the headers only when it is
+ * iterated. Since it is designed to exist and be used within the scope of a request, it is not thread-safe.
  *
  * @author  Neil Griffin
  */
@@ -55,7 +57,51 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 	private static final String HEADER_CONTENT_TYPE = "Content-Type";
 	private static final String HEADER_FACES_REQUEST = "Faces-Request";
 
+	// Private Final Data Members
+	private final transient PortletRequest portletRequest;
+
 	public RequestHeaderValuesMap(PortletRequest portletRequest) {
+		this.portletRequest = portletRequest;
+	}
+
+	/**
+	 * Adds an "Accept" header to the hashmap, according to the response content types in the specified request. Example
+	 * Value: Accept: text/html
+	 *
+	 * @param  portletRequest  The current portlet request.
+	 *
+	 * @see    <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.1">RFC2616</a>
+	 */
+	protected void addAcceptHeader(PortletRequest portletRequest) {
+
+		String acceptHeader = getAcceptHeader(portletRequest);
+		logger.debug("Adding acceptHeader=[{0}] to header map", acceptHeader);
+		put(HEADER_ACCEPT, new String[] { acceptHeader });
+	}
+
+	/**
+	 * Adds a "Content-Type" header to the hashmap, according to the content-type and character-encoding in the
+	 * specified request. Example Value: Content-Type: text/html; charset=ISO-8859-4
+	 *
+	 * @param  portletRequest  The current portlet request.
+	 *
+	 * @see    <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.17">RFC2616</a>
+	 */
+	protected void addContentTypeHeader(PortletRequest portletRequest) {
+
+		String contentTypeHeader = getContentTypeHeader(portletRequest);
+
+		if (contentTypeHeader != null) {
+			logger.debug("Adding contentTypeHeader=[{0}] to header map", contentTypeHeader);
+			put(HEADER_CONTENT_TYPE, new String[] { contentTypeHeader });
+		}
+		else {
+			// TCK: getRequestHeaderMapRenderTest
+		}
+	}
+
+	@Override
+	protected void computeAllValues() {
 
 		Enumeration<String> propertyNames = portletRequest.getPropertyNames();
 		boolean foundAccept = false;
@@ -75,27 +121,7 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 
 					if (locales != null) {
 						addHeader = false;
-
-						StringBuilder buf = new StringBuilder();
-
-						for (int i = 0; locales.hasMoreElements(); i++) {
-
-							if (i > 0) {
-								buf.append(",");
-							}
-
-							Locale locale = locales.nextElement();
-							buf.append(locale.getLanguage());
-
-							String country = locale.getCountry();
-
-							if ((country != null) && (country.length() > 0)) {
-								buf.append("-");
-								buf.append(country);
-							}
-						}
-
-						super.put(name, new String[] { buf.toString() });
+						put(name, new String[] { getAcceptLanguageHeader(locales) });
 					}
 				}
 
@@ -109,24 +135,8 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 				}
 
 				if (addHeader) {
-					Enumeration<String> properties = portletRequest.getProperties(name);
-
-					StringBuilder buf = new StringBuilder();
-
-					if (properties != null) {
-
-						for (int i = 0; properties.hasMoreElements(); i++) {
-
-							if (i > 0) {
-								buf.append(",");
-							}
-
-							buf.append(properties.nextElement());
-						}
-					}
-
-					String values = buf.toString();
-					super.put(name, new String[] { values });
+					String values = getPropertyValues(portletRequest.getProperties(name));
+					put(name, new String[] { values });
 
 					// NOTE: Need to check that the portlet container actually provided a value before the bridge can
 					// claim that it has detected "Accept", "Content-Type", or "Faces-Request".
@@ -157,42 +167,85 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 			addContentTypeHeader(portletRequest);
 		}
 
-		if (!foundFacesRequest) {
-
-			// If this is a ResourceRequest, and the resource handler chain doesn't consider this to be a resource, then
-			// we assume that it's Ajax and add the "Faces-Request" header with value "partial/ajax". Note that this is
-			// normally done by the jsf.js JavaScript library, but in a portlet environment, the original XmlHttpRequest
-			// is not made available to the portlet bridge.
-			if ((portletRequest instanceof ResourceRequest) ||
-					Bridge.PortletPhase.RESOURCE_PHASE.equals(
-						portletRequest.getAttribute(Bridge.PORTLET_LIFECYCLE_PHASE))) {
-
-				// If the BridgeExt.FACES_AJAX_PARAMETER request parameter is "true" then set the "partial/ajax" header
-				// so that the Ajax-based PartialResponseWriter renders XML. Otherwise, since the URL was probably setup
-				// with "portlet:resource" don't setup the header because it needs to fully run the JSF lifecycle with a
-				// real (non-parital) ResponseWriter that renders HTML.
-				FacesContext facesContext = FacesContext.getCurrentInstance();
-				ExternalContext externalContext = facesContext.getExternalContext();
-				String facesAjaxParam = externalContext.getRequestParameterMap().get(Bridge.FACES_AJAX_PARAMETER);
-
-				if ((facesAjaxParam != null) && BooleanHelper.isTrueToken(facesAjaxParam)) {
-					put(HEADER_FACES_REQUEST, new String[] { PARTIAL_AJAX });
-				}
-			}
+		if (!foundFacesRequest && isFacesAjaxResourceRequest(portletRequest)) {
+			put(HEADER_FACES_REQUEST, new String[] { PARTIAL_AJAX });
 		}
 
 		addJSF1Headers(portletRequest);
 	}
 
 	/**
-	 * Adds an "Accept" header to the hashmap, according to the response content types in the specified request. Example
-	 * Value: Accept: text/html
-	 *
-	 * @param  portletRequest  The current portlet request.
-	 *
-	 * @see    <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.1">RFC2616</a>
+	 * Returns the values of the specified header by getting the corresponding properties directly from the portlet
+	 * request, rather than enumerating all of the portlet request properties. The values are the same as those that are
+	 * put into the map by {@link #computeAllValues()}.
 	 */
-	protected void addAcceptHeader(PortletRequest portletRequest) {
+	@Override
+	protected String[] computeValue(String name) {
+
+		String value = null;
+		boolean addContentHeaders = shouldAddContentHeaders(portletRequest);
+
+		// FACES-3232: Within a HEADER_REQUEST, RENDER_REQUEST, or EVENT_REQUEST, the map must exclude the
+		// "Content-Type" and "Content-Length" properties (if they are present in the underlying request).
+		if (addContentHeaders ||
+				!(HEADER_CONTENT_LENGTH.equalsIgnoreCase(name) || HEADER_CONTENT_TYPE.equalsIgnoreCase(name))) {
+
+			Enumeration<String> properties = portletRequest.getProperties(name);
+
+			if ((properties != null) && properties.hasMoreElements()) {
+
+				Enumeration<Locale> locales = null;
+
+				if (HEADER_ACCEPT_LANGUAGE.equalsIgnoreCase(name)) {
+					locales = portletRequest.getLocales();
+				}
+
+				if (locales != null) {
+					value = getAcceptLanguageHeader(locales);
+				}
+				else {
+					value = getPropertyValues(properties);
+				}
+			}
+		}
+
+		// NOTE: Need to check that the portlet container actually provided a value before the bridge can claim that it
+		// has detected "Accept", "Content-Type", or "Faces-Request". http://issues.liferay.com/browse/FACES-34
+		if ((value == null) || (value.length() == 0)) {
+
+			if (HEADER_ACCEPT.equalsIgnoreCase(name)) {
+				value = getAcceptHeader(portletRequest);
+			}
+			else if (HEADER_CONTENT_TYPE.equalsIgnoreCase(name)) {
+
+				if (addContentHeaders) {
+
+					String contentTypeHeader = getContentTypeHeader(portletRequest);
+
+					if (contentTypeHeader != null) {
+						value = contentTypeHeader;
+					}
+				}
+			}
+			else if (HEADER_FACES_REQUEST.equalsIgnoreCase(name)) {
+
+				if (isFacesAjaxResourceRequest(portletRequest)) {
+					value = PARTIAL_AJAX;
+				}
+			}
+		}
+
+		String[] values = null;
+
+		if (value != null) {
+			values = new String[] { value };
+		}
+
+		return values;
+	}
+
+	private String getAcceptHeader(PortletRequest portletRequest) {
+
 		StringBuilder header = new StringBuilder();
 
 		Enumeration<String> responseContentTypes = portletRequest.getResponseContentTypes();
@@ -209,20 +262,36 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 			firstElement = false;
 		}
 
-		String acceptHeader = header.toString();
-		logger.debug("Adding acceptHeader=[{0}] to header map", acceptHeader);
-		put(HEADER_ACCEPT, new String[] { header.toString() });
+		return header.toString();
 	}
 
-	/**
-	 * Adds a "Content-Type" header to the hashmap, according to the content-type and character-encoding in the
-	 * specified request. Example Value: Content-Type: text/html; charset=ISO-8859-4
-	 *
-	 * @param  portletRequest  The current portlet request.
-	 *
-	 * @see    <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.17">RFC2616</a>
-	 */
-	protected void addContentTypeHeader(PortletRequest portletRequest) {
+	private String getAcceptLanguageHeader(Enumeration<Locale> locales) {
+
+		StringBuilder buf = new StringBuilder();
+
+		for (int i = 0; locales.hasMoreElements(); i++) {
+
+			if (i > 0) {
+				buf.append(",");
+			}
+
+			Locale locale = locales.nextElement();
+			buf.append(locale.getLanguage());
+
+			String country = locale.getCountry();
+
+			if ((country != null) && (country.length() > 0)) {
+				buf.append("-");
+				buf.append(country);
+			}
+		}
+
+		return buf.toString();
+	}
+
+	private String getContentTypeHeader(PortletRequest portletRequest) {
+
+		String contentTypeHeader = null;
 
 		// If the specified portletRequest contains characterSetEncoding and contentType information, then
 		// use that to build the header.
@@ -243,12 +312,53 @@ public class RequestHeaderValuesMap extends RequestHeaderValuesMapCompat {
 				header.append(characterSetEncoding);
 			}
 
-			String contentTypeHeader = header.toString();
-			logger.debug("Adding contentTypeHeader=[{0}] to header map", contentTypeHeader);
-			put(HEADER_CONTENT_TYPE, new String[] { header.toString() });
+			contentTypeHeader = header.toString();
 		}
-		else {
-			// TCK: getRequestHeaderMapRenderTest
+
+		return contentTypeHeader;
+	}
+
+	private String getPropertyValues(Enumeration<String> properties) {
+
+		StringBuilder buf = new StringBuilder();
+
+		if (properties != null) {
+
+			for (int i = 0; properties.hasMoreElements(); i++) {
+
+				if (i > 0) {
+					buf.append(",");
+				}
+
+				buf.append(properties.nextElement());
+			}
 		}
+
+		return buf.toString();
+	}
+
+	private boolean isFacesAjaxResourceRequest(PortletRequest portletRequest) {
+
+		boolean facesAjaxResourceRequest = false;
+
+		// If this is a ResourceRequest, and the resource handler chain doesn't consider this to be a resource, then we
+		// assume that it's Ajax and add the "Faces-Request" header with value "partial/ajax". Note that this is
+		// normally done by the jsf.js JavaScript library, but in a portlet environment, the original XmlHttpRequest is
+		// not made available to the portlet bridge.
+		if ((portletRequest instanceof ResourceRequest) ||
+				Bridge.PortletPhase.RESOURCE_PHASE.equals(portletRequest.getAttribute(Bridge.PORTLET_LIFECYCLE_PHASE))) {
+
+			// If the BridgeExt.FACES_AJAX_PARAMETER request parameter is "true" then set the "partial/ajax" header so
+			// that the Ajax-based PartialResponseWriter renders XML. Otherwise, since the URL was probably setup with
+			// "portlet:resource" don't setup the header because it needs to fully run the JSF lifecycle with a real
+			// (non-parital) ResponseWriter that renders HTML.
+			FacesContext facesContext = FacesContext.getCurrentInstance();
+			ExternalContext externalContext = facesContext.getExternalContext();
+			String facesAjaxParam = externalContext.getRequestParameterMap().get(Bridge.FACES_AJAX_PARAMETER);
+
+			facesAjaxResourceRequest = (facesAjaxParam != null) && BooleanHelper.isTrueToken(facesAjaxParam);
+		}
+
+		return facesAjaxResourceRequest;
 	}
 }
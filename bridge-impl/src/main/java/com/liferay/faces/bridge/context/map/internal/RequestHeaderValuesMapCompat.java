@@ -24,7 +24,7 @@ import javax.portlet.faces.Bridge;
  *
  * @author  Neil Griffin
  */
-public abstract class RequestHeaderValuesMapCompat extends CaseInsensitiveHashMap<String[]> {
+public abstract class RequestHeaderValuesMapCompat extends LazyCaseInsensitiveHashMap<String[]> {
 
 	// serialVersionUID
 	private static final long serialVersionUID = 5256297252491398013L;
@@ -16,7 +16,10 @@
 package com.liferay.faces.bridge.context.map.internal;
 
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.faces.context.ExternalContext;
 import javax.portlet.PortletContext;
@@ -41,6 +44,8 @@ public class RequestScopeMap extends AbstractMutablePropertyMap<Object> {
 
 	// Private Data Members
 	private BeanManager beanManager;
+	private Map<String, Object> cachedAttributes;
+	private Set<String> managedBeanNames;
 	private PortletRequest portletRequest;
 	private PreDestroyInvoker preDestroyInvoker;
 	private boolean preferPreDestroy;
@@ -60,6 +65,55 @@ public class RequestScopeMap extends AbstractMutablePropertyMap<Object> {
 		this.preDestroyInvoker = preDestroyInvokerFactory.getPreDestroyInvoker(portletContext);
 	}
 
+	/**
+	 * Returns the value of the specified request attribute (like {@link #get(Object)}) and caches it so that subsequent
+	 * calls do not call through the request attribute wrappers of the portlet container. The cached value is discarded
+	 * when the attribute is put or removed by way of this map or its entries, so a value that was removed or replaced
+	 * is never returned. Since attributes that are set or removed directly on the underlying {@link PortletRequest} are
+	 * not detected, this method is only intended for attributes that are owned by the bridge, such as the instances of
+	 * beans annotated with {@link javax.portlet.faces.annotation.BridgeRequestScoped}.
+	 */
+	public Object getCachedAttribute(String name) {
+
+		Object value = null;
+
+		if (cachedAttributes != null) {
+			value = cachedAttributes.get(name);
+		}
+
+		if (value == null) {
+
+			value = getMutableProperty(name);
+
+			if (value != null) {
+
+				if (cachedAttributes == null) {
+					cachedAttributes = new HashMap<String, Object>();
+				}
+
+				cachedAttributes.put(name, value);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns a snapshot of the names and values of the request attributes, obtained in a single pass over the
+	 * attribute names. See {@link RequestAttributeSnapshot#of(Map)}.
+	 */
+	public RequestAttributeSnapshot getSnapshot() {
+
+		String[] names = getPropertyNameArray();
+		Object[] values = new Object[names.length];
+
+		for (int i = 0; i < names.length; i++) {
+			values[i] = portletRequest.getAttribute(names[i]);
+		}
+
+		return new RequestAttributeSnapshot(names, values);
+	}
+
 	/**
 	 * According to the JSF 2.0 JavaDocs for {@link ExternalContext#getRequestMap}, before a managed-bean is removed
 	 * from the map, any public no-argument void return methods annotated with javax.annotation.PreDestroy must be
@@ -71,6 +125,10 @@ public class RequestScopeMap extends AbstractMutablePropertyMap<Object> {
 		String keyAsString = (String) key;
 		Object potentialManagedBeanValue = super.remove(key);
 
+		if (managedBeanNames != null) {
+			managedBeanNames.remove(keyAsString);
+		}
+
 		if (beanManager.isManagedBean(keyAsString, potentialManagedBeanValue)) {
 			preDestroyInvoker.invokeAnnotatedMethods(potentialManagedBeanValue, preferPreDestroy);
 		}
@@ -78,9 +136,68 @@ public class RequestScopeMap extends AbstractMutablePropertyMap<Object> {
 		return potentialManagedBeanValue;
 	}
 
+	/**
+	 * Removes the managed-beans that were put into this map (or into a previous instance of this map for the same
+	 * request, see {@link #trackManagedBeans(RequestScopeMap)}) from the request scope and calls any of their methods
+	 * that are annotated with javax.annotation.PreDestroy. Since the underlying request attributes might have been
+	 * replaced directly, each value is checked again before it is removed. Note that managed-beans that were set
+	 * directly as attributes of the underlying {@link PortletRequest} are not tracked.
+	 */
+	public void removeManagedBeans() {
+
+		if (managedBeanNames != null) {
+
+			// Copy the names so that the managed-beans can be removed while iterating.
+			String[] names = managedBeanNames.toArray(new String[managedBeanNames.size()]);
+			managedBeanNames.clear();
+
+			for (String name : names) {
+
+				Object potentialManagedBeanValue = getMutableProperty(name);
+
+				if ((potentialManagedBeanValue != null) && beanManager.isManagedBean(name, potentialManagedBeanValue)) {
+					super.remove(name);
+					preDestroyInvoker.invokeAnnotatedMethods(potentialManagedBeanValue, preferPreDestroy);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tracks the managed-beans that were tracked by the specified map, which must be a previous instance of this map
+	 * for the same request (for example, one that was replaced when {@link ExternalContext#setRequest(Object)} was
+	 * called).
+	 */
+	public void trackManagedBeans(RequestScopeMap requestScopeMap) {
+
+		if (requestScopeMap.managedBeanNames != null) {
+
+			if (managedBeanNames == null) {
+				managedBeanNames = new LinkedHashSet<String>();
+			}
+
+			managedBeanNames.addAll(requestScopeMap.managedBeanNames);
+		}
+	}
+
 	@Override
 	protected AbstractPropertyMapEntry<Object> createPropertyMapEntry(String name) {
-		return new RequestScopeMapEntry(portletRequest, name);
+
+		return new RequestScopeMapEntry(portletRequest, name) {
+
+				@Override
+				public void remove() {
+					removeCachedAttribute(getKey());
+					super.remove();
+				}
+
+				@Override
+				public Object setValue(Object value) {
+					removeCachedAttribute(getKey());
+
+					return super.setValue(value);
+				}
+			};
 	}
 
 	@Override
@@ -95,11 +212,40 @@ public class RequestScopeMap extends AbstractMutablePropertyMap<Object> {
 
 	@Override
 	protected void removeMutableProperty(String name) {
+		removeCachedAttribute(name);
 		portletRequest.removeAttribute(name);
 	}
 
 	@Override
 	protected void setMutableProperty(String name, Object value) {
+		removeCachedAttribute(name);
 		portletRequest.setAttribute(name, value);
 	}
+
+	@Override
+	protected void setProperty(String name, Object value) {
+
+		super.setProperty(name, value);
+
+		// Record the names of managed-beans as they are put so that the end-of-request cleanup only has to consider
+		// the managed-beans rather than every request attribute.
+		if ((value != null) && beanManager.isManagedBean(name, value)) {
+
+			if (managedBeanNames == null) {
+				managedBeanNames = new LinkedHashSet<String>();
+			}
+
+			managedBeanNames.add(name);
+		}
+		else if (managedBeanNames != null) {
+			managedBeanNames.remove(name);
+		}
+	}
+
+	private void removeCachedAttribute(String name) {
+
+		if (cachedAttributes != null) {
+			cachedAttributes.remove(name);
+		}
+	}
 }
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+
+/**
+ * This class represents a chunk of an uploaded file that is sent in multiple requests. The position of the chunk
+ * within the uploaded file is specified by a Content-Range header such as "bytes 0-1048575/5242880". See {@link
+ * com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFileChunkingEnabled}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class UploadedFileChunk {
+
+	// Private Constants
+	private static final String BYTES_UNIT = "bytes ";
+	private static final String PARTIAL_FILE_EXTENSION = ".part";
+	private static final Object[] PARTIAL_FILE_LOCKS = new Object[64];
+
+	static {
+
+		for (int i = 0; i < PARTIAL_FILE_LOCKS.length; i++) {
+			PARTIAL_FILE_LOCKS[i] = new Object();
+		}
+	}
+
+	// Private Final Data Members
+	private final long completeLength;
+	private final long firstBytePos;
+	private final long lastBytePos;
+
+	/* package-private */ UploadedFileChunk(long firstBytePos, long lastBytePos, long completeLength) {
+		this.firstBytePos = firstBytePos;
+		this.lastBytePos = lastBytePos;
+		this.completeLength = completeLength;
+	}
+
+	/**
+	 * Returns the lock that must be held while the specified partial file is checked, written, or renamed, so that the
+	 * chunks of an upload that are received by concurrent requests are written one at a time.
+	 */
+	/* package-private */ static Object getPartialFileLock(File partialFile) {
+		return PARTIAL_FILE_LOCKS[(partialFile.hashCode() & Integer.MAX_VALUE) % PARTIAL_FILE_LOCKS.length];
+	}
+
+	/**
+	 * Returns the chunk specified by the value of a Content-Range header, or null if the value is null or is not a
+	 * valid byte range with a known complete length.
+	 */
+	/* package-private */ static UploadedFileChunk parse(String contentRange) {
+
+		UploadedFileChunk uploadedFileChunk = null;
+
+		if ((contentRange != null) && contentRange.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+
+			int dashPos = contentRange.indexOf('-', BYTES_UNIT.length());
+			int slashPos = contentRange.indexOf('/', dashPos + 1);
+
+			if ((dashPos > 0) && (slashPos > 0)) {
+
+				try {
+					long firstBytePos = Long.parseLong(contentRange.substring(BYTES_UNIT.length(), dashPos).trim());
+					long lastBytePos = Long.parseLong(contentRange.substring(dashPos + 1, slashPos).trim());
+					long completeLength = Long.parseLong(contentRange.substring(slashPos + 1).trim());
+
+					if ((firstBytePos >= 0L) && (firstBytePos <= lastBytePos) && (lastBytePos < completeLength)) {
+						uploadedFileChunk = new UploadedFileChunk(firstBytePos, lastBytePos, completeLength);
+					}
+				}
+				catch (NumberFormatException e) {
+					// Ignore an invalid (or unknown "*") length.
+				}
+			}
+		}
+
+		return uploadedFileChunk;
+	}
+
+	/* package-private */ long getCompleteLength() {
+		return completeLength;
+	}
+
+	/* package-private */ long getFirstBytePos() {
+		return firstBytePos;
+	}
+
+	/* package-private */ long getLength() {
+		return (lastBytePos - firstBytePos) + 1L;
+	}
+
+	/**
+	 * Returns the name of the partial file of the upload that this chunk belongs to. Since the same file name might be
+	 * uploaded more than once during a session (for example, from two browser tabs, from two portlets, or after an
+	 * abandoned upload), the name is derived from the specified id of the upload and from the complete length of the
+	 * uploaded file. As a result, a chunk is never written to the partial file of a different upload, and a chunk whose
+	 * complete length differs from that of the previous chunks is treated as a missing chunk of a new upload.
+	 *
+	 * @param  uploadId  The id of the upload, which identifies the portlet, the file upload field, and the file name.
+	 */
+	/* package-private */ String getPartialFileName(String uploadId) {
+
+		String key = uploadId + "/" + completeLength;
+
+		return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString() + PARTIAL_FILE_EXTENSION;
+	}
+
+	/* package-private */ boolean isLast() {
+		return (lastBytePos + 1L) == completeLength;
+	}
+
+	/**
+	 * Writes the bytes of the chunk to the specified partial file at the position of the chunk. Since a client may
+	 * re-send a chunk (for example, after a network failure), any bytes at or after the position of the chunk are
+	 * replaced. If the position of the chunk is beyond the end of the partial file (meaning that a previous chunk is
+	 * missing) then the partial file is neither created nor modified and false is returned. The caller must hold the
+	 * {@link #getPartialFileLock(File) lock} of the partial file.
+	 *
+	 * @param   partialFile  The partial file to which chunks are written.
+	 * @param   inputStream  The stream of the bytes of the chunk, which is closed by this method.
+	 *
+	 * @throws  IOException  If the bytes could not be written or if the stream contains fewer bytes than specified by
+	 *                       the range of the chunk.
+	 */
+	/* package-private */ boolean writeTo(File partialFile, InputStream inputStream) throws IOException {
+
+		boolean written = false;
+
+		try {
+
+			// Note that the length of a partial file that does not exist is zero, so only the first chunk can create
+			// the partial file.
+			if (firstBytePos <= partialFile.length()) {
+
+				RandomAccessFile randomAccessFile = new RandomAccessFile(partialFile, "rw");
+
+				try {
+
+					FileChannel fileChannel = randomAccessFile.getChannel();
+
+					// Since the partial file might have been modified by a process that does not hold the lock, check
+					// the position of the chunk again.
+					if (firstBytePos <= fileChannel.size()) {
+
+						fileChannel.truncate(firstBytePos);
+
+						ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream);
+						long length = getLength();
+						long transferred = 0L;
+						long bytesTransferred = -1L;
+
+						while ((transferred < length) && (bytesTransferred != 0L)) {
+							bytesTransferred = fileChannel.transferFrom(readableByteChannel,
+									firstBytePos + transferred, length - transferred);
+							transferred += bytesTransferred;
+						}
+
+						if (transferred < length) {
+							fileChannel.truncate(firstBytePos);
+							throw new IOException("Received " + transferred + " of the " + length +
+								" bytes of the chunk at position " + firstBytePos);
+						}
+
+						written = true;
+					}
+				}
+				finally {
+					randomAccessFile.close();
+				}
+			}
+		}
+		finally {
+			inputStream.close();
+		}
+
+		return written;
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import com.liferay.faces.bridge.internal.BridgeExt;
+
+
+/**
+ * This class computes the digest and the exact byte count of uploaded files while they are being saved, and puts the
+ * results into the attributes of the uploaded file. See {@link
+ * com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFileDigestAlgorithm}. Since it wraps a single {@link
+ * MessageDigest}, it is not thread-safe.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class UploadedFileDigester {
+
+	// Private Constants
+	private static final int BUFFER_SIZE = 8192;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	// Private Final Data Members
+	private final MessageDigest messageDigest;
+
+	/* package-private */ UploadedFileDigester(MessageDigest messageDigest) {
+		this.messageDigest = messageDigest;
+	}
+
+	/**
+	 * Computes the digest of the specified contents of an uploaded file and puts the results into the specified
+	 * attribute map.
+	 */
+	/* package-private */ void digest(byte[] bytes, Map<String, Object> attributeMap) {
+
+		// Discard any state that was left behind by an uploaded file that failed to be saved.
+		messageDigest.reset();
+		putAttributes(attributeMap, messageDigest.digest(bytes), bytes.length);
+	}
+
+	/**
+	 * Copies the specified stream to the specified file while computing the digest, and puts the results into the
+	 * specified attribute map. If the stream cannot be copied, then the partial file is deleted.
+	 */
+	/* package-private */ void write(InputStream inputStream, File file, Map<String, Object> attributeMap)
+		throws IOException {
+
+		// Discard any state that was left behind by an uploaded file that failed to be saved.
+		messageDigest.reset();
+
+		long byteCount = 0L;
+		boolean written = false;
+
+		try {
+
+			OutputStream outputStream = new FileOutputStream(file);
+
+			try {
+
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int bytesRead;
+
+				while ((bytesRead = inputStream.read(buffer)) != -1) {
+					messageDigest.update(buffer, 0, bytesRead);
+					outputStream.write(buffer, 0, bytesRead);
+					byteCount += bytesRead;
+				}
+			}
+			finally {
+				outputStream.close();
+			}
+
+			written = true;
+		}
+		finally {
+
+			inputStream.close();
+
+			if (!written) {
+				messageDigest.reset();
+				file.delete();
+			}
+		}
+
+		putAttributes(attributeMap, messageDigest.digest(), byteCount);
+	}
+
+	private void putAttributes(Map<String, Object> attributeMap, byte[] digest, long byteCount) {
+
+		char[] hexChars = new char[digest.length * 2];
+
+		for (int i = 0; i < digest.length; i++) {
+			hexChars[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+			hexChars[(i * 2) + 1] = HEX_DIGITS[digest[i] & 0xf];
+		}
+
+		attributeMap.put(BridgeExt.UPLOADED_FILE_BYTE_COUNT, byteCount);
+		attributeMap.put(BridgeExt.UPLOADED_FILE_DIGEST, new String(hexChars));
+		attributeMap.put(BridgeExt.UPLOADED_FILE_DIGEST_ALGORITHM, messageDigest.getAlgorithm());
+	}
+}
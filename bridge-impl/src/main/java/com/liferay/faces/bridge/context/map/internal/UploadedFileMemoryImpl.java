@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+import com.liferay.faces.util.model.UploadedFile;
+
+
+/**
+ * This class represents an uploaded file whose size does not exceed the {@link
+ * com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFileMemoryThreshold}. The contents of the file are kept
+ * in memory and are only written to the {@link com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFilesDir}
+ * if the application requires the file to be on disk by calling {@link #getAbsolutePath()}, in which case the bytes are
+ * reserved with the {@link UploadedFileStorageManager} so that the quotas of uploaded files are enforced.
+ *
+ * @author  Neil Griffin
+ */
+public final class UploadedFileMemoryImpl implements Serializable, UploadedFile {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(UploadedFileMemoryImpl.class);
+
+	// serialVersionUID
+	private static final long serialVersionUID = 4816372015829346701L;
+
+	// Private Final Data Members
+	private final String absolutePath;
+	private final Map<String, Object> attributes;
+	private final String charSet;
+	private final String contentType;
+	private final Map<String, List<String>> headers;
+	private final String id;
+	private final String name;
+	private final long size;
+
+	// Private Data Members
+	private byte[] bytes;
+	private transient UploadedFileStorageManager uploadedFileStorageManager;
+	private boolean written;
+
+	/* package-private */ UploadedFileMemoryImpl(String absolutePath, Map<String, Object> attributes, String charSet,
+		String contentType, Map<String, List<String>> headers, String id, String name, byte[] bytes,
+		UploadedFileStorageManager uploadedFileStorageManager) {
+
+		this.absolutePath = absolutePath;
+		this.attributes = attributes;
+		this.charSet = charSet;
+		this.contentType = contentType;
+		this.headers = headers;
+		this.id = id;
+		this.name = name;
+		this.bytes = bytes;
+		this.size = bytes.length;
+		this.uploadedFileStorageManager = uploadedFileStorageManager;
+	}
+
+	@Override
+	public void delete() throws IOException {
+
+		bytes = null;
+
+		if (written) {
+
+			File file = new File(absolutePath);
+
+			if (file.exists() && !file.delete()) {
+				throw new IOException("Unable to delete uploaded file=[" + absolutePath + "]");
+			}
+
+			written = false;
+
+			if (uploadedFileStorageManager != null) {
+				uploadedFileStorageManager.release(file.getParentFile(), size);
+			}
+		}
+	}
+
+	/**
+	 * Returns the absolute path of the file in the {@link
+	 * com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFilesDir}. Since the caller expects the file to
+	 * exist, the contents of the file are written to disk the first time this method is called. Returns null if the
+	 * file has been deleted, if writing it to disk would exceed the quota of the session (or the quota of all
+	 * sessions), or if its contents could not be written to disk. Note that if this instance was deserialized (for
+	 * example, after session replication), then the bytes are not reserved and are only counted the next time that the
+	 * directories of the session are scanned.
+	 */
+	@Override
+	public String getAbsolutePath() {
+
+		if (!written) {
+
+			if (bytes == null) {
+				return null;
+			}
+
+			File file = new File(absolutePath);
+			File parentFile = file.getParentFile();
+
+			if ((uploadedFileStorageManager != null) && !uploadedFileStorageManager.reserve(parentFile, size)) {
+
+				logger.warn("Uploaded file=[{0}] size=[{1}] exceeds the quota of uploaded files", name, size);
+
+				return null;
+			}
+
+			try {
+
+				if ((parentFile != null) && !parentFile.exists() && !parentFile.mkdirs()) {
+					throw new IOException("Unable to create directory for uploadedFilesPath=[" + parentFile + "]");
+				}
+
+				write(absolutePath);
+				written = true;
+			}
+			catch (IOException e) {
+				logger.error(e);
+			}
+			finally {
+
+				if (uploadedFileStorageManager != null) {
+
+					if (written) {
+						uploadedFileStorageManager.commit(parentFile, size);
+					}
+					else {
+						uploadedFileStorageManager.cancel(parentFile, size);
+					}
+				}
+			}
+
+			if (!written) {
+				return null;
+			}
+		}
+
+		return absolutePath;
+	}
+
+	@Override
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public byte[] getBytes() throws IOException {
+		return getContents().clone();
+	}
+
+	@Override
+	public String getCharSet() {
+		return charSet;
+	}
+
+	@Override
+	public String getContentType() {
+		return contentType;
+	}
+
+	@Override
+	public String getHeader(String name) {
+
+		String header = null;
+		List<String> values = headers.get(name);
+
+		if ((values != null) && !values.isEmpty()) {
+			header = values.get(0);
+		}
+
+		return header;
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return headers.keySet();
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		return headers.get(name);
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new ByteArrayInputStream(getContents());
+	}
+
+	@Override
+	public String getMessage() {
+		return null;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getSize() {
+		return size;
+	}
+
+	@Override
+	public Status getStatus() {
+		return Status.FILE_SAVED;
+	}
+
+	/**
+	 * Returns true if the contents of the file have been written to disk by {@link #getAbsolutePath()}. Unlike {@link
+	 * #getAbsolutePath()}, calling this method never causes the contents of the file to be written to disk.
+	 */
+	public boolean isWritten() {
+		return written;
+	}
+
+	@Override
+	public void write(String fileName) throws IOException {
+
+		byte[] contents = getContents();
+		OutputStream outputStream = new FileOutputStream(fileName);
+
+		try {
+			outputStream.write(contents);
+		}
+		finally {
+			outputStream.close();
+		}
+	}
+
+	private byte[] getContents() throws IOException {
+
+		if (bytes == null) {
+			throw new IOException("Uploaded file=[" + name + "] has been deleted");
+		}
+
+		return bytes;
+	}
+}
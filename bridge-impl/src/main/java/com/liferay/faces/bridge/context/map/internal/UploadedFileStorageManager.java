@@ -0,0 +1,524 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.portlet.PortletConfig;
+import javax.portlet.PortletContext;
+
+import com.liferay.faces.bridge.internal.PortletConfigEmptyImpl;
+import com.liferay.faces.bridge.internal.PortletConfigParam;
+import com.liferay.faces.bridge.util.internal.BackgroundExecutorUtil;
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+
+
+/**
+ * This class manages the per-session directories (folders) to which uploaded files are written. The per-session
+ * directories are created in a "liferay-faces-bridge-uploads" directory inside of the {@link
+ * PortletConfigParam#UploadedFilesDir} so that only directories that are owned by the bridge are ever deleted. This
+ * class keeps track of the number of bytes used by each session and by all sessions, enforces the {@link
+ * PortletConfigParam#UploadedFilesSessionQuota} and {@link PortletConfigParam#UploadedFilesTotalQuota}, deletes the
+ * directories of a session when it is destroyed, and deletes orphaned directories that are older than the {@link
+ * PortletConfigParam#UploadedFilesTimeToLive}. Since applications may delete uploaded files at any time, the number of
+ * bytes used by a session is recomputed from the contents of its directories when a quota would otherwise be exceeded.
+ * Scanning the directories of all sessions takes place on an executor that is created by {@link
+ * BackgroundExecutorUtil} and that is shut down by {@link #destroyInstance(PortletContext)}.
+ *
+ * @author  Neil Griffin
+ */
+public final class UploadedFileStorageManager {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(UploadedFileStorageManager.class);
+
+	// Private Constants
+	private static final String ATTRIBUTE_NAME = UploadedFileStorageManager.class.getName();
+	private static final String SESSION_KEY_REGEX = "[A-Za-z0-9]+";
+	private static final String THREAD_NAME = "Liferay Faces Bridge Uploaded Files";
+	private static final String UPLOADS_DIR_NAME = "liferay-faces-bridge-uploads";
+
+	// Private Final Data Members
+	private final Executor executor;
+	private final AtomicLong nextReapTime;
+	private final Map<String, SessionUploads> sessionUploadsMap;
+	private final long sessionQuota;
+	private final long timeToLive;
+	private final AtomicLong totalBytes;
+	private final long totalQuota;
+	private final Set<File> uploadsDirs;
+
+	/* package-private */ UploadedFileStorageManager(long sessionQuota, long totalQuota, long timeToLive,
+		Executor executor) {
+
+		this.executor = executor;
+		this.nextReapTime = new AtomicLong(0L);
+		this.sessionQuota = sessionQuota;
+		this.sessionUploadsMap = new ConcurrentHashMap<String, SessionUploads>();
+		this.timeToLive = timeToLive;
+		this.totalBytes = new AtomicLong(0L);
+		this.totalQuota = totalQuota;
+		this.uploadsDirs = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Stops the background thread of the uploaded file storage manager of the portlet application associated with the
+	 * specified portlet context (if any). This method is intended to be called when the servlet context is destroyed.
+	 */
+	public static void destroyInstance(PortletContext portletContext) {
+
+		UploadedFileStorageManager uploadedFileStorageManager = (UploadedFileStorageManager) portletContext
+			.getAttribute(ATTRIBUTE_NAME);
+
+		if (uploadedFileStorageManager != null) {
+
+			portletContext.removeAttribute(ATTRIBUTE_NAME);
+
+			if (uploadedFileStorageManager.executor instanceof ExecutorService) {
+
+				ExecutorService executorService = (ExecutorService) uploadedFileStorageManager.executor;
+				executorService.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Returns the uploaded file storage manager of the portlet application associated with the specified portlet
+	 * context.
+	 */
+	public static UploadedFileStorageManager getInstance(PortletContext portletContext) {
+
+		UploadedFileStorageManager uploadedFileStorageManager = (UploadedFileStorageManager) portletContext
+			.getAttribute(ATTRIBUTE_NAME);
+
+		if (uploadedFileStorageManager == null) {
+
+			synchronized (UploadedFileStorageManager.class) {
+
+				uploadedFileStorageManager = (UploadedFileStorageManager) portletContext.getAttribute(ATTRIBUTE_NAME);
+
+				if (uploadedFileStorageManager == null) {
+
+					PortletConfig portletConfig = new PortletConfigEmptyImpl(portletContext);
+					long sessionQuota = PortletConfigParam.UploadedFilesSessionQuota.getLongValue(portletConfig);
+					long totalQuota = PortletConfigParam.UploadedFilesTotalQuota.getLongValue(portletConfig);
+					long timeToLive = PortletConfigParam.UploadedFilesTimeToLive.getIntegerValue(portletConfig) *
+						1000L;
+
+					// Since at most one scan of the directories should take place at a time, the executor rejects
+					// tasks while it is busy.
+					ThreadPoolExecutor threadPoolExecutor = BackgroundExecutorUtil.newSingleThreadExecutor(
+							THREAD_NAME + " " + portletContext.getContextPath(), new SynchronousQueue<Runnable>());
+					uploadedFileStorageManager = new UploadedFileStorageManager(sessionQuota, totalQuota, timeToLive,
+							threadPoolExecutor);
+
+					// Since files may have been uploaded to the configured directory before the server was restarted,
+					// include it in the directories that are checked for orphans.
+					String uploadedFilesDir = PortletConfigParam.UploadedFilesDir.getStringValue(portletConfig);
+
+					if (uploadedFilesDir != null) {
+						uploadedFileStorageManager.uploadsDirs.add(getUploadsDir(uploadedFilesDir));
+					}
+
+					portletContext.setAttribute(ATTRIBUTE_NAME, uploadedFileStorageManager);
+				}
+			}
+		}
+
+		return uploadedFileStorageManager;
+	}
+
+	/**
+	 * Returns the number of bytes that are used by the files uploaded during all sessions.
+	 */
+	public long getTotalBytes() {
+		return totalBytes.get();
+	}
+
+	/**
+	 * Deletes the directories of the files uploaded during the specified session and stops keeping track of the number
+	 * of bytes used by the session. This method is intended to be called when the session is destroyed.
+	 *
+	 * @param  sessionId  The id of the session.
+	 */
+	public void removeSession(String sessionId) {
+
+		String sessionKey = getSessionKey(sessionId);
+		SessionUploads sessionUploads = sessionUploadsMap.remove(sessionKey);
+
+		if (sessionUploads != null) {
+
+			totalBytes.addAndGet(-sessionUploads.bytes.get());
+
+			for (File uploadedFilesPath : sessionUploads.uploadedFilesPaths) {
+				deleteDirectory(uploadedFilesPath);
+			}
+		}
+
+		// Delete the directory of the session in each of the known upload directories, since the files might have been
+		// uploaded before the server was restarted.
+		for (File uploadsDir : uploadsDirs) {
+			deleteDirectory(new File(uploadsDir, sessionKey));
+		}
+	}
+
+	/**
+	 * Releases the specified number of bytes that were reserved by {@link #reserve(File, long)} for a file that could
+	 * not be written.
+	 */
+	/* package-private */ void cancel(File uploadedFilesPath, long byteCount) {
+
+		SessionUploads sessionUploads = sessionUploadsMap.get(uploadedFilesPath.getName());
+
+		if (sessionUploads != null) {
+			sessionUploads.pendingBytes.addAndGet(-byteCount);
+			sessionUploads.bytes.addAndGet(-byteCount);
+			totalBytes.addAndGet(-byteCount);
+		}
+	}
+
+	/**
+	 * Indicates that the specified number of bytes that were reserved by {@link #reserve(File, long)} have been written
+	 * to disk, which means that they will be counted when the number of bytes used by the session is recomputed from
+	 * the contents of its directories.
+	 */
+	/* package-private */ void commit(File uploadedFilesPath, long byteCount) {
+
+		SessionUploads sessionUploads = sessionUploadsMap.get(uploadedFilesPath.getName());
+
+		if (sessionUploads != null) {
+			sessionUploads.pendingBytes.addAndGet(-byteCount);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes that are used by the files uploaded during the specified session.
+	 */
+	/* package-private */ long getSessionBytes(String sessionId) {
+
+		SessionUploads sessionUploads = sessionUploadsMap.get(getSessionKey(sessionId));
+
+		if (sessionUploads == null) {
+			return 0L;
+		}
+
+		return sessionUploads.bytes.get();
+	}
+
+	/**
+	 * Returns the directory to which the files uploaded during the specified session are to be written. Note that the
+	 * directory is not created by this method.
+	 *
+	 * @param  uploadedFilesDir  The value of the {@link PortletConfigParam#UploadedFilesDir} init-param.
+	 * @param  sessionId         The id of the session.
+	 */
+	/* package-private */ File getUploadedFilesPath(String uploadedFilesDir, String sessionId) {
+
+		File uploadsDir = getUploadsDir(uploadedFilesDir);
+		uploadsDirs.add(uploadsDir);
+
+		String sessionKey = getSessionKey(sessionId);
+		File uploadedFilesPath = new File(uploadsDir, sessionKey);
+		SessionUploads sessionUploads = getSessionUploads(sessionKey);
+		sessionUploads.uploadedFilesPaths.add(uploadedFilesPath);
+
+		reapIfNecessary();
+
+		return uploadedFilesPath;
+	}
+
+	/**
+	 * Releases the specified number of bytes that were written to disk but are no longer used, for example because
+	 * they were replaced by a chunk of an uploaded file that was re-sent.
+	 */
+	/* package-private */ void release(File uploadedFilesPath, long byteCount) {
+
+		SessionUploads sessionUploads = sessionUploadsMap.get(uploadedFilesPath.getName());
+
+		if (sessionUploads != null) {
+			sessionUploads.bytes.addAndGet(-byteCount);
+			totalBytes.addAndGet(-byteCount);
+		}
+	}
+
+	/**
+	 * Reserves the specified number of bytes for a file that is about to be written to the specified directory (as
+	 * returned by {@link #getUploadedFilesPath(String, String)}), and returns true if the reservation does not exceed
+	 * the configured quotas. Otherwise, nothing is reserved and false is returned. The caller must call {@link
+	 * #commit(File, long)} after the file has been written or {@link #cancel(File, long)} if it could not be written.
+	 */
+	/* package-private */ boolean reserve(File uploadedFilesPath, long byteCount) {
+
+		SessionUploads sessionUploads = getSessionUploads(uploadedFilesPath.getName());
+		sessionUploads.uploadedFilesPaths.add(uploadedFilesPath);
+
+		boolean reserved = reserve(sessionUploads, byteCount);
+
+		if (!reserved) {
+
+			// Since files that were uploaded during the session might have been deleted, recompute the number of
+			// bytes used by the session and try again.
+			reconcile(sessionUploads);
+			reserved = reserve(sessionUploads, byteCount);
+
+			// If the quota of all sessions is still exceeded, then files that were uploaded during other sessions
+			// might have been deleted. Since recomputing the number of bytes used by all sessions requires scanning
+			// all of their directories, do so in the background so that subsequent uploads can succeed.
+			if (!reserved && (totalQuota > 0L)) {
+				execute(new ReconcileTask());
+			}
+		}
+
+		return reserved;
+	}
+
+	private static void deleteDirectory(File directory) {
+
+		File[] files = directory.listFiles();
+
+		if (files != null) {
+
+			for (File file : files) {
+
+				if (file.isDirectory()) {
+					deleteDirectory(file);
+				}
+				else if (!file.delete()) {
+					logger.warn("Unable to delete uploaded file=[{0}]", file);
+				}
+			}
+		}
+
+		if (directory.exists()) {
+
+			if (directory.delete()) {
+				logger.debug("Deleted uploaded files directory=[{0}]", directory);
+			}
+			else {
+				logger.warn("Unable to delete uploaded files directory=[{0}]", directory);
+			}
+		}
+	}
+
+	private static long getDirectorySize(File directory) {
+
+		long directorySize = 0L;
+		File[] files = directory.listFiles();
+
+		if (files != null) {
+
+			for (File file : files) {
+
+				if (file.isDirectory()) {
+					directorySize += getDirectorySize(file);
+				}
+				else {
+					directorySize += file.length();
+				}
+			}
+		}
+
+		return directorySize;
+	}
+
+	private static String getSessionKey(String sessionId) {
+
+		// FACES-1452: Non-alpha-numeric characters must be removed order to ensure that the folder will be
+		// created properly.
+		return sessionId.replaceAll("[^A-Za-z0-9]", "");
+	}
+
+	private static File getUploadsDir(String uploadedFilesDir) {
+		return new File(uploadedFilesDir, UPLOADS_DIR_NAME);
+	}
+
+	private void execute(Runnable task) {
+
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+
+			// A scan of the directories is already taking place (or the executor has been shut down).
+			logger.debug("Unable to scan uploaded files directories: {0}", e.getMessage());
+		}
+	}
+
+	private SessionUploads getSessionUploads(String sessionKey) {
+
+		SessionUploads sessionUploads = sessionUploadsMap.get(sessionKey);
+
+		if (sessionUploads == null) {
+
+			SessionUploads newSessionUploads = new SessionUploads();
+			sessionUploads = sessionUploadsMap.putIfAbsent(sessionKey, newSessionUploads);
+
+			if (sessionUploads == null) {
+				sessionUploads = newSessionUploads;
+			}
+		}
+
+		return sessionUploads;
+	}
+
+	/**
+	 * Deletes the orphaned directories of uploaded files. Only the directories inside of the directories that are owned
+	 * by the bridge and that are named like a session directory are considered. Since the directories of active
+	 * sessions are deleted when the sessions are destroyed, a directory is only orphaned if it does not belong to an
+	 * active session (for example, because it was left behind by a server restart).
+	 */
+	private void reap(long expirationTime) {
+
+		for (File uploadsDir : uploadsDirs) {
+
+			File[] uploadedFilesPaths = uploadsDir.listFiles();
+
+			if (uploadedFilesPaths != null) {
+
+				for (File uploadedFilesPath : uploadedFilesPaths) {
+
+					String sessionKey = uploadedFilesPath.getName();
+
+					if (uploadedFilesPath.isDirectory() && sessionKey.matches(SESSION_KEY_REGEX)) {
+
+						// If the directory does not belong to a session that is known to be active, and has not been
+						// modified within the time-to-live period, then it is orphaned.
+						if (!sessionUploadsMap.containsKey(sessionKey) &&
+								(uploadedFilesPath.lastModified() < expirationTime)) {
+							deleteDirectory(uploadedFilesPath);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Schedules the deletion of orphaned directories of uploaded files (and the reconciliation of the number of bytes
+	 * used by each session) on the background thread. This takes place at most once per time-to-live period.
+	 */
+	private void reapIfNecessary() {
+
+		if (timeToLive > 0L) {
+
+			long currentTime = System.currentTimeMillis();
+			long reapTime = nextReapTime.get();
+
+			if ((currentTime >= reapTime) && nextReapTime.compareAndSet(reapTime, currentTime + timeToLive)) {
+				execute(new ReapTask(currentTime - timeToLive));
+			}
+		}
+	}
+
+	/**
+	 * Recomputes the number of bytes used by the specified session from the contents of its directories, plus the
+	 * number of bytes that have been reserved but not yet written.
+	 */
+	private void reconcile(SessionUploads sessionUploads) {
+
+		long sessionBytes = sessionUploads.pendingBytes.get();
+
+		for (File uploadedFilesPath : sessionUploads.uploadedFilesPaths) {
+			sessionBytes += getDirectorySize(uploadedFilesPath);
+		}
+
+		long previousSessionBytes = sessionUploads.bytes.getAndSet(sessionBytes);
+		totalBytes.addAndGet(sessionBytes - previousSessionBytes);
+	}
+
+	private void reconcileAll() {
+
+		for (SessionUploads sessionUploads : sessionUploadsMap.values()) {
+			reconcile(sessionUploads);
+		}
+	}
+
+	private boolean reserve(SessionUploads sessionUploads, long byteCount) {
+
+		long sessionBytes = sessionUploads.bytes.addAndGet(byteCount);
+		long allSessionsBytes = totalBytes.addAndGet(byteCount);
+		boolean reserved = true;
+
+		if (((sessionQuota > 0L) && (sessionBytes > sessionQuota)) ||
+				((totalQuota > 0L) && (allSessionsBytes > totalQuota))) {
+
+			sessionUploads.bytes.addAndGet(-byteCount);
+			totalBytes.addAndGet(-byteCount);
+			reserved = false;
+			logger.debug("Unable to reserve byteCount=[{0}] sessionBytes=[{1}] totalBytes=[{2}]", byteCount,
+				sessionBytes - byteCount, allSessionsBytes - byteCount);
+		}
+		else {
+			sessionUploads.pendingBytes.addAndGet(byteCount);
+		}
+
+		return reserved;
+	}
+
+	private static final class SessionUploads {
+
+		// Private Final Data Members
+		private final AtomicLong bytes = new AtomicLong(0L);
+		private final AtomicLong pendingBytes = new AtomicLong(0L);
+		private final Set<File> uploadedFilesPaths = ConcurrentHashMap.newKeySet();
+	}
+
+	private final class ReapTask implements Runnable {
+
+		// Private Final Data Members
+		private final long expirationTime;
+
+		public ReapTask(long expirationTime) {
+			this.expirationTime = expirationTime;
+		}
+
+		@Override
+		public void run() {
+
+			try {
+				reap(expirationTime);
+				reconcileAll();
+			}
+			catch (Exception e) {
+				logger.error(e);
+			}
+		}
+	}
+
+	private final class ReconcileTask implements Runnable {
+
+		@Override
+		public void run() {
+
+			try {
+				reconcileAll();
+			}
+			catch (Exception e) {
+				logger.error(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.batch;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+
+/**
+ * This class is an event payload that carries several events to the same portlet so that they can be processed in a
+ * single EVENT_PHASE of the portlet lifecycle. When the com.liferay.faces.bridge.eventBatchingEnabled init-param of
+ * the target portlet is true, the bridge restores the view and the bridge request scope once, hands each of the
+ * batched events to the BridgeEventHandler in the order in which they were added, and saves the state once.
+ * Otherwise, the BridgeEventHandler receives the batch itself as the payload of a single event.
+ *
+ * <p>Note that the QName of the event that carries the batch (and the value-type of this class) must be declared in
+ * the WEB-INF/portlet.xml descriptor like any other event. The QName of each batched event must also be declared as a
+ * processing event of the target portlet, otherwise the batched event is ignored.</p>
+ *
+ * <p>Also note that batching is only supported between portlets in the same portlet application (WAR). Since each
+ * portlet application typically contains its own copy of the bridge, a batch that is sent by a portlet in a different
+ * portlet application is an instance of a different class (unless the portlet container serializes event payloads)
+ * and is therefore handed to the BridgeEventHandler as the payload of a single event.</p>
+ *
+ * @author  Neil Griffin
+ */
+public final class BatchedEventPayload implements Serializable {
+
+	// serialVersionUID
+	private static final long serialVersionUID = 5180622419726581963L;
+
+	// Private Final Data Members
+	private final List<QName> eventNames;
+	private final List<Serializable> eventValues;
+
+	public BatchedEventPayload() {
+		this.eventNames = new ArrayList<QName>();
+		this.eventValues = new ArrayList<Serializable>();
+	}
+
+	/**
+	 * Adds an event to the end of the batch.
+	 *
+	 * @param   eventName   The QName of the event.
+	 * @param   eventValue  The payload of the event, or null if the event has no payload.
+	 *
+	 * @return  This batch, so that calls can be chained.
+	 */
+	public BatchedEventPayload addEvent(QName eventName, Serializable eventValue) {
+
+		if (eventName == null) {
+			throw new IllegalArgumentException("eventName must not be null.");
+		}
+
+		eventNames.add(eventName);
+		eventValues.add(eventValue);
+
+		return this;
+	}
+
+	/**
+	 * Returns the number of events in the batch.
+	 */
+	public int getEventCount() {
+		return eventNames.size();
+	}
+
+	/**
+	 * Returns the QName of the event at the specified position in the batch.
+	 */
+	public QName getEventName(int index) {
+		return eventNames.get(index);
+	}
+
+	/**
+	 * Returns the payload of the event at the specified position in the batch.
+	 */
+	public Serializable getEventValue(int index) {
+		return eventValues.get(index);
+	}
+}
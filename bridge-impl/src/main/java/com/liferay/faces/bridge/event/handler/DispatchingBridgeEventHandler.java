@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.handler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.FacesException;
+import javax.faces.context.FacesContext;
+import javax.portlet.Event;
+import javax.portlet.faces.BridgeEventHandler;
+import javax.portlet.faces.event.EventNavigationResult;
+import javax.xml.namespace.QName;
+
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+
+
+/**
+ * This class is a {@link BridgeEventHandler} that routes each event to the public method of the subclass that is
+ * annotated with a {@link HandlesEvent} whose value contains the QName of the event. The dispatch table is built once
+ * per subclass (rather than once per instance or once per event), so routing an event only costs a hash lookup
+ * followed by a direct method handle invocation.
+ *
+ * @author  Neil Griffin
+ */
+public abstract class DispatchingBridgeEventHandler implements BridgeEventHandler {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(DispatchingBridgeEventHandler.class);
+
+	// Private Constants
+	private static final ClassValue<Map<QName, MethodHandle>> DISPATCH_TABLES =
+		new ClassValue<Map<QName, MethodHandle>>() {
+
+			@Override
+			protected Map<QName, MethodHandle> computeValue(Class<?> type) {
+				return createDispatchTable(type);
+			}
+		};
+	private static final MethodType HANDLER_METHOD_TYPE = MethodType.methodType(Object.class,
+			DispatchingBridgeEventHandler.class, FacesContext.class, Event.class);
+
+	// Private Final Data Members
+	private final Map<QName, MethodHandle> dispatchTable;
+
+	public DispatchingBridgeEventHandler() {
+		this.dispatchTable = DISPATCH_TABLES.get(getClass());
+	}
+
+	@Override
+	public final EventNavigationResult handleEvent(FacesContext facesContext, Event event) {
+
+		EventNavigationResult eventNavigationResult;
+		MethodHandle methodHandle = dispatchTable.get(event.getQName());
+
+		if (methodHandle == null) {
+			eventNavigationResult = handleUnmappedEvent(facesContext, event);
+		}
+		else {
+
+			try {
+				eventNavigationResult = (EventNavigationResult) (Object) methodHandle.invokeExact(this, facesContext,
+						event);
+			}
+			catch (RuntimeException e) {
+				throw e;
+			}
+			catch (Error e) {
+				throw e;
+			}
+			catch (Throwable t) {
+				throw new FacesException(t);
+			}
+		}
+
+		return eventNavigationResult;
+	}
+
+	/**
+	 * Returns the QNames of the events that are routed to the methods of this handler.
+	 */
+	public final Iterable<QName> getHandledEventNames() {
+		return dispatchTable.keySet();
+	}
+
+	/**
+	 * Handles an event for which there is no {@link HandlesEvent} method. The default implementation logs a warning
+	 * and returns null so that no navigation takes place.
+	 */
+	protected EventNavigationResult handleUnmappedEvent(FacesContext facesContext, Event event) {
+
+		logger.warn("No @HandlesEvent method found in class=[{0}] for event name=[{1}]", getClass().getName(),
+			event.getQName());
+
+		return null;
+	}
+
+	private static Map<QName, MethodHandle> createDispatchTable(Class<?> type) {
+
+		Map<QName, MethodHandle> dispatchTable = new HashMap<QName, MethodHandle>();
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+		for (Method method : type.getMethods()) {
+
+			HandlesEvent handlesEvent = method.getAnnotation(HandlesEvent.class);
+
+			if (handlesEvent != null) {
+
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				Class<?> returnType = method.getReturnType();
+
+				if (Modifier.isStatic(method.getModifiers()) || (parameterTypes.length != 2) ||
+						!FacesContext.class.equals(parameterTypes[0]) || !Event.class.equals(parameterTypes[1]) ||
+						!(void.class.equals(returnType) || EventNavigationResult.class.equals(returnType))) {
+
+					logger.error(
+						"Ignoring @HandlesEvent method=[{0}] because it is not an instance method with (FacesContext, Event) parameters that returns void or EventNavigationResult",
+						method);
+				}
+				else {
+
+					try {
+						MethodHandle methodHandle = lookup.unreflect(method).asType(HANDLER_METHOD_TYPE);
+
+						for (String eventName : handlesEvent.value()) {
+
+							QName qName = QName.valueOf(eventName);
+
+							if (dispatchTable.containsKey(qName)) {
+								logger.error("Ignoring @HandlesEvent method=[{0}] for duplicate event name=[{1}]",
+									method, qName);
+							}
+							else {
+								dispatchTable.put(qName, methodHandle);
+							}
+						}
+					}
+					catch (IllegalAccessException e) {
+						logger.error("Ignoring @HandlesEvent method=[{0}] because it is not accessible: {1}", method,
+							e.getMessage());
+					}
+				}
+			}
+		}
+
+		logger.debug("Created dispatch table for class=[{0}] eventNames=[{1}]", type, dispatchTable.keySet());
+
+		return Collections.unmodifiableMap(dispatchTable);
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.handler;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * This annotation marks a public method of a {@link DispatchingBridgeEventHandler} as the handler of the portlet events
+ * with the specified QNames. The method must have a {@link javax.faces.context.FacesContext} parameter followed by a
+ * {@link javax.portlet.Event} parameter, and must return either void or {@link
+ * javax.portlet.faces.event.EventNavigationResult}.
+ *
+ * @author  Neil Griffin
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface HandlesEvent {
+
+	/**
+	 * The QNames of the handled events, in the format of {@link javax.xml.namespace.QName#toString()}, for example
+	 * "{http://liferay.com/events}ipc.customerSelected". A QName without a namespace (for example
+	 * "ipc.customerSelected") only matches events that have no namespace.
+	 */
+	String[] value();
+}
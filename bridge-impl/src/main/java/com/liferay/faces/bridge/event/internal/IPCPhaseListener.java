@@ -15,8 +15,8 @@
  */
 package com.liferay.faces.bridge.event.internal;
 
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
@@ -127,73 +127,56 @@ public class IPCPhaseListener implements PhaseListener {
 					PortletConfig portletConfig = RequestMapUtil.getPortletConfig(portletRequest);
 					String portletName = portletConfig.getPortletName();
 					Map<String, String[]> publicParameterMap = portletRequest.getPublicParameterMap();
-					Set<String> publicRenderParameterNames = publicParameterMappings.keySet();
+					List<PublicRenderParameterMapping> publicRenderParameterMappings = PublicRenderParameterMapping
+						.getInstances(facesContext, portletConfig, publicParameterMappings);
 
-					// For each of the public render parameters found in the WEB-INF/faces-config.xml file:
-					for (String prefixedParameterName : publicRenderParameterNames) {
+					// For each of the public render parameter model-el mappings found in the WEB-INF/faces-config.xml
+					// file:
+					for (PublicRenderParameterMapping publicRenderParameterMapping : publicRenderParameterMappings) {
 
-						String[] modelExpressions = publicParameterMappings.get(prefixedParameterName);
+						String nonPrefixedParameterName = publicRenderParameterMapping.getNonPrefixedParameterName();
 
-						if (modelExpressions != null) {
+						if (publicParameterMap.containsKey(nonPrefixedParameterName)) {
 
-							String parameterPrefix;
-							String nonPrefixedParameterName;
+							String originalModelEL = publicRenderParameterMapping.getModelEL();
+							String[] parameterValues = publicParameterMap.get(nonPrefixedParameterName);
+							String parameterValue = null;
 
-							int colonPos = prefixedParameterName.indexOf(":");
-
-							if (colonPos > 0) {
-								parameterPrefix = prefixedParameterName.substring(0, colonPos);
-								nonPrefixedParameterName = prefixedParameterName.substring(colonPos + 1);
+							if ((parameterValues != null) && (parameterValues.length > 0)) {
+								parameterValue = parameterValues[0];
 							}
-							else {
-								parameterPrefix = null;
-								nonPrefixedParameterName = prefixedParameterName;
+
+							PublicRenderParameter publicRenderParameter = new PublicRenderParameterImpl(
+									publicRenderParameterMapping.getPrefix(), parameterValue, originalModelEL,
+									portletName, publicRenderParameterMapping.getValueExpression());
+
+							if (logger.isTraceEnabled()) {
+								logger.trace(
+									"portletName=[{0}] public render parameter=[{1}] originalModelEL=[{2}] modifiedModelEL=[{3}] isForThisPortlet=[{4}]",
+									portletName, nonPrefixedParameterName, originalModelEL,
+									publicRenderParameter.getModifiedModelEL(),
+									publicRenderParameter.isForThisPortlet());
 							}
 
-							if (publicParameterMap.containsKey(nonPrefixedParameterName)) {
-
-								for (String originalModelEL : modelExpressions) {
-
-									String[] parameterValues = publicParameterMap.get(nonPrefixedParameterName);
-									String parameterValue = null;
-
-									if ((parameterValues != null) && (parameterValues.length > 0)) {
-										parameterValue = parameterValues[0];
-									}
-
-									PublicRenderParameter publicRenderParameter = new PublicRenderParameterImpl(
-											parameterPrefix, parameterValue, originalModelEL, portletName);
-
-									if (logger.isTraceEnabled()) {
-										logger.trace(
-											"portletName=[{0}] public render parameter=[{1}] originalModelEL=[{2}] modifiedModelEL=[{3}] isForThisPortlet=[{4}]",
-											portletName, nonPrefixedParameterName, originalModelEL,
-											publicRenderParameter.getModifiedModelEL(),
-											publicRenderParameter.isForThisPortlet());
-									}
-
-									if (publicRenderParameter.isForThisPortlet()) {
-
-										logger.debug(
-											"Injecting render parameter=[{0}] value=[{1}] into expression=[{2}]",
-											nonPrefixedParameterName, parameterValue,
-											publicRenderParameter.getModifiedModelEL());
-										invokeHandler = publicRenderParameter.injectIntoModel(facesContext);
-									}
-									else {
-										logger.debug(
-											"NOT injecting render parameter=[{0}] value=[{1}] into expression=[{2}] because it is NOT for this portletName=[{3}]",
-											nonPrefixedParameterName, parameterValue,
-											publicRenderParameter.getModifiedModelEL(), portletName);
-									}
-								}
+							if (publicRenderParameter.isForThisPortlet()) {
+
+								logger.debug("Injecting render parameter=[{0}] value=[{1}] into expression=[{2}]",
+									nonPrefixedParameterName, parameterValue,
+									publicRenderParameter.getModifiedModelEL());
+								invokeHandler = publicRenderParameter.injectIntoModel(facesContext);
 							}
 							else {
 								logger.debug(
-									"NOT injecting render parameter=[{0}] because it is not found in the public parameter map",
-									nonPrefixedParameterName);
+									"NOT injecting render parameter=[{0}] value=[{1}] into expression=[{2}] because it is NOT for this portletName=[{3}]",
+									nonPrefixedParameterName, parameterValue,
+									publicRenderParameter.getModifiedModelEL(), portletName);
 							}
 						}
+						else {
+							logger.debug(
+								"NOT injecting render parameter=[{0}] because it is not found in the public parameter map",
+								nonPrefixedParameterName);
+						}
 					}
 
 					// Section 5.3.2 also requires that if a bridgePublicRenderParameterHandler has been registered
@@ -260,71 +243,54 @@ public class IPCPhaseListener implements PhaseListener {
 					PortletConfig portletConfig = RequestMapUtil.getPortletConfig(portletRequest);
 					String portletName = portletConfig.getPortletName();
 					Map<String, String[]> publicParameterMap = portletRequest.getPublicParameterMap();
-					Set<String> publicRenderParameterNames = publicParameterMappings.keySet();
+					List<PublicRenderParameterMapping> publicRenderParameterMappings = PublicRenderParameterMapping
+						.getInstances(facesContext, portletConfig, publicParameterMappings);
 
-					// For each of the public render parameters found in the WEB-INF/faces-config.xml file:
-					for (String prefixedParameterName : publicRenderParameterNames) {
-						String[] modelExpressions = publicParameterMappings.get(prefixedParameterName);
+					// For each of the public render parameter model-el mappings found in the WEB-INF/faces-config.xml
+					// file:
+					for (PublicRenderParameterMapping publicRenderParameterMapping : publicRenderParameterMappings) {
 
-						if (modelExpressions != null) {
+						String nonPrefixedParameterName = publicRenderParameterMapping.getNonPrefixedParameterName();
+						String[] parameterValues = publicParameterMap.get(nonPrefixedParameterName);
+						String parameterValue = null;
 
-							String parameterPrefix;
-							String nonPrefixedParameterName;
+						if ((parameterValues != null) && (parameterValues.length > 0)) {
+							parameterValue = parameterValues[0];
+						}
 
-							int colonPos = prefixedParameterName.indexOf(":");
+						PublicRenderParameter publicRenderParameter = new PublicRenderParameterImpl(
+								publicRenderParameterMapping.getPrefix(), parameterValue,
+								publicRenderParameterMapping.getModelEL(), portletName,
+								publicRenderParameterMapping.getValueExpression());
 
-							if (colonPos > 0) {
-								parameterPrefix = prefixedParameterName.substring(0, colonPos);
-								nonPrefixedParameterName = prefixedParameterName.substring(colonPos + 1);
-							}
-							else {
-								parameterPrefix = null;
-								nonPrefixedParameterName = prefixedParameterName;
+						if (publicRenderParameter.isForThisPortlet()) {
+
+							String modelValue = publicRenderParameter.getModelValue(facesContext);
+							boolean modelValueHasChanged = publicRenderParameter.isModelValueChanged(facesContext);
+
+							if (logger.isTraceEnabled()) {
+								logger.trace(
+									"portletName=[{0}] public render parameter=[{1}] parameterValue=[{2}] modelValue=[{3}] modelValueHasChanged=[{4}]",
+									portletName, nonPrefixedParameterName, parameterValue, modelValue,
+									modelValueHasChanged);
 							}
 
-							for (String originalModelEL : modelExpressions) {
-
-								String[] parameterValues = publicParameterMap.get(nonPrefixedParameterName);
-								String parameterValue = null;
-
-								if ((parameterValues != null) && (parameterValues.length > 0)) {
-									parameterValue = parameterValues[0];
-								}
-
-								PublicRenderParameter publicRenderParameter = new PublicRenderParameterImpl(
-										parameterPrefix, parameterValue, originalModelEL, portletName);
-
-								if (publicRenderParameter.isForThisPortlet()) {
-
-									String modelValue = publicRenderParameter.getModelValue(facesContext);
-									boolean modelValueHasChanged = publicRenderParameter.isModelValueChanged(
-											facesContext);
-
-									if (logger.isTraceEnabled()) {
-										logger.trace(
-											"portletName=[{0}] public render parameter=[{1}] parameterValue=[{2}] modelValue=[{3}] modelValueHasChanged=[{4}]",
-											portletName, nonPrefixedParameterName, parameterValue, modelValue,
-											modelValueHasChanged);
-									}
-
-									if (modelValueHasChanged) {
-										logger.debug(
-											"Setting render parameter=[{0}] in response because modelValue=[{1}] has changed",
-											nonPrefixedParameterName, modelValue);
-										stateAwareResponse.setRenderParameter(nonPrefixedParameterName, modelValue);
-									}
-									else {
-										logger.debug(
-											"NOT setting render parameter=[{0}] in response because modelValue=[{1}] has NOT changed",
-											nonPrefixedParameterName, modelValue);
-									}
-								}
-								else {
-									logger.debug(
-										"NOT setting render parameter=[{0}] in response because it is NOT for this portletName=[{1}]",
-										nonPrefixedParameterName, portletName);
-								}
+							if (modelValueHasChanged) {
+								logger.debug(
+									"Setting render parameter=[{0}] in response because modelValue=[{1}] has changed",
+									nonPrefixedParameterName, modelValue);
+								stateAwareResponse.setRenderParameter(nonPrefixedParameterName, modelValue);
 							}
+							else {
+								logger.debug(
+									"NOT setting render parameter=[{0}] in response because modelValue=[{1}] has NOT changed",
+									nonPrefixedParameterName, modelValue);
+							}
+						}
+						else {
+							logger.debug(
+								"NOT setting render parameter=[{0}] in response because it is NOT for this portletName=[{1}]",
+								nonPrefixedParameterName, portletName);
 						}
 					}
 				}
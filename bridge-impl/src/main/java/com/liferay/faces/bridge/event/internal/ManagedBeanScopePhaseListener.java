@@ -15,10 +15,7 @@
  */
 package com.liferay.faces.bridge.event.internal;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
@@ -33,6 +30,8 @@ import javax.portlet.faces.BridgeUtil;
 
 import com.liferay.faces.bridge.bean.BeanManager;
 import com.liferay.faces.bridge.bean.BeanManagerFactory;
+import com.liferay.faces.bridge.context.map.internal.RequestAttributeSnapshot;
+import com.liferay.faces.bridge.context.map.internal.RequestScopeMap;
 import com.liferay.faces.util.config.ApplicationConfig;
 
 
@@ -78,29 +77,39 @@ public class ManagedBeanScopePhaseListener implements PhaseListener {
 				// managed-beans.
 				ExternalContext externalContext = facesContext.getExternalContext();
 				Map<String, Object> requestScope = externalContext.getRequestMap();
-				List<String> managedBeanKeysToRemove = new ArrayList<String>();
-				Set<Map.Entry<String, Object>> mapEntries = requestScope.entrySet();
-				String appConfigAttrName = ApplicationConfig.class.getName();
-				Map<String, Object> applicationMap = externalContext.getApplicationMap();
-				ApplicationConfig applicationConfig = (ApplicationConfig) applicationMap.get(appConfigAttrName);
-				PortletContext portletContext = (PortletContext) externalContext.getContext();
-				BeanManagerFactory beanManagerFactory = (BeanManagerFactory) BridgeFactoryFinder.getFactory(
-						portletContext, BeanManagerFactory.class);
-				BeanManager beanManager = beanManagerFactory.getBeanManager(applicationConfig.getFacesConfig());
-
-				for (Map.Entry<String, Object> mapEntry : mapEntries) {
-					String potentialManagedBeanName = mapEntry.getKey();
-					Object potentialManagedBeanValue = mapEntry.getValue();
-
-					// Note that the request attribute name will not have a namespace prefix, so it is fine to
-					// simply pass the attribute name.
-					if (beanManager.isManagedBean(potentialManagedBeanName, potentialManagedBeanValue)) {
-						managedBeanKeysToRemove.add(potentialManagedBeanName);
-					}
+
+				// If the request scope is the bridge's RequestScopeMap, then it has recorded the names of the
+				// managed-beans as they were put, so only those need to be considered.
+				if (requestScope instanceof RequestScopeMap) {
+
+					RequestScopeMap requestScopeMap = (RequestScopeMap) requestScope;
+					requestScopeMap.removeManagedBeans();
 				}
 
-				for (String managedBeanKey : managedBeanKeysToRemove) {
-					requestScope.remove(managedBeanKey);
+				// Otherwise, every request attribute must be checked.
+				else {
+
+					RequestAttributeSnapshot requestAttributes = RequestAttributeSnapshot.of(requestScope);
+					String appConfigAttrName = ApplicationConfig.class.getName();
+					Map<String, Object> applicationMap = externalContext.getApplicationMap();
+					ApplicationConfig applicationConfig = (ApplicationConfig) applicationMap.get(appConfigAttrName);
+					PortletContext portletContext = (PortletContext) externalContext.getContext();
+					BeanManagerFactory beanManagerFactory = (BeanManagerFactory) BridgeFactoryFinder.getFactory(
+							portletContext, BeanManagerFactory.class);
+					BeanManager beanManager = beanManagerFactory.getBeanManager(applicationConfig.getFacesConfig());
+
+					// Since the snapshot is a copy, the managed-beans can be removed from the request scope while
+					// iterating.
+					for (int i = 0; i < requestAttributes.size(); i++) {
+						String potentialManagedBeanName = requestAttributes.getName(i);
+						Object potentialManagedBeanValue = requestAttributes.getValue(i);
+
+						// Note that the request attribute name will not have a namespace prefix, so it is fine to
+						// simply pass the attribute name.
+						if (beanManager.isManagedBean(potentialManagedBeanName, potentialManagedBeanValue)) {
+							requestScope.remove(potentialManagedBeanName);
+						}
+					}
 				}
 			}
 		}
@@ -34,19 +34,26 @@ public abstract class PublicRenderParameterCompatImpl extends PublicRenderParame
 	// Logger
 	private static final Logger logger = LoggerFactory.getLogger(PublicRenderParameterCompatImpl.class);
 
+	// Protected Data Members
+	protected ValueExpression valueExpression;
+
 	public PublicRenderParameterCompatImpl(String prefix, String originalRequestValue, String originalModelEL,
 		String portletName) {
 		super(prefix, originalRequestValue, originalModelEL, portletName);
 	}
 
+	public PublicRenderParameterCompatImpl(String prefix, String originalRequestValue, String originalModelEL,
+		String portletName, ValueExpression valueExpression) {
+		super(prefix, originalRequestValue, originalModelEL, portletName);
+		this.valueExpression = valueExpression;
+	}
+
 	public boolean injectIntoModel(FacesContext facesContext) {
 
 		try {
 
 			ELContext elContext = facesContext.getELContext();
-			ValueExpression valueExpression = facesContext.getApplication().getExpressionFactory()
-				.createValueExpression(elContext, modelEL, String.class);
-			valueExpression.setValue(elContext, originalRequestValue);
+			getValueExpression(facesContext).setValue(elContext, originalRequestValue);
 
 			return true;
 		}
@@ -64,4 +71,19 @@ public abstract class PublicRenderParameterCompatImpl extends PublicRenderParame
 		}
 	}
 
+	/**
+	 * Returns the compiled value expression of the model-el that was specified when this instance was created, or
+	 * compiles it with the expression factory of the specified context if none was specified.
+	 */
+	protected ValueExpression getValueExpression(FacesContext facesContext) {
+
+		if (valueExpression == null) {
+
+			ELContext elContext = facesContext.getELContext();
+			valueExpression = facesContext.getApplication().getExpressionFactory().createValueExpression(elContext,
+					modelEL, String.class);
+		}
+
+		return valueExpression;
+	}
 }
@@ -42,6 +42,11 @@ public class PublicRenderParameterImpl extends PublicRenderParameterCompatImpl {
 		super(prefix, originalRequestValue, originalModelEL, portletName);
 	}
 
+	public PublicRenderParameterImpl(String prefix, String originalRequestValue, String originalModelEL,
+		String portletName, ValueExpression valueExpression) {
+		super(prefix, originalRequestValue, originalModelEL, portletName, valueExpression);
+	}
+
 	public String getModelValue(FacesContext facesContext) {
 
 		if (!modelValueRetrieved) {
@@ -49,9 +54,7 @@ public class PublicRenderParameterImpl extends PublicRenderParameterCompatImpl {
 			try {
 
 				ELContext elContext = facesContext.getELContext();
-				ValueExpression valueExpression = facesContext.getApplication().getExpressionFactory()
-					.createValueExpression(elContext, modelEL, String.class);
-				modelValue = (String) valueExpression.getValue(elContext);
+				modelValue = (String) getValueExpression(facesContext).getValue(elContext);
 			}
 			catch (PropertyNotFoundException e) {
 				String exceptionMessage = e.getMessage();
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.el.ELContext;
+import javax.el.ExpressionFactory;
+import javax.el.ValueExpression;
+import javax.faces.context.FacesContext;
+import javax.portlet.PortletConfig;
+import javax.portlet.PortletContext;
+
+
+/**
+ * This class represents a single &lt;model-el&gt; mapping of a public render parameter found in the
+ * WEB-INF/faces-config.xml descriptor, along with its compiled {@link ValueExpression}. Since the public parameter
+ * mappings of a portlet do not change after the bridge is initialized, the mappings are parsed and compiled once per
+ * portlet by {@link #getInstances(FacesContext, PortletConfig, Map)} and reused by every subsequent request.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class PublicRenderParameterMapping {
+
+	// Private Constants
+	private static final String ATTRIBUTE_NAME_PREFIX = PublicRenderParameterMapping.class.getName() + ".";
+
+	// Private Final Data Members
+	private final boolean forThisPortlet;
+	private final String modelEL;
+	private final String nonPrefixedParameterName;
+	private final String prefix;
+	private final ValueExpression valueExpression;
+
+	private PublicRenderParameterMapping(String prefix, String nonPrefixedParameterName, String modelEL,
+		boolean forThisPortlet, ValueExpression valueExpression) {
+
+		this.prefix = prefix;
+		this.nonPrefixedParameterName = nonPrefixedParameterName;
+		this.modelEL = modelEL;
+		this.forThisPortlet = forThisPortlet;
+		this.valueExpression = valueExpression;
+	}
+
+	/**
+	 * Returns an unmodifiable list of the parsed mappings of the specified public parameter mappings for the portlet
+	 * associated with the specified portlet config. The list is cached as a portlet context attribute and is only
+	 * rebuilt if the public parameter mappings of the portlet are replaced by a different instance.
+	 */
+	/* package-private */ static List<PublicRenderParameterMapping> getInstances(FacesContext facesContext,
+		PortletConfig portletConfig, Map<String, String[]> publicParameterMappings) {
+
+		String portletName = portletConfig.getPortletName();
+		String attributeName = ATTRIBUTE_NAME_PREFIX + portletName;
+		PortletContext portletContext = portletConfig.getPortletContext();
+		CompiledMappings compiledMappings = (CompiledMappings) portletContext.getAttribute(attributeName);
+
+		if ((compiledMappings == null) || (compiledMappings.source != publicParameterMappings)) {
+
+			// Since the compiled mappings are immutable, it does not matter if more than one thread happens to compile
+			// them at the same time -- the last one wins.
+			compiledMappings = new CompiledMappings(publicParameterMappings,
+					compile(facesContext, portletName, publicParameterMappings));
+			portletContext.setAttribute(attributeName, compiledMappings);
+		}
+
+		return compiledMappings.mappings;
+	}
+
+	private static List<PublicRenderParameterMapping> compile(FacesContext facesContext, String portletName,
+		Map<String, String[]> publicParameterMappings) {
+
+		List<PublicRenderParameterMapping> mappings = new ArrayList<PublicRenderParameterMapping>();
+		ELContext elContext = facesContext.getELContext();
+		ExpressionFactory expressionFactory = facesContext.getApplication().getExpressionFactory();
+
+		for (Map.Entry<String, String[]> mapEntry : publicParameterMappings.entrySet()) {
+
+			String[] modelExpressions = mapEntry.getValue();
+
+			if (modelExpressions != null) {
+
+				String prefixedParameterName = mapEntry.getKey();
+				String parameterPrefix;
+				String nonPrefixedParameterName;
+
+				int colonPos = prefixedParameterName.indexOf(":");
+
+				if (colonPos > 0) {
+					parameterPrefix = prefixedParameterName.substring(0, colonPos);
+					nonPrefixedParameterName = prefixedParameterName.substring(colonPos + 1);
+				}
+				else {
+					parameterPrefix = null;
+					nonPrefixedParameterName = prefixedParameterName;
+				}
+
+				boolean forThisPortlet = (parameterPrefix == null) || parameterPrefix.equals(portletName);
+
+				for (String modelEL : modelExpressions) {
+
+					// Expressions that are not for this portlet are never evaluated, so there is no need to compile
+					// them.
+					ValueExpression valueExpression = null;
+
+					if (forThisPortlet) {
+						valueExpression = expressionFactory.createValueExpression(elContext, modelEL, String.class);
+					}
+
+					mappings.add(new PublicRenderParameterMapping(parameterPrefix, nonPrefixedParameterName, modelEL,
+							forThisPortlet, valueExpression));
+				}
+			}
+		}
+
+		return Collections.unmodifiableList(mappings);
+	}
+
+	/* package-private */ String getModelEL() {
+		return modelEL;
+	}
+
+	/* package-private */ String getNonPrefixedParameterName() {
+		return nonPrefixedParameterName;
+	}
+
+	/* package-private */ String getPrefix() {
+		return prefix;
+	}
+
+	/* package-private */ ValueExpression getValueExpression() {
+		return valueExpression;
+	}
+
+	/* package-private */ boolean isForThisPortlet() {
+		return forThisPortlet;
+	}
+
+	private static final class CompiledMappings {
+
+		// Private Final Data Members
+		private final List<PublicRenderParameterMapping> mappings;
+		private final Map<String, String[]> source;
+
+		private CompiledMappings(Map<String, String[]> source, List<PublicRenderParameterMapping> mappings) {
+			this.source = source;
+			this.mappings = mappings;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.internal;
+
+import java.util.Map;
+
+import javax.faces.context.FacesContext;
+import javax.faces.event.PhaseEvent;
+import javax.faces.event.PhaseId;
+import javax.faces.event.PhaseListener;
+import javax.portlet.faces.Bridge;
+import javax.portlet.faces.BridgeUtil;
+
+import com.liferay.faces.bridge.internal.BridgeExt;
+
+
+/**
+ * This class ensures that only the RESTORE_VIEW and RENDER_RESPONSE phases of the JSF lifecycle execute for a
+ * RESOURCE_PHASE request that contains a chunk of an uploaded file but not the last chunk. Since the uploaded file is
+ * not available until the last chunk is received, the file upload component would otherwise fail validation (for
+ * example, if it is required). See {@link
+ * com.liferay.faces.bridge.internal.PortletConfigParam#UploadedFileChunkingEnabled}.
+ *
+ * @author  Neil Griffin
+ */
+public class UploadedFileChunkPhaseListener implements PhaseListener {
+
+	// serialVersionUID
+	private static final long serialVersionUID = 3174052861497163270L;
+
+	@Override
+	public void afterPhase(PhaseEvent phaseEvent) {
+
+		FacesContext facesContext = phaseEvent.getFacesContext();
+
+		if (BridgeUtil.getPortletRequestPhase(facesContext) == Bridge.PortletPhase.RESOURCE_PHASE) {
+
+			Map<String, Object> requestMap = facesContext.getExternalContext().getRequestMap();
+
+			if (Boolean.TRUE.equals(requestMap.get(BridgeExt.UPLOADED_FILE_CHUNK_INCOMPLETE))) {
+				facesContext.renderResponse();
+			}
+		}
+	}
+
+	@Override
+	public void beforePhase(PhaseEvent phaseEvent) {
+		// This method is required by the PhaseListener interfaces but is not used.
+	}
+
+	@Override
+	public PhaseId getPhaseId() {
+		return PhaseId.RESTORE_VIEW;
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.portlet.Event;
+import javax.xml.namespace.QName;
+
+import com.liferay.faces.bridge.event.batch.BatchedEventPayload;
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+
+
+/**
+ * This class represents one of the events carried by a {@link BatchedEventPayload} so that it can be handed to the
+ * BridgeEventHandler.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class BatchedEventImpl implements Event {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(BatchedEventImpl.class);
+
+	// Private Final Data Members
+	private final QName qName;
+	private final Serializable value;
+
+	/* package-private */ BatchedEventImpl(QName qName, Serializable value) {
+		this.qName = qName;
+		this.value = value;
+	}
+
+	/**
+	 * Returns the events carried by the specified batch in the order in which they were added. Since the portlet
+	 * container only delivers the events that a portlet declares as processing events, any batched event whose QName
+	 * does not match one of the specified processing event QNames is omitted. As with the portlet container, a QName
+	 * matches a processing event QName that is equal to it, or that has the same namespace URI and a local part that
+	 * ends with the "*" wildcard character and whose preceding characters begin the local part of the QName.
+	 *
+	 * @param  batchedEventPayload    The batch of events.
+	 * @param  processingEventQNames  The QNames of the processing events of the portlet.
+	 */
+	/* package-private */ static List<Event> unpack(BatchedEventPayload batchedEventPayload,
+		Set<QName> processingEventQNames) {
+
+		int eventCount = batchedEventPayload.getEventCount();
+		List<Event> events = new ArrayList<Event>(eventCount);
+
+		for (int i = 0; i < eventCount; i++) {
+
+			QName eventName = batchedEventPayload.getEventName(i);
+
+			if (isProcessingEvent(eventName, processingEventQNames)) {
+				events.add(new BatchedEventImpl(eventName, batchedEventPayload.getEventValue(i)));
+			}
+			else {
+				logger.warn("Ignoring batched event name=[{0}] since it is not a processing event of the portlet",
+					eventName);
+			}
+		}
+
+		return events;
+	}
+
+	@Override
+	public String getName() {
+		return qName.getLocalPart();
+	}
+
+	@Override
+	public QName getQName() {
+		return qName;
+	}
+
+	@Override
+	public Serializable getValue() {
+		return value;
+	}
+
+	private static boolean isProcessingEvent(QName eventName, Set<QName> processingEventQNames) {
+
+		if (processingEventQNames.contains(eventName)) {
+			return true;
+		}
+
+		String localPart = eventName.getLocalPart();
+		String namespaceURI = eventName.getNamespaceURI();
+
+		for (QName processingEventQName : processingEventQNames) {
+
+			String processingEventLocalPart = processingEventQName.getLocalPart();
+
+			if (processingEventLocalPart.endsWith("*") &&
+					namespaceURI.equals(processingEventQName.getNamespaceURI()) &&
+					localPart.startsWith(
+						processingEventLocalPart.substring(0, processingEventLocalPart.length() - 1))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -22,9 +22,16 @@ public interface BridgeExt {
 
 	public static final String BOOKMARKABLE_PARAMETER = "_jsfBridgeBookmarkable";
 	public static final String FACES_EXPORT_COMPONENT_PARAMETER = "_jsfExportComponent";
+	public static final String HEAD_ENCODED_IN_HEADER_PHASE = "com.liferay.faces.bridge.headEncodedInHeaderPhase";
+	public static final String HEADER_PHASE_RENDER_STATE = "com.liferay.faces.bridge.headerPhaseRenderState";
 	public static final String REDIRECT_PARAMETER = "_jsfBridgeRedirect";
 	public static final String RENDER_REDIRECT = "com.liferay.faces.bridge.renderRedirect";
 	public static final String RENDER_REDIRECT_AFTER_DISPATCH = "com.liferay.faces.bridge.renderRedirectAfterDispatch";
 	public static final String RENDER_REDIRECT_VIEW_ID = "com.liferay.faces.bridge.renderRedirectViewId";
 	public static final String RESPONSE_CHARACTER_ENCODING = "com.liferay.faces.bridge.responseCharacterEncoding";
+	public static final String UPLOADED_FILE_BYTE_COUNT = "com.liferay.faces.bridge.uploadedFileByteCount";
+	public static final String UPLOADED_FILE_CHUNK_INCOMPLETE = "com.liferay.faces.bridge.uploadedFileChunkIncomplete";
+	public static final String UPLOADED_FILE_CHUNK_POSITION = "com.liferay.faces.bridge.uploadedFileChunkPosition";
+	public static final String UPLOADED_FILE_DIGEST = "com.liferay.faces.bridge.uploadedFileDigest";
+	public static final String UPLOADED_FILE_DIGEST_ALGORITHM = "com.liferay.faces.bridge.uploadedFileDigestAlgorithm";
 }
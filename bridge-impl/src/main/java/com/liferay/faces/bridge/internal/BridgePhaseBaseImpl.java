@@ -325,6 +325,25 @@ public abstract class BridgePhaseBaseImpl implements BridgePhase {
 		}
 	}
 
+	/**
+	 * Returns true if the "id" of a bridge request scope is saved as a render parameter or as a portlet session
+	 * attribute, which indicates that the request follows a previous ACTION_PHASE, EVENT_PHASE or Ajax request.
+	 */
+	protected boolean isBridgeRequestScopeIdPresent(PortletRequest portletRequest) {
+
+		String bridgeRequestScopeKey = portletName + PARAM_BRIDGE_REQUEST_SCOPE_ID;
+		boolean bridgeRequestScopeIdPresent = (portletRequest.getParameter(bridgeRequestScopeKey) != null);
+
+		if (!bridgeRequestScopeIdPresent) {
+
+			PortletSession portletSession = portletRequest.getPortletSession(false);
+			bridgeRequestScopeIdPresent = (portletSession != null) &&
+				(portletSession.getAttribute(bridgeRequestScopeKey) != null);
+		}
+
+		return bridgeRequestScopeIdPresent;
+	}
+
 	protected void maintainBridgeRequestScope(PortletRequest portletRequest, PortletResponse portletResponse,
 		BridgeRequestScope.Transport bridgeRequestScopeTransport) {
 
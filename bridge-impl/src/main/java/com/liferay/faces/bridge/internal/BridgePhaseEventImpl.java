@@ -16,6 +16,9 @@
 package com.liferay.faces.bridge.internal;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -35,8 +38,10 @@ import javax.portlet.faces.BridgeException;
 import javax.portlet.faces.event.EventNavigationResult;
 import javax.portlet.faces.filter.BridgePortletRequestFactory;
 import javax.portlet.faces.filter.BridgePortletResponseFactory;
+import javax.xml.namespace.QName;
 
 import com.liferay.faces.bridge.event.EventPayloadWrapper;
+import com.liferay.faces.bridge.event.batch.BatchedEventPayload;
 import com.liferay.faces.bridge.event.internal.IPCPhaseListener;
 import com.liferay.faces.bridge.scope.internal.BridgeRequestScope;
 import com.liferay.faces.util.logging.Logger;
@@ -111,17 +116,27 @@ public class BridgePhaseEventImpl extends BridgePhaseCompat_2_2_Impl {
 					bridgeEventHandler.getClass());
 
 				Event event = eventRequest.getEvent();
-				EventNavigationResult eventNavigationResult = bridgeEventHandler.handleEvent(facesContext, event);
+				List<Event> events = getEvents(event);
+				String oldViewId = facesContext.getViewRoot().getViewId();
+				boolean navigationHandled = false;
 
-				if (eventNavigationResult != null) {
-					String oldViewId = facesContext.getViewRoot().getViewId();
-					String fromAction = eventNavigationResult.getFromAction();
-					String outcome = eventNavigationResult.getOutcome();
-					logger.debug("Invoking navigationHandler fromAction=[{0}] outcome=[{1}]", fromAction, outcome);
+				for (Event currentEvent : events) {
 
-					NavigationHandler navigationHandler = facesContext.getApplication().getNavigationHandler();
-					navigationHandler.handleNavigation(facesContext, fromAction, outcome);
+					EventNavigationResult eventNavigationResult = bridgeEventHandler.handleEvent(facesContext,
+							currentEvent);
 
+					if (eventNavigationResult != null) {
+						String fromAction = eventNavigationResult.getFromAction();
+						String outcome = eventNavigationResult.getOutcome();
+						logger.debug("Invoking navigationHandler fromAction=[{0}] outcome=[{1}]", fromAction, outcome);
+
+						NavigationHandler navigationHandler = facesContext.getApplication().getNavigationHandler();
+						navigationHandler.handleNavigation(facesContext, fromAction, outcome);
+						navigationHandled = true;
+					}
+				}
+
+				if (navigationHandled) {
 					String newViewId = facesContext.getViewRoot().getViewId();
 					bridgeRequestScope.setNavigationOccurred(!oldViewId.equals(newViewId));
 				}
@@ -174,19 +189,23 @@ public class BridgePhaseEventImpl extends BridgePhaseCompat_2_2_Impl {
 				// RENDER_PHASE by utilizing render parameters.
 				BridgeRequestScope.Transport bridgeRequestScopeTransport =
 					BridgeRequestScope.Transport.RENDER_PARAMETER;
-				Serializable eventPayload = event.getValue();
 
 				// FACES-1465: If the portlet developer intentionally wrapped the event payload is with an
 				// EventPayloadWrapper, then determine whether or not this is happening during a redirect. If this is
 				// the case, then the bridge request scope must be maintained from the EVENT_PHASE into the RENDER_PHASE
 				// by utilizing a portlet session attribute. This is because render parameters will not survive a
 				// redirect.
-				if ((eventPayload != null) && (eventPayload instanceof EventPayloadWrapper)) {
-					EventPayloadWrapper eventPayloadWrapper = (EventPayloadWrapper) eventPayload;
+				for (Event currentEvent : events) {
 
-					if (eventPayloadWrapper.isRedirect()) {
+					Serializable eventPayload = currentEvent.getValue();
 
-						bridgeRequestScopeTransport = BridgeRequestScope.Transport.PORTLET_SESSION_ATTRIBUTE;
+					if ((eventPayload != null) && (eventPayload instanceof EventPayloadWrapper)) {
+						EventPayloadWrapper eventPayloadWrapper = (EventPayloadWrapper) eventPayload;
+
+						if (eventPayloadWrapper.isRedirect()) {
+
+							bridgeRequestScopeTransport = BridgeRequestScope.Transport.PORTLET_SESSION_ATTRIBUTE;
+						}
 					}
 				}
 
@@ -291,6 +310,34 @@ public class BridgePhaseEventImpl extends BridgePhaseCompat_2_2_Impl {
 		}
 	}
 
+	/**
+	 * Returns the events that are to be handed to the BridgeEventHandler. If {@link
+	 * PortletConfigParam#EventBatchingEnabled} is true and the payload of the specified event is a {@link
+	 * BatchedEventPayload}, then the list contains each of the batched events that is a processing event of the
+	 * portlet, in order. Otherwise, the list only contains the specified event.
+	 */
+	protected List<Event> getEvents(Event event) {
+
+		List<Event> events;
+		Serializable eventPayload = event.getValue();
+
+		if ((eventPayload instanceof BatchedEventPayload) &&
+				PortletConfigParam.EventBatchingEnabled.getBooleanValue(portletConfig)) {
+
+			BatchedEventPayload batchedEventPayload = (BatchedEventPayload) eventPayload;
+			Set<QName> processingEventQNames = new HashSet<QName>(Collections.list(
+						portletConfig.getProcessingEventQNames()));
+			events = BatchedEventImpl.unpack(batchedEventPayload, processingEventQNames);
+			logger.debug("Unpacked {0} of {1} batched events from event name=[{2}]", events.size(),
+				batchedEventPayload.getEventCount(), event.getQName());
+		}
+		else {
+			events = Collections.singletonList(event);
+		}
+
+		return events;
+	}
+
 	protected void processOutgoingPublicRenderParameters(Lifecycle lifecycle) {
 
 		PhaseListener[] phaseListeners = lifecycle.getPhaseListeners();
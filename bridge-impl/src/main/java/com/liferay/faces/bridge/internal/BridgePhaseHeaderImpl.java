@@ -15,17 +15,31 @@
  */
 package com.liferay.faces.bridge.internal;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.faces.component.UIViewRoot;
+import javax.faces.render.ResponseStateManager;
 import javax.portlet.HeaderRequest;
 import javax.portlet.HeaderResponse;
 import javax.portlet.MimeResponse;
 import javax.portlet.PortletConfig;
+import javax.portlet.RenderParameters;
 import javax.portlet.RenderRequest;
+import javax.portlet.faces.Bridge;
 import javax.portlet.faces.Bridge.PortletPhase;
 import javax.portlet.faces.BridgeConfig;
 import javax.portlet.faces.BridgeException;
+import javax.portlet.faces.annotation.PortletNamingContainer;
 import javax.portlet.faces.filter.BridgePortletRequestFactory;
 import javax.portlet.faces.filter.BridgePortletResponseFactory;
 
+import com.liferay.faces.bridge.context.internal.WriterOperation;
 import com.liferay.faces.util.logging.Logger;
 import com.liferay.faces.util.logging.LoggerFactory;
 
@@ -38,6 +52,9 @@ public class BridgePhaseHeaderImpl extends BridgePhaseHeaderRenderCommon {
 	// Logger
 	private static final Logger logger = LoggerFactory.getLogger(BridgePhaseHeaderImpl.class);
 
+	// Private Constants
+	private static final String RENDER_OUTPUT_CACHE_VIEW_IDS = "renderOutputCacheViewIdSet";
+
 	// Private Data Members
 	private HeaderRequest headerRequest;
 	private HeaderResponse headerResponse;
@@ -59,7 +76,48 @@ public class BridgePhaseHeaderImpl extends BridgePhaseHeaderRenderCommon {
 			headerRequest.getPortletMode());
 
 		try {
-			executeRender(null, PortletPhase.HEADER_PHASE);
+
+			// If the render output of the requested view can be cached, then determine whether or not it has already
+			// been cached by a previous request.
+			Set<String> renderOutputCacheViewIds = getRenderOutputCacheViewIds();
+			String renderOutputCacheKey = null;
+
+			if (!renderOutputCacheViewIds.isEmpty() && !isRenderPhaseStreamingEnabled() &&
+					!isBridgeRequestScopeIdPresent(headerRequest)) {
+				renderOutputCacheKey = getRenderOutputCacheKey();
+			}
+
+			RenderOutputCache renderOutputCache = null;
+			RenderOutput renderOutput = null;
+
+			if (renderOutputCacheKey != null) {
+				renderOutputCache = RenderOutputCache.getInstance(portletContext);
+				renderOutput = renderOutputCache.getRenderOutput(renderOutputCacheKey);
+			}
+
+			// If the render output has been cached, then use it instead of executing the JSF lifecycle.
+			if (renderOutput != null) {
+
+				logger.debug("Using cached render output for viewId=[{0}]", renderOutput.getViewId());
+				renderCachedOutput(renderOutput);
+			}
+
+			// Otherwise, if the render output can be cached, then execute the JSF lifecycle while recording the
+			// dependencies that are added to the <head> section of the portal page, and cache the render output.
+			else if (renderOutputCacheKey != null) {
+
+				HeaderResponseDependencyRecorder headerResponseDependencyRecorder =
+					new HeaderResponseDependencyRecorder(headerResponse);
+				headerResponse = headerResponseDependencyRecorder;
+				executeRender(null, PortletPhase.HEADER_PHASE);
+				cacheRenderOutput(renderOutputCache, renderOutputCacheKey, renderOutputCacheViewIds,
+					headerResponseDependencyRecorder);
+			}
+
+			// Otherwise, execute the JSF lifecycle.
+			else {
+				executeRender(null, PortletPhase.HEADER_PHASE);
+			}
 		}
 		catch (BridgeException e) {
 			throw e;
@@ -83,4 +141,185 @@ public class BridgePhaseHeaderImpl extends BridgePhaseHeaderRenderCommon {
 	protected RenderRequest getRenderRequest() {
 		return headerRequest;
 	}
+
+	@Override
+	protected boolean isRenderPhaseStreamingEnabled() {
+
+		// Since the body of the view is streamed directly to the response in the RENDER_PHASE, it is not possible to
+		// discard the markup of the original view in the case of a render-redirect.
+		return PortletConfigParam.RenderPhaseStreamingEnabled.getBooleanValue(portletConfig) &&
+			!PortletConfigParam.RenderRedirectEnabled.getBooleanValue(portletConfig);
+	}
+
+	private void appendKeyPart(StringBuilder renderOutputCacheKey, String keyPart) {
+
+		// Prefix each part of the key with its length so that different combinations of values can never produce the
+		// same key.
+		if (keyPart == null) {
+			renderOutputCacheKey.append("-1:");
+		}
+		else {
+			renderOutputCacheKey.append(keyPart.length()).append(':').append(keyPart);
+		}
+	}
+
+	private void cacheRenderOutput(RenderOutputCache renderOutputCache, String renderOutputCacheKey,
+		Set<String> renderOutputCacheViewIds, HeaderResponseDependencyRecorder headerResponseDependencyRecorder)
+		throws IOException {
+
+		UIViewRoot uiViewRoot = facesContext.getViewRoot();
+		List<WriterOperation> writerOperations = (List<WriterOperation>) headerRequest.getAttribute(
+				Bridge.RENDER_RESPONSE_OUTPUT);
+
+		if ((uiViewRoot != null) && (writerOperations != null) && !facesContext.getResponseComplete() &&
+				(facesContext.getMaximumSeverity() == null) &&
+				renderOutputCacheViewIds.contains(uiViewRoot.getViewId())) {
+
+			StringWriter stringWriter = new StringWriter();
+
+			for (WriterOperation writerOperation : writerOperations) {
+				writerOperation.invoke(stringWriter);
+			}
+
+			String markup = stringWriter.toString();
+			String viewId = uiViewRoot.getViewId();
+
+			// Since action URLs and render URLs can contain tokens that are specific to the user's session (such as
+			// the p_auth token of Liferay Portal), the markup of a view that contains such URLs is never cached.
+			if (headerResponseDependencyRecorder.isPortletURLCreated()) {
+				logger.debug("Unable to cache render output for viewId=[{0}] since it contains a portlet URL", viewId);
+			}
+
+			// Otherwise, since the view state of a non-transient view is specific to the user's session, the markup of
+			// a view that contains a form can only be cached if the view is transient (stateless).
+			else if (uiViewRoot.isTransient() || !markup.contains(ResponseStateManager.VIEW_STATE_PARAM)) {
+
+				long timeToLive = PortletConfigParam.RenderOutputCacheTimeToLive.getIntegerValue(portletConfig);
+				long expirationTime = 0L;
+
+				if (timeToLive > 0L) {
+					expirationTime = System.currentTimeMillis() + (timeToLive * 1000L);
+				}
+
+				boolean namespaced = (uiViewRoot.getClass().getAnnotation(PortletNamingContainer.class) != null);
+				List<RenderOutput.HeaderDependency> headerDependencies =
+					headerResponseDependencyRecorder.getHeaderDependencies();
+				RenderOutput renderOutput = new RenderOutput(portletName, viewId, markup,
+						new ArrayList<RenderOutput.HeaderDependency>(headerDependencies), namespaced, expirationTime);
+				renderOutputCache.putRenderOutput(renderOutputCacheKey, renderOutput);
+				logger.debug("Cached render output for viewId=[{0}]", viewId);
+			}
+			else {
+				logger.debug("Unable to cache render output for viewId=[{0}] since it contains a non-transient form",
+					viewId);
+			}
+		}
+	}
+
+	private String getRenderOutputCacheKey() {
+
+		StringBuilder renderOutputCacheKey = new StringBuilder();
+		appendKeyPart(renderOutputCacheKey, portletName);
+		appendKeyPart(renderOutputCacheKey, headerResponse.getNamespace());
+		appendKeyPart(renderOutputCacheKey, headerRequest.getPortletMode().toString());
+		appendKeyPart(renderOutputCacheKey, headerRequest.getWindowState().toString());
+		appendKeyPart(renderOutputCacheKey, headerRequest.getLocale().toString());
+
+		RenderParameters renderParameters = headerRequest.getRenderParameters();
+		List<String> renderParameterNames = new ArrayList<String>(renderParameters.getNames());
+		Collections.sort(renderParameterNames);
+
+		for (String renderParameterName : renderParameterNames) {
+
+			appendKeyPart(renderOutputCacheKey, renderParameterName);
+
+			String[] renderParameterValues = renderParameters.getValues(renderParameterName);
+
+			if (renderParameterValues == null) {
+				appendKeyPart(renderOutputCacheKey, null);
+			}
+			else {
+
+				renderOutputCacheKey.append(renderParameterValues.length).append('#');
+
+				for (String renderParameterValue : renderParameterValues) {
+					appendKeyPart(renderOutputCacheKey, renderParameterValue);
+				}
+			}
+		}
+
+		// If the markup of the cached views varies according to the roles of the user, then include the roles that the
+		// user is in as part of the key.
+		String renderOutputCacheRoles = PortletConfigParam.RenderOutputCacheRoles.getStringValue(portletConfig);
+
+		if (renderOutputCacheRoles != null) {
+
+			renderOutputCacheKey.append('|');
+
+			for (String role : renderOutputCacheRoles.split(",")) {
+
+				role = role.trim();
+
+				if (role.length() > 0) {
+					renderOutputCacheKey.append(headerRequest.isUserInRole(role) ? '1' : '0');
+				}
+			}
+		}
+
+		return renderOutputCacheKey.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Set<String> getRenderOutputCacheViewIds() {
+
+		// Since the init-param is parsed only once per portlet, the resulting set is kept as a PortletContext
+		// attribute that is namespaced by the portlet name.
+		String attributeName = Bridge.BRIDGE_PACKAGE_PREFIX + portletName + "." + RENDER_OUTPUT_CACHE_VIEW_IDS;
+		Set<String> renderOutputCacheViewIds = (Set<String>) portletContext.getAttribute(attributeName);
+
+		if (renderOutputCacheViewIds == null) {
+
+			renderOutputCacheViewIds = Collections.emptySet();
+
+			String viewIds = PortletConfigParam.RenderOutputCacheViewIds.getStringValue(portletConfig);
+
+			if (viewIds != null) {
+
+				Set<String> viewIdSet = new HashSet<String>();
+
+				for (String viewId : viewIds.split(",")) {
+
+					viewId = viewId.trim();
+
+					if (viewId.length() > 0) {
+						viewIdSet.add(viewId);
+					}
+				}
+
+				renderOutputCacheViewIds = Collections.unmodifiableSet(viewIdSet);
+			}
+
+			portletContext.setAttribute(attributeName, renderOutputCacheViewIds);
+		}
+
+		return renderOutputCacheViewIds;
+	}
+
+	private void renderCachedOutput(RenderOutput renderOutput) {
+
+		for (RenderOutput.HeaderDependency headerDependency : renderOutput.getHeaderDependencies()) {
+			headerDependency.addTo(headerResponse);
+		}
+
+		// Spec 6.6 (Namespacing)
+		if (renderOutput.isNamespaced()) {
+			headerResponse.addProperty(Bridge.PORTLET_NAMESPACED_RESPONSE_PROPERTY, Boolean.TRUE.toString());
+		}
+
+		// Save the cached markup so that it will be written to the response in the subsequent RENDER_PHASE.
+		headerRequest.setAttribute(Bridge.RENDER_RESPONSE_OUTPUT, renderOutput.getWriterOperations());
+
+		// Set the view history according to Section 5.4.3 of the Bridge Spec.
+		setViewHistory(renderOutput.getViewId());
+	}
 }
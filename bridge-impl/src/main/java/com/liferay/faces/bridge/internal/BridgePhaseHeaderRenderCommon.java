@@ -17,18 +17,23 @@ package com.liferay.faces.bridge.internal;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import javax.faces.FacesException;
 import javax.faces.application.NavigationHandler;
 import javax.faces.application.ViewHandler;
+import javax.faces.component.UIComponent;
 import javax.faces.component.UIViewRoot;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
+import javax.faces.context.ResponseWriter;
 import javax.faces.event.PhaseEvent;
 import javax.faces.event.PhaseId;
 import javax.faces.event.PhaseListener;
+import javax.faces.render.RenderKit;
+import javax.faces.view.ViewDeclarationLanguage;
 import javax.portlet.MimeResponse;
 import javax.portlet.PortletConfig;
 import javax.portlet.PortletMode;
@@ -43,6 +48,7 @@ import javax.portlet.faces.BridgeInvalidViewPathException;
 import com.liferay.faces.bridge.application.internal.BridgeNavigationHandler;
 import com.liferay.faces.bridge.application.internal.BridgeNavigationHandlerImpl;
 import com.liferay.faces.bridge.context.internal.CapturingWriter;
+import com.liferay.faces.bridge.context.internal.CapturingWriterImpl;
 import com.liferay.faces.bridge.context.internal.WriterOperation;
 import com.liferay.faces.bridge.event.internal.IPCPhaseListener;
 import com.liferay.faces.util.logging.Logger;
@@ -63,6 +69,7 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 	// Private Constants
 	private static final String HANDLING_BRIDGE_INVALID_VIEW_PATH_EXCEPTION = BridgePhaseHeaderRenderCommon.class
 		.getName() + ".HANDLING_BRIDGE_INVALID_VIEW_PATH_EXCEPTION";
+	private static final String HEAD_RENDERER_TYPE = "javax.faces.Head";
 
 	public BridgePhaseHeaderRenderCommon(PortletConfig portletConfig, BridgeConfig bridgeConfig) {
 		super(portletConfig, bridgeConfig);
@@ -248,9 +255,29 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 			incongruityContext.makeCongruous(facesContext);
 		}
 
-		// Execute the RENDER_RESPONSE phase of the faces lifecycle.
-		logger.debug("Executing Faces render");
-		facesLifecycle.render(facesContext);
+		// If the body of the view is to be streamed in the RENDER_PHASE, then only encode the <head> section of the
+		// view and save the state of the FacesContext so that it can be restored in the RENDER_PHASE.
+		boolean renderPhaseStreaming = (portletPhase == Bridge.PortletPhase.HEADER_PHASE) &&
+			isRenderPhaseStreamingEnabled();
+
+		if (renderPhaseStreaming) {
+
+			logger.debug("Encoding the head section of the view");
+			renderPhaseStreaming = encodeHead();
+
+			// The markup that was written to the response output writer while encoding the <head> section would be
+			// discarded by the portlet container, so return the captured segments to the pool.
+			discardWriterOperations(getResponseOutputWriter(facesContext.getExternalContext()));
+		}
+
+		// If the <head> section was not encoded (or the response was completed while encoding it), then execute the
+		// RENDER_RESPONSE phase of the faces lifecycle. Note that the RENDER_RESPONSE phase does nothing if the
+		// response is complete.
+		if (!renderPhaseStreaming) {
+
+			logger.debug("Executing Faces render");
+			facesLifecycle.render(facesContext);
+		}
 
 		// Set the view history according to Section 5.4.3 of the Bridge Spec.
 		setViewHistory(facesContext.getViewRoot().getViewId());
@@ -275,11 +302,7 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 			// ResponseOutputWriter has buffered up markup that must be discarded. This is because we don't want the
 			// markup from the original Faces view to be included with the markup of Faces view found in the
 			// redirect URL.
-			if (responseOutputWriter instanceof CapturingWriter) {
-
-				CapturingWriter capturingWriter = (CapturingWriter) responseOutputWriter;
-				capturingWriter.getWriterOperations().clear();
-			}
+			discardWriterOperations(responseOutputWriter);
 
 			// Recursively call this method with the render-redirect URL so that the RENDER_RESPONSE phase of the
 			// JSF lifecycle will be re-executed according to the new Faces viewId found in the redirect URL.
@@ -291,9 +314,16 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 		// Otherwise,
 		else {
 
-			// If there are captured writer operations, then that means either the JSF lifecycle executed in the
-			// HEADER_PHASE or that a render-redirect executed in the HEADER_PHASE or RESOURCE_PHASE.
-			if (responseOutputWriter instanceof CapturingWriter) {
+			// If only the <head> section of the view was encoded, then save the state of the FacesContext so that
+			// the body of the view can be streamed in the subsequent RENDER_PHASE.
+			if (renderPhaseStreaming) {
+				renderRequest.setAttribute(BridgeExt.HEADER_PHASE_RENDER_STATE,
+					new HeaderPhaseRenderState(facesContext));
+			}
+
+			// Otherwise, if there are captured writer operations, then that means either the JSF lifecycle executed in
+			// the HEADER_PHASE or that a render-redirect executed in the HEADER_PHASE or RESOURCE_PHASE.
+			else if (responseOutputWriter instanceof CapturingWriter) {
 
 				CapturingWriter capturingWriter = (CapturingWriter) responseOutputWriter;
 				List<WriterOperation> writerOperations = capturingWriter.getWriterOperations();
@@ -304,8 +334,14 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 					// that the markup will be written to the response.
 					if (portletPhase == Bridge.PortletPhase.RENDER_PHASE) {
 
-						for (WriterOperation writerOperation : writerOperations) {
-							writerOperation.invoke(responseOutputWriter);
+						try {
+
+							for (WriterOperation writerOperation : writerOperations) {
+								writerOperation.invoke(responseOutputWriter);
+							}
+						}
+						finally {
+							CapturingWriterImpl.releaseWriterOperations(writerOperations);
 						}
 					}
 
@@ -319,6 +355,61 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 		}
 	}
 
+	/**
+	 * Encodes only the &lt;head&gt; section of the view so that the resources that it depends on can be added to the
+	 * &lt;head&gt; section of the portal page by the {@link javax.portlet.HeaderResponse}. Since the markup of the
+	 * &lt;head&gt; section is written by way of the head renderer, the writer that is set on the {@link FacesContext}
+	 * during encoding only receives markup that the portlet container would discard anyways.
+	 *
+	 * @return  true if the &lt;head&gt; section was encoded and the response is not complete, otherwise false (in
+	 *          which case the state of the {@link FacesContext} must not be saved for the RENDER_PHASE).
+	 */
+	protected boolean encodeHead() throws IOException {
+
+		UIViewRoot uiViewRoot = facesContext.getViewRoot();
+
+		if ((uiViewRoot == null) || facesContext.getResponseComplete()) {
+			return false;
+		}
+		else {
+
+			// Build the view so that the h:head component and the resources that the view depends on are present in
+			// the component tree. Note that the view will not be built again in the RENDER_PHASE, since the
+			// FacesContext attributes (which indicate that the view has been populated) are restored at that time.
+			facesContext.setCurrentPhaseId(PhaseId.RENDER_RESPONSE);
+
+			ViewHandler viewHandler = facesContext.getApplication().getViewHandler();
+			ViewDeclarationLanguage viewDeclarationLanguage = viewHandler.getViewDeclarationLanguage(facesContext,
+					uiViewRoot.getViewId());
+
+			if (viewDeclarationLanguage != null) {
+				viewDeclarationLanguage.buildView(facesContext, uiViewRoot);
+			}
+
+			UIComponent headComponent = getHeadComponent(uiViewRoot);
+
+			if (headComponent != null) {
+
+				ExternalContext externalContext = facesContext.getExternalContext();
+				Writer responseOutputWriter = getResponseOutputWriter(externalContext);
+				RenderKit renderKit = facesContext.getRenderKit();
+				ResponseWriter responseWriter = renderKit.createResponseWriter(responseOutputWriter, "text/html",
+						externalContext.getResponseCharacterEncoding());
+				ResponseWriter originalResponseWriter = facesContext.getResponseWriter();
+				facesContext.setResponseWriter(responseWriter);
+
+				try {
+					headComponent.encodeAll(facesContext);
+				}
+				finally {
+					facesContext.setResponseWriter(originalResponseWriter);
+				}
+			}
+
+			return !facesContext.getResponseComplete();
+		}
+	}
+
 	protected BridgeNavigationHandler getBridgeNavigationHandler(FacesContext facesContext) {
 		BridgeNavigationHandler bridgeNavigationHandler;
 		NavigationHandler navigationHandler = facesContext.getApplication().getNavigationHandler();
@@ -333,6 +424,15 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 		return bridgeNavigationHandler;
 	}
 
+	/**
+	 * Returns true if only the &lt;head&gt; section of the view is to be encoded in the HEADER_PHASE of the portlet
+	 * lifecycle, so that the body of the view can be streamed in the RENDER_PHASE. The default implementation returns
+	 * false.
+	 */
+	protected boolean isRenderPhaseStreamingEnabled() {
+		return false;
+	}
+
 	/**
 	 * Sets the "javax.portlet.faces.viewIdHistory.<code>portletMode</code>" session attribute according to the
 	 * requirements in Section 5.4.3 of the Bridge Spec. There is no corresponding getter method, because the value is
@@ -347,4 +447,38 @@ public abstract class BridgePhaseHeaderRenderCommon extends BridgePhaseCompat_2_
 		PortletSession portletSession = renderRequest.getPortletSession();
 		portletSession.setAttribute(attributeName, viewId);
 	}
+
+	private void discardWriterOperations(Writer responseOutputWriter) {
+
+		if (responseOutputWriter instanceof CapturingWriter) {
+
+			CapturingWriter capturingWriter = (CapturingWriter) responseOutputWriter;
+			List<WriterOperation> writerOperations = capturingWriter.getWriterOperations();
+
+			if (writerOperations != null) {
+				CapturingWriterImpl.releaseWriterOperations(writerOperations);
+				writerOperations.clear();
+			}
+		}
+	}
+
+	private UIComponent getHeadComponent(UIComponent uiComponent) {
+
+		if (HEAD_RENDERER_TYPE.equals(uiComponent.getRendererType())) {
+			return uiComponent;
+		}
+
+		Iterator<UIComponent> facetsAndChildren = uiComponent.getFacetsAndChildren();
+
+		while (facetsAndChildren.hasNext()) {
+
+			UIComponent headComponent = getHeadComponent(facetsAndChildren.next());
+
+			if (headComponent != null) {
+				return headComponent;
+			}
+		}
+
+		return null;
+	}
 }
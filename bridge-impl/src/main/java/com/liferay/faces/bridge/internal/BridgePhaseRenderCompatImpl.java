@@ -29,6 +29,7 @@ import javax.portlet.faces.BridgeException;
 import javax.portlet.faces.filter.BridgePortletRequestFactory;
 import javax.portlet.faces.filter.BridgePortletResponseFactory;
 
+import com.liferay.faces.bridge.context.internal.CapturingWriterImpl;
 import com.liferay.faces.bridge.context.internal.WriterOperation;
 
 
@@ -58,22 +59,52 @@ public abstract class BridgePhaseRenderCompatImpl extends BridgePhaseCompat_2_2_
 
 		init(renderRequest, renderResponse, Bridge.PortletPhase.RENDER_PHASE);
 
+		// If only the <head> section of the view was encoded in the HEADER_PHASE, then restore the state of the
+		// FacesContext that was saved at that time.
+		HeaderPhaseRenderState headerPhaseRenderState = (HeaderPhaseRenderState) renderRequest.getAttribute(
+				BridgeExt.HEADER_PHASE_RENDER_STATE);
+
+		if (headerPhaseRenderState != null) {
+
+			renderRequest.removeAttribute(BridgeExt.HEADER_PHASE_RENDER_STATE);
+			headerPhaseRenderState.restore(facesContext);
+			facesContext.getAttributes().put(BridgeExt.HEAD_ENCODED_IN_HEADER_PHASE, Boolean.TRUE);
+		}
+
 		// Spec 6.6 (Namespacing)
 		indicateNamespacingToConsumers(facesContext.getViewRoot(), renderResponse);
 
-		// If a captured list of writer operations was saved in the HEADER_PHASE, then invoke each writer operation so
-		// that the markup will be written to the response now in the RENDER_PHASE.
-		ExternalContext externalContext = facesContext.getExternalContext();
-		List<WriterOperation> writerOperations = (List<WriterOperation>) renderRequest.getAttribute(
-				Bridge.RENDER_RESPONSE_OUTPUT);
-		renderRequest.removeAttribute(Bridge.RENDER_RESPONSE_OUTPUT);
+		// If the state of the FacesContext was restored, then execute the RENDER_RESPONSE phase of the faces lifecycle
+		// so that the body of the view will be streamed directly to the response.
+		if (headerPhaseRenderState != null) {
+			facesLifecycle.render(facesContext);
+		}
+
+		// Otherwise, if a captured list of writer operations was saved in the HEADER_PHASE, then invoke each writer
+		// operation so that the markup will be written to the response now in the RENDER_PHASE.
+		else {
+
+			ExternalContext externalContext = facesContext.getExternalContext();
+			List<WriterOperation> writerOperations = (List<WriterOperation>) renderRequest.getAttribute(
+					Bridge.RENDER_RESPONSE_OUTPUT);
+			renderRequest.removeAttribute(Bridge.RENDER_RESPONSE_OUTPUT);
+
+			if (writerOperations != null) {
+
+				Writer responseOutputWriter = getResponseOutputWriter(externalContext);
 
-		if (writerOperations != null) {
+				try {
 
-			Writer responseOutputWriter = getResponseOutputWriter(externalContext);
+					for (WriterOperation writerOperation : writerOperations) {
+						writerOperation.invoke(responseOutputWriter);
+					}
+				}
+				finally {
 
-			for (WriterOperation writerOperation : writerOperations) {
-				writerOperation.invoke(responseOutputWriter);
+					// Since the markup has been written to the response (or writing it failed), return the buffers of
+					// the captured writer operations to the pool.
+					CapturingWriterImpl.releaseWriterOperations(writerOperations);
+				}
 			}
 		}
 	}
@@ -33,6 +33,7 @@ import javax.portlet.faces.filter.BridgePortletRequestFactory;
 import javax.portlet.faces.filter.BridgePortletResponseFactory;
 import javax.servlet.http.HttpServletResponse;
 
+import com.liferay.faces.bridge.context.internal.IncongruityContext;
 import com.liferay.faces.bridge.scope.internal.BridgeRequestScope;
 import com.liferay.faces.util.application.ResourceValidator;
 import com.liferay.faces.util.application.ResourceValidatorFactory;
@@ -79,6 +80,16 @@ public class BridgePhaseResourceImpl extends BridgePhaseCompat_2_2_Impl {
 		logger.debug(Logger.SEPARATOR);
 		logger.debug("execute(ResourceRequest, ResourceResponse) portletName=[{0}]", portletName);
 
+		// If the request targets a JSF2 resource (image, javascript, css, etc.) then attempt to handle it without
+		// initializing the bridge request scope or touching the portlet session.
+		if (PortletConfigParam.ResourceRequestFastLaneEnabled.getBooleanValue(portletConfig) &&
+				(resourceRequest.getParameter("javax.faces.resource") != null) && executeFastLane()) {
+
+			logger.debug(Logger.SEPARATOR);
+
+			return;
+		}
+
 		try {
 
 			init(resourceRequest, resourceResponse, Bridge.PortletPhase.RESOURCE_PHASE);
@@ -298,6 +309,50 @@ public class BridgePhaseResourceImpl extends BridgePhaseCompat_2_2_Impl {
 		logger.debug(Logger.SEPARATOR);
 	}
 
+	/**
+	 * Handles the current request as a JSF2 resource request by creating only the request attributes and the {@link
+	 * javax.faces.context.FacesContext} that are required by the Faces resource handler. Unlike {@link
+	 * #init(javax.portlet.PortletRequest, javax.portlet.PortletResponse, Bridge.PortletPhase)}, this method does not
+	 * initialize the {@link BridgeRequestScope} nor does it access the {@link javax.portlet.PortletSession}.
+	 *
+	 * @return  <code>true</code> if the resource request was handled, otherwise <code>false</code> which indicates that
+	 *          the request must be processed normally.
+	 */
+	protected boolean executeFastLane() throws BridgeException {
+
+		boolean handled = false;
+
+		try {
+
+			resourceRequest.setAttribute(Bridge.PORTLET_LIFECYCLE_PHASE, Bridge.PortletPhase.RESOURCE_PHASE);
+			resourceRequest.setAttribute(PortletConfig.class.getName(), portletConfig);
+			resourceRequest.setAttribute(BridgeConfig.class.getName(), bridgeConfig);
+			resourceRequest.setAttribute(IncongruityContext.class.getName(), incongruityContext);
+			setBridgeContextAttribute(resourceRequest);
+			facesContext = getFacesContext(resourceRequest, resourceResponse, facesLifecycle);
+
+			if (isJSF2ResourceRequest(facesContext)) {
+
+				logger.debug("Detected JSF2 resource request (fast lane)");
+
+				// Ask the Faces resource handler to copy the contents of the resource to the response.
+				handleJSF2ResourceRequest(facesContext);
+				handled = true;
+			}
+		}
+		catch (Throwable t) {
+			throw new BridgeException(t);
+		}
+		finally {
+			cleanup(resourceRequest);
+
+			// Since the FacesContext has been released, ensure that the normal path creates a new one.
+			facesContext = null;
+		}
+
+		return handled;
+	}
+
 	protected List<ConfiguredServletMapping> getConfiguredFacesServletMappings() {
 
 		String appConfigAttrName = ApplicationConfig.class.getName();
@@ -38,6 +38,7 @@ import javax.portlet.faces.BridgeConfig;
 import javax.portlet.faces.BridgeUtil;
 
 import com.liferay.faces.bridge.util.internal.PortletResourceUtilCompat;
+import com.liferay.faces.bridge.util.internal.ServletResourceURLUtil;
 import com.liferay.faces.util.helper.BooleanHelper;
 import com.liferay.faces.util.logging.Logger;
 import com.liferay.faces.util.logging.LoggerFactory;
@@ -54,6 +55,7 @@ public class BridgeURLResourceImpl extends BridgeURLBase {
 
 	// Private Final Data Members
 	private final String encoding;
+	private final PortletConfig portletConfig;
 
 	// Private Data Members
 	private boolean inProtocol;
@@ -66,6 +68,7 @@ public class BridgeURLResourceImpl extends BridgeURLBase {
 		super(uri, contextPath, namespace, encoding, facesURLEncoder, currentViewId, portletConfig, bridgeConfig);
 
 		this.encoding = encoding;
+		this.portletConfig = portletConfig;
 		this.inProtocol = (bridgeURI.getParameter(Bridge.IN_PROTOCOL_RESOURCE_LINK) != null);
 		this.viewLink = BooleanHelper.isTrueToken(bridgeURI.getParameter(Bridge.VIEW_LINK));
 
@@ -230,9 +233,20 @@ public class BridgeURLResourceImpl extends BridgeURLBase {
 		}
 
 		// Otherwise, if the URL is not a JSF2 portlet resource URL, but still contains the "javax.faces.resource"
-		// resource URL identifier, then return a ResourceURL that can retrieve the JSF2 resource.
+		// resource URL identifier, then
 		else if ((uri != null) && uri.contains("javax.faces.resource")) {
-			baseURL = createResourceURL(facesContext, bridgeURI.getParameterMap());
+
+			// If the URL targets a static library resource that can be served directly by the FacesServlet, then
+			// return the URL unmodified so that the request bypasses the portal. Otherwise, return a ResourceURL
+			// that can retrieve the JSF2 resource.
+			if (ServletResourceURLUtil.isServletResourcePath(portletConfig,
+						bridgeURI.getContextRelativePath(contextPath), bridgeURI.getParameter("ln"),
+						configuredFacesServletMappings)) {
+				baseURL = new BaseURLBridgeURIAdapterImpl(bridgeURI);
+			}
+			else {
+				baseURL = createResourceURL(facesContext, bridgeURI.getParameterMap());
+			}
 		}
 
 		// Otherwise, if the URL is relative, in that it starts with "../", then return a BaseURL string representation
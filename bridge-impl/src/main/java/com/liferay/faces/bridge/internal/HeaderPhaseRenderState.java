@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.application.FacesMessage;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.FacesContext;
+
+
+/**
+ * This class holds the state of the {@link FacesContext} after the &lt;head&gt; section of the view has been encoded
+ * in the HEADER_PHASE of the portlet lifecycle, so that the body of the view can be encoded (streamed) in the
+ * subsequent RENDER_PHASE with a new {@link FacesContext}. See {@link
+ * PortletConfigParam#RenderPhaseStreamingEnabled}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class HeaderPhaseRenderState {
+
+	// Private Final Data Members
+	private final Map<Object, Object> facesContextAttributes;
+	private final Map<String, List<FacesMessage>> facesMessages;
+	private final UIViewRoot uiViewRoot;
+	private final boolean validationFailed;
+
+	/* package-private */ HeaderPhaseRenderState(FacesContext facesContext) {
+
+		this.uiViewRoot = facesContext.getViewRoot();
+
+		// Copy the FacesContext attributes since they are cleared when the FacesContext is released. Among other
+		// things, they contain the list of head resources that are to be rendered in the body section, and (in the
+		// case of Mojarra) the marker indicating that the view has already been populated.
+		this.facesContextAttributes = new HashMap<Object, Object>(facesContext.getAttributes());
+		this.facesMessages = new LinkedHashMap<String, List<FacesMessage>>();
+
+		Iterator<String> clientIds = facesContext.getClientIdsWithMessages();
+
+		while (clientIds.hasNext()) {
+
+			String clientId = clientIds.next();
+			facesMessages.put(clientId, new ArrayList<FacesMessage>(facesContext.getMessageList(clientId)));
+		}
+
+		this.validationFailed = facesContext.isValidationFailed();
+	}
+
+	/* package-private */ void restore(FacesContext facesContext) {
+
+		facesContext.setViewRoot(uiViewRoot);
+		facesContext.getAttributes().putAll(facesContextAttributes);
+
+		for (Map.Entry<String, List<FacesMessage>> mapEntry : facesMessages.entrySet()) {
+
+			String clientId = mapEntry.getKey();
+
+			for (FacesMessage facesMessage : mapEntry.getValue()) {
+				facesContext.addMessage(clientId, facesMessage);
+			}
+		}
+
+		if (validationFailed) {
+			facesContext.validationFailed();
+		}
+	}
+}
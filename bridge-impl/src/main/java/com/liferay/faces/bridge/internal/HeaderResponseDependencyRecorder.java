@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.portlet.ActionURL;
+import javax.portlet.HeaderResponse;
+import javax.portlet.MimeResponse;
+import javax.portlet.PortletURL;
+import javax.portlet.RenderURL;
+import javax.portlet.filter.HeaderResponseWrapper;
+
+
+/**
+ * This class decorates a {@link HeaderResponse} in order to record the dependencies that are added to the
+ * &lt;head&gt; section of the portal page, so that they can be added again when cached render output is used. It also
+ * records whether or not an action URL or render URL was created, since such URLs can contain tokens that are specific
+ * to the user's session. See {@link RenderOutputCache}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class HeaderResponseDependencyRecorder extends HeaderResponseWrapper {
+
+	// Private Final Data Members
+	private final List<RenderOutput.HeaderDependency> headerDependencies;
+
+	// Private Data Members
+	private boolean portletURLCreated;
+
+	/* package-private */ HeaderResponseDependencyRecorder(HeaderResponse headerResponse) {
+
+		super(headerResponse);
+		this.headerDependencies = new ArrayList<RenderOutput.HeaderDependency>();
+	}
+
+	@Override
+	public void addDependency(String name, String scope, String version) {
+
+		headerDependencies.add(new RenderOutput.HeaderDependency(name, scope, version, null));
+		super.addDependency(name, scope, version);
+	}
+
+	@Override
+	public void addDependency(String name, String scope, String version, String markup) {
+
+		headerDependencies.add(new RenderOutput.HeaderDependency(name, scope, version, markup));
+		super.addDependency(name, scope, version, markup);
+	}
+
+	@Override
+	public <T extends PortletURL & ActionURL> T createActionURL() {
+
+		portletURLCreated = true;
+
+		return super.createActionURL();
+	}
+
+	@Override
+	public ActionURL createActionURL(MimeResponse.Copy option) {
+
+		portletURLCreated = true;
+
+		return super.createActionURL(option);
+	}
+
+	@Override
+	public <T extends PortletURL & RenderURL> T createRenderURL() {
+
+		portletURLCreated = true;
+
+		return super.createRenderURL();
+	}
+
+	@Override
+	public RenderURL createRenderURL(MimeResponse.Copy option) {
+
+		portletURLCreated = true;
+
+		return super.createRenderURL(option);
+	}
+
+	/* package-private */ List<RenderOutput.HeaderDependency> getHeaderDependencies() {
+		return headerDependencies;
+	}
+
+	/* package-private */ boolean isPortletURLCreated() {
+		return portletURLCreated;
+	}
+}
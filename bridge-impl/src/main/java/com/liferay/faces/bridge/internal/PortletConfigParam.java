@@ -80,6 +80,16 @@ public enum PortletConfigParam implements ConfigParam<PortletConfig> {
 
 	DefaultRenderKitId(null, "javax.portlet.faces.defaultRenderKitId"),
 
+	/**
+	 * Flag indicating whether or not the bridge should unpack an event payload of type {@link
+	 * com.liferay.faces.bridge.event.batch.BatchedEventPayload} in the EVENT_PHASE of the portlet lifecycle so that
+	 * the view and the bridge request scope are restored once, each of the batched events is handed to the
+	 * BridgeEventHandler in order, and the state is saved once. Batched events that are not processing events of the
+	 * portlet are ignored. Batches are only supported between portlets in the same portlet application. Default value
+	 * is false.
+	 */
+	EventBatchingEnabled(false, "com.liferay.faces.bridge.eventBatchingEnabled"),
+
 	/**
 	 * Flag indicating whether or not the bridge should manage incongruities between the JSF lifecycle and the Portlet
 	 * lifecycle. The default is true.
@@ -96,6 +106,50 @@ public enum PortletConfigParam implements ConfigParam<PortletConfig> {
 	/** Flag indicating the value of the "javax.portlet.faces.preserveActionParams" init-param. The default is false. */
 	PreserveActionParams(false, "javax.portlet.faces.preserveActionParams"),
 
+	/**
+	 * Integer indicating the maximum number of entries in the render output cache of the portlet application. When the
+	 * maximum is reached, the least recently used entry is evicted. The default value is 100. For more details, see
+	 * {@link #RenderOutputCacheViewIds}.
+	 */
+	RenderOutputCacheMaxCapacity(100, "com.liferay.faces.bridge.renderOutputCacheMaxCapacity"),
+
+	/**
+	 * Comma-delimited list of security role names that vary the markup of the views listed in {@link
+	 * #RenderOutputCacheViewIds}. The roles that the user is in become part of the cache key, so that users with
+	 * different roles are never served the same cached markup. Default value is null (no roles).
+	 */
+	RenderOutputCacheRoles(null, "com.liferay.faces.bridge.renderOutputCacheRoles"),
+
+	/**
+	 * Integer indicating the number of seconds that cached render output remains valid. A value of zero or less causes
+	 * cached render output to remain valid until it is evicted or invalidated via {@link RenderOutputCache}. Default
+	 * value is 60.
+	 */
+	RenderOutputCacheTimeToLive(60, "com.liferay.faces.bridge.renderOutputCacheTimeToLive"),
+
+	/**
+	 * Comma-delimited list of Faces viewIds whose rendered markup may be cached by the bridge. For a non-postback
+	 * HEADER_PHASE of a listed view, the markup of the body and the dependencies added to the &lt;head&gt; section are
+	 * cached according to the portlet mode, window state, locale, render parameters and {@link
+	 * #RenderOutputCacheRoles}, so that subsequent requests for the same view are rendered without executing the JSF
+	 * lifecycle. Only views that render the same markup for every user (apart from the listed roles) and that do not
+	 * depend on the session, FacesMessages or the Flash should be listed. Views that contain a non-transient form are
+	 * never cached. Views that create an action URL or render URL (for example, with h:link, h:outputLink or
+	 * portlet:actionURL) are also never cached, since such URLs can contain tokens that are specific to the user's
+	 * session. Resource URLs (such as those of JSF2 resources) do not prevent caching. Ignored if {@link
+	 * #RenderPhaseStreamingEnabled} is true. Default value is null (caching disabled).
+	 */
+	RenderOutputCacheViewIds(null, "com.liferay.faces.bridge.renderOutputCacheViewIds"),
+
+	/**
+	 * Flag indicating whether or not only the &lt;head&gt; section of the view is to be encoded in the HEADER_PHASE of
+	 * the portlet lifecycle, so that the body of the view can be streamed directly to the response in the
+	 * RENDER_PHASE rather than being captured in the HEADER_PHASE and copied to the response in the RENDER_PHASE.
+	 * Ignored if {@link #RenderRedirectEnabled} is true, since a render-redirect requires the markup of the original
+	 * view to be discarded. Default value is false.
+	 */
+	RenderPhaseStreamingEnabled(false, "com.liferay.faces.bridge.renderPhaseStreamingEnabled"),
+
 	/**
 	 * Flag indicating whether or not the render-redirect standard feature is enabled. Default value is false for the
 	 * sake of performance.
@@ -107,17 +161,117 @@ public enum PortletConfigParam implements ConfigParam<PortletConfig> {
 		"org.portletfaces.bridge.resourceBufferSize"),
 
 	/**
-	 * Absolute path to a directory (folder) in which the uploaded file data should be written to. Default value is the
-	 * value of the system property "java.io.tmpdir".
+	 * Flag indicating whether or not the bridge should handle non-Ajax requests for JSF2 resources (javascript, css,
+	 * images, etc.) in the RESOURCE_PHASE without initializing the bridge request scope or touching the portlet
+	 * session. Default value is true.
+	 */
+	ResourceRequestFastLaneEnabled(true, "com.liferay.faces.bridge.resourceRequestFastLaneEnabled"),
+
+	/**
+	 * Flag indicating whether or not the URLs of static JSF2 library resources (javascript, css, images, fonts, etc.)
+	 * should target the FacesServlet of the webapp directly rather than being encoded as portlet resource URLs. This
+	 * avoids the overhead of the portal's request pipeline for resources that do not depend on the portlet namespace or
+	 * the portlet session. Note that the FacesServlet must be declared with an explicit servlet-mapping in the
+	 * WEB-INF/web.xml descriptor. Default value is false.
+	 */
+	ServletResourceURLsEnabled(false, "com.liferay.faces.bridge.servletResourceURLsEnabled"),
+
+	/**
+	 * Flag indicating whether or not the bridge should clean up expired sessions in the background. If true, the
+	 * BridgeSessionListener only detaches the session attributes of the bridge on the thread of the servlet container
+	 * that expires the session, and hands the remaining cleanup (removing bridge request scopes, deleting uploaded
+	 * files and invoking &#064;PreDestroy methods of session-scoped managed-beans) to a single background thread that
+	 * processes expired sessions in batches. Only honored as a context-param in the WEB-INF/web.xml descriptor. Default
+	 * value is false.
+	 */
+	SessionCleanupAsyncEnabled(false, "com.liferay.faces.bridge.sessionCleanupAsyncEnabled"),
+
+	/**
+	 * Maximum number of expired sessions that can wait for background cleanup when {@link #SessionCleanupAsyncEnabled}
+	 * is true. When the queue is full, sessions are cleaned up on the thread of the servlet container that expires
+	 * them, which throttles a wave of session expirations. Only honored as a context-param in the WEB-INF/web.xml
+	 * descriptor. Default value is 1000.
+	 */
+	SessionCleanupQueueCapacity(1000, "com.liferay.faces.bridge.sessionCleanupQueueCapacity"),
+
+	/**
+	 * Absolute path to a directory (folder) in which the uploaded file data should be written to. The files uploaded
+	 * during each session are written to a per-session directory inside of a "liferay-faces-bridge-uploads" directory
+	 * in this directory. Default value is the value of the system property "java.io.tmpdir".
 	 */
 	UploadedFilesDir(WebConfigParam.UploadedFilesDir.getDefaultStringValue(), WebConfigParam.UploadedFilesDir.getName(),
 		"com.liferay.faces.bridge.uploadedFilesDir", "javax.faces.UPLOADED_FILES_DIR"),
 
-	/** Maximum file size for an uploaded file. Default is 104,857,600 (~100MB), upper limit is 2,147,483,647 (~2GB) */
+	/**
+	 * Maximum number of bytes (specified as a context-param) that the files uploaded during a single session may occupy
+	 * on disk. When the quota is exceeded, an uploaded file is rejected with a status of FILE_SIZE_LIMIT_EXCEEDED.
+	 * Default value is 0 (no quota).
+	 */
+	UploadedFilesSessionQuota(0L, "com.liferay.faces.bridge.uploadedFilesSessionQuota"),
+
+	/**
+	 * Number of seconds (specified as a context-param) after which a per-session directory of uploaded files that does
+	 * not belong to an active session is considered to be orphaned and is deleted. Directories are normally deleted
+	 * when the session is destroyed, so this only applies to directories left behind by a server restart or by a
+	 * session that was not destroyed normally. Only the per-session directories inside of the
+	 * "liferay-faces-bridge-uploads" directory (see {@link #UploadedFilesDir}) are considered, and they are deleted on
+	 * a background thread. Default value is 0 (orphaned directories are not deleted).
+	 */
+	UploadedFilesTimeToLive(0, "com.liferay.faces.bridge.uploadedFilesTimeToLive"),
+
+	/**
+	 * Maximum number of bytes (specified as a context-param) that the files uploaded during all sessions may occupy on
+	 * disk. When the quota is exceeded, an uploaded file is rejected with a status of FILE_SIZE_LIMIT_EXCEEDED. Default
+	 * value is 0 (no quota).
+	 */
+	UploadedFilesTotalQuota(0L, "com.liferay.faces.bridge.uploadedFilesTotalQuota"),
+
+	/**
+	 * Flag indicating whether or not a file may be uploaded in chunks that are sent in multiple requests during the
+	 * RESOURCE_PHASE. Each chunk is a file part of a multipart request that has a Content-Range header (such as "bytes
+	 * 0-1048575/5242880") either in the part or in the request. Chunks are written (one at a time) to a partial file in
+	 * the per-session directory of the {@link #UploadedFilesDir} that is specific to the portlet, the file upload
+	 * field, the file name, and the complete length of the file. A chunk that is re-sent (for example, after a network
+	 * failure) replaces the bytes that were previously received at its position. When the last chunk is received, the
+	 * partial file is renamed and the uploaded file is made available to the file upload component as though it had
+	 * been sent in a single request. For a request that contains a chunk but not the last chunk, only the RESTORE_VIEW
+	 * and RENDER_RESPONSE phases of the JSF lifecycle are executed, so the file upload component is neither validated
+	 * nor notified until the last chunk is received. A chunk whose position is beyond the end of the partial file is
+	 * rejected with a status of ERROR, and the position that was expected (as a {@link Long}) is specified by the
+	 * {@link BridgeExt#UPLOADED_FILE_CHUNK_POSITION} attribute of the uploaded file. Default value is false.
+	 */
+	UploadedFileChunkingEnabled(false, "com.liferay.faces.bridge.uploadedFileChunkingEnabled"),
+
+	/**
+	 * Name of the {@link java.security.MessageDigest} algorithm (for example, "SHA-256") that is used to compute the
+	 * digest of each uploaded file while it is being saved. When specified, the attributes of the uploaded file contain
+	 * the hexadecimal digest under the {@link BridgeExt#UPLOADED_FILE_DIGEST} key, the name of the algorithm under the
+	 * {@link BridgeExt#UPLOADED_FILE_DIGEST_ALGORITHM} key, and the exact number of bytes (as a {@link Long}) under the
+	 * {@link BridgeExt#UPLOADED_FILE_BYTE_COUNT} key. A zero-byte uploaded file has the digest of the empty input.
+	 * Files that are uploaded in chunks (see {@link #UploadedFileChunkingEnabled}) do not have a digest. Default value
+	 * is null (no digest).
+	 */
+	UploadedFileDigestAlgorithm(null, "com.liferay.faces.bridge.uploadedFileDigestAlgorithm"),
+
+	/**
+	 * Maximum file size for an uploaded file. Default is 104,857,600 (~100MB), upper limit is 2,147,483,647 (~2GB). The
+	 * maximum size of the multipart request is governed by the &lt;multipart-config&gt; element in the WEB-INF/web.xml
+	 * descriptor, but when this init-param is specified, an uploaded file that exceeds it is rejected with a status of
+	 * FILE_SIZE_LIMIT_EXCEEDED before it is written to the {@link #UploadedFilesDir}.
+	 */
 	UploadedFileMaxSize(WebConfigParam.UploadedFileMaxSize.getDefaultLongValue(),
 		WebConfigParam.UploadedFileMaxSize.getName(), "com.liferay.faces.bridge.uploadedFileMaxSize",
 		"javax.faces.UPLOADED_FILE_MAX_SIZE"),
 
+	/**
+	 * Size (in bytes) at or below which an uploaded file is kept in memory rather than being written to the {@link
+	 * #UploadedFilesDir}. Such a file is only written to disk if the application calls {@link
+	 * com.liferay.faces.bridge.model.UploadedFile#getAbsolutePath()}. Note that the value of the request parameter of
+	 * the file upload field is the path that the file will have on disk, so a file does not exist at that path until
+	 * its absolute path has been requested. Default value is 0 (all uploaded files are written to disk).
+	 */
+	UploadedFileMemoryThreshold(0L, "com.liferay.faces.bridge.uploadedFileMemoryThreshold"),
+
 	/** Name of the render parameter used to encode the viewId. Default value is "_facesViewIdRender". */
 	ViewIdRenderParameterName("_facesViewIdRender", "com.liferay.faces.bridge.viewIdRenderParameterName"),
 
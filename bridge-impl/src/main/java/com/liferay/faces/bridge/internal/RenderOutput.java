@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import javax.portlet.HeaderResponse;
+
+import com.liferay.faces.bridge.context.internal.WriterOperation;
+
+
+/**
+ * This class holds the markup of the body of a view and the dependencies that were added to the &lt;head&gt; section
+ * of the portal page when the view was rendered in the HEADER_PHASE of the portlet lifecycle. See {@link
+ * RenderOutputCache}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class RenderOutput {
+
+	// Private Final Data Members
+	private final long expirationTime;
+	private final List<HeaderDependency> headerDependencies;
+	private final boolean namespaced;
+	private final String portletName;
+	private final String viewId;
+	private final List<WriterOperation> writerOperations;
+
+	/* package-private */ RenderOutput(String portletName, String viewId, String markup,
+		List<HeaderDependency> headerDependencies, boolean namespaced, long expirationTime) {
+
+		this.portletName = portletName;
+		this.viewId = viewId;
+		this.headerDependencies = headerDependencies;
+		this.namespaced = namespaced;
+		this.expirationTime = expirationTime;
+
+		WriterOperation writerOperation = new MarkupWriteOperation(markup);
+		this.writerOperations = Collections.singletonList(writerOperation);
+	}
+
+	/* package-private */ List<HeaderDependency> getHeaderDependencies() {
+		return headerDependencies;
+	}
+
+	/* package-private */ String getPortletName() {
+		return portletName;
+	}
+
+	/* package-private */ String getViewId() {
+		return viewId;
+	}
+
+	/**
+	 * Returns an unmodifiable list of writer operations that write the markup of the body of the view. Since the
+	 * markup is immutable, the same list is returned for every request that uses the cached render output.
+	 */
+	/* package-private */ List<WriterOperation> getWriterOperations() {
+		return writerOperations;
+	}
+
+	/* package-private */ boolean isExpired(long currentTime) {
+		return (expirationTime > 0L) && (currentTime >= expirationTime);
+	}
+
+	/* package-private */ boolean isNamespaced() {
+		return namespaced;
+	}
+
+	/**
+	 * This class represents a call to {@link HeaderResponse#addDependency(String, String, String, String)} (or to
+	 * {@link HeaderResponse#addDependency(String, String, String)} if the markup is null).
+	 */
+	/* package-private */ static final class HeaderDependency {
+
+		// Private Final Data Members
+		private final String markup;
+		private final String name;
+		private final String scope;
+		private final String version;
+
+		/* package-private */ HeaderDependency(String name, String scope, String version, String markup) {
+
+			this.name = name;
+			this.scope = scope;
+			this.version = version;
+			this.markup = markup;
+		}
+
+		/* package-private */ void addTo(HeaderResponse headerResponse) {
+
+			if (markup == null) {
+				headerResponse.addDependency(name, scope, version);
+			}
+			else {
+				headerResponse.addDependency(name, scope, version, markup);
+			}
+		}
+	}
+
+	private static final class MarkupWriteOperation implements WriterOperation {
+
+		// Private Final Data Members
+		private final String markup;
+
+		public MarkupWriteOperation(String markup) {
+			this.markup = markup;
+		}
+
+		@Override
+		public void invoke(Writer writer) throws IOException {
+			writer.write(markup);
+		}
+	}
+}
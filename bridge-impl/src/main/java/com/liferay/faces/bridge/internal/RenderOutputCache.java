@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.portlet.PortletConfig;
+import javax.portlet.PortletContext;
+import javax.portlet.faces.BridgeFactoryFinder;
+
+import com.liferay.faces.util.cache.Cache;
+import com.liferay.faces.util.cache.CacheFactory;
+
+
+/**
+ * This class caches the render output of the views listed in {@link PortletConfigParam#RenderOutputCacheViewIds} for
+ * all of the portlets in a portlet application. Applications can invalidate cached render output (for example, after
+ * the underlying data has changed) by calling one of the invalidate methods on the instance returned by {@link
+ * #getInstance(PortletContext)}.
+ *
+ * @author  Neil Griffin
+ */
+public final class RenderOutputCache {
+
+	// Private Constants
+	private static final String ATTRIBUTE_NAME = RenderOutputCache.class.getName();
+	private static final int INITIAL_CACHE_CAPACITY = 16;
+
+	// Private Final Data Members
+	private final Cache<String, RenderOutput> renderOutputs;
+
+	private RenderOutputCache(Cache<String, RenderOutput> renderOutputs) {
+		this.renderOutputs = renderOutputs;
+	}
+
+	/**
+	 * Returns the render output cache of the portlet application associated with the specified portlet context.
+	 */
+	public static RenderOutputCache getInstance(PortletContext portletContext) {
+
+		RenderOutputCache renderOutputCache = (RenderOutputCache) portletContext.getAttribute(ATTRIBUTE_NAME);
+
+		if (renderOutputCache == null) {
+
+			synchronized (RenderOutputCache.class) {
+
+				renderOutputCache = (RenderOutputCache) portletContext.getAttribute(ATTRIBUTE_NAME);
+
+				if (renderOutputCache == null) {
+
+					CacheFactory cacheFactory = (CacheFactory) BridgeFactoryFinder.getFactory(portletContext,
+							CacheFactory.class);
+					PortletConfig emptyPortletConfig = new PortletConfigEmptyImpl(portletContext);
+					int maxCacheCapacity = PortletConfigParam.RenderOutputCacheMaxCapacity.getIntegerValue(
+							emptyPortletConfig);
+					Cache<String, RenderOutput> renderOutputs;
+
+					if (maxCacheCapacity > -1) {
+						renderOutputs = cacheFactory.getConcurrentLRUCache(INITIAL_CACHE_CAPACITY, maxCacheCapacity);
+					}
+					else {
+						renderOutputs = cacheFactory.getConcurrentCache(INITIAL_CACHE_CAPACITY);
+					}
+
+					renderOutputCache = new RenderOutputCache(renderOutputs);
+					portletContext.setAttribute(ATTRIBUTE_NAME, renderOutputCache);
+				}
+			}
+		}
+
+		return renderOutputCache;
+	}
+
+	/**
+	 * Removes all of the cached render output.
+	 */
+	public void invalidate() {
+
+		for (String key : getKeys()) {
+			renderOutputs.removeValue(key);
+		}
+	}
+
+	/**
+	 * Removes all of the cached render output of the specified portlet.
+	 *
+	 * @param  portletName  The name of the portlet.
+	 */
+	public void invalidate(String portletName) {
+		invalidate(portletName, null);
+	}
+
+	/**
+	 * Removes the cached render output of the specified view of the specified portlet.
+	 *
+	 * @param  portletName  The name of the portlet.
+	 * @param  viewId       The Faces viewId, or null in order to remove the cached render output of all of the views
+	 *                      of the portlet.
+	 */
+	public void invalidate(String portletName, String viewId) {
+
+		for (String key : getKeys()) {
+
+			RenderOutput renderOutput = renderOutputs.getValue(key);
+
+			if ((renderOutput != null) && renderOutput.getPortletName().equals(portletName) &&
+					((viewId == null) || renderOutput.getViewId().equals(viewId))) {
+				renderOutputs.removeValue(key);
+			}
+		}
+	}
+
+	/* package-private */ RenderOutput getRenderOutput(String key) {
+
+		RenderOutput renderOutput = renderOutputs.getValue(key);
+
+		if ((renderOutput != null) && renderOutput.isExpired(System.currentTimeMillis())) {
+
+			renderOutputs.removeValue(key);
+			renderOutput = null;
+		}
+
+		return renderOutput;
+	}
+
+	/* package-private */ void putRenderOutput(String key, RenderOutput renderOutput) {
+		renderOutputs.putValue(key, renderOutput);
+	}
+
+	private List<String> getKeys() {
+
+		// Copy the keys so that entries can be removed while iterating.
+		return new ArrayList<String>((Set<String>) renderOutputs.getKeys());
+	}
+}
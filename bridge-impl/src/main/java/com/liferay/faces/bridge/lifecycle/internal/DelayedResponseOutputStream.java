@@ -15,12 +15,117 @@
  */
 package com.liferay.faces.bridge.lifecycle.internal;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 
 /**
+ * This class is an {@link OutputStream} that delays the output of a response by copying the written bytes into a list
+ * of fixed-size chunks that are borrowed from a pool. Unlike {@link java.io.ByteArrayOutputStream}, the buffer never
+ * has to be grown (copied) as the output gets larger, and the delayed output does not have to be copied into a single
+ * array in order to be written to the response. After the delayed output has been written via {@link
+ * #writeTo(OutputStream)}, the chunks can be returned to the pool via {@link #reset()}.
+ *
  * @author  Neil Griffin
  */
-public class DelayedResponseOutputStream extends ByteArrayOutputStream {
+public class DelayedResponseOutputStream extends OutputStream {
+
+	// Private Constants
+	private static final int CHUNK_SIZE = 8192;
+	private static final int MAX_POOLED_CHUNKS = 32;
+	private static final BlockingQueue<byte[]> CHUNK_POOL = new ArrayBlockingQueue<byte[]>(MAX_POOLED_CHUNKS);
+
+	// Private Data Members
+	private List<byte[]> chunks;
+	private int lastChunkLength;
+	private int size;
+
+	public DelayedResponseOutputStream() {
+		this.chunks = new ArrayList<byte[]>();
+	}
+
+	/**
+	 * Returns the chunks to the pool so that the delayed output is discarded.
+	 */
+	public void reset() {
+
+		for (byte[] chunk : chunks) {
+			CHUNK_POOL.offer(chunk);
+		}
+
+		chunks.clear();
+		lastChunkLength = 0;
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of bytes of delayed output.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+
+		byte[] chunk = getWritableChunk();
+		chunk[lastChunkLength++] = (byte) b;
+		size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+
+		if ((off < 0) || (len < 0) || (off > (b.length - len))) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		while (len > 0) {
+
+			byte[] chunk = getWritableChunk();
+			int count = Math.min(len, CHUNK_SIZE - lastChunkLength);
+			System.arraycopy(b, off, chunk, lastChunkLength, count);
+			lastChunkLength += count;
+			size += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	/**
+	 * Writes the delayed output to the specified output stream, one chunk at a time.
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+
+		int lastChunkIndex = chunks.size() - 1;
+
+		for (int i = 0; i < lastChunkIndex; i++) {
+			outputStream.write(chunks.get(i), 0, CHUNK_SIZE);
+		}
+
+		if (lastChunkIndex >= 0) {
+			outputStream.write(chunks.get(lastChunkIndex), 0, lastChunkLength);
+		}
+	}
+
+	private byte[] getWritableChunk() {
+
+		if (chunks.isEmpty() || (lastChunkLength == CHUNK_SIZE)) {
+
+			byte[] chunk = CHUNK_POOL.poll();
+
+			if (chunk == null) {
+				chunk = new byte[CHUNK_SIZE];
+			}
+
+			chunks.add(chunk);
+			lastChunkLength = 0;
+		}
 
+		return chunks.get(chunks.size() - 1);
+	}
 }
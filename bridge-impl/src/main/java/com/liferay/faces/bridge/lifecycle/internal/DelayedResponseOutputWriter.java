@@ -15,12 +15,163 @@
  */
 package com.liferay.faces.bridge.lifecycle.internal;
 
-import java.io.StringWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 
 /**
+ * This class is a {@link Writer} that delays the output of a response by copying the written characters into a list
+ * of fixed-size chunks that are borrowed from a pool. Unlike {@link java.io.StringWriter}, the buffer never has to be
+ * grown (copied) as the output gets larger, and the delayed output does not have to be copied into a single string in
+ * order to be written to the response. After the delayed output has been written via {@link #writeTo(Writer)}, the
+ * chunks can be returned to the pool via {@link #reset()}.
+ *
  * @author  Neil Griffin
  */
-public class DelayedResponseOutputWriter extends StringWriter {
+public class DelayedResponseOutputWriter extends Writer {
+
+	// Private Constants
+	private static final int CHUNK_SIZE = 8192;
+	private static final int MAX_POOLED_CHUNKS = 32;
+	private static final BlockingQueue<char[]> CHUNK_POOL = new ArrayBlockingQueue<char[]>(MAX_POOLED_CHUNKS);
+
+	// Private Data Members
+	private List<char[]> chunks;
+	private int lastChunkLength;
+	private int size;
+
+	public DelayedResponseOutputWriter() {
+		this.chunks = new ArrayList<char[]>();
+	}
+
+	@Override
+	public void close() throws IOException {
+		// no-op
+	}
+
+	@Override
+	public void flush() throws IOException {
+		// no-op
+	}
+
+	/**
+	 * Returns the chunks to the pool so that the delayed output is discarded.
+	 */
+	public void reset() {
+
+		for (char[] chunk : chunks) {
+			CHUNK_POOL.offer(chunk);
+		}
+
+		chunks.clear();
+		lastChunkLength = 0;
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of characters of delayed output.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder buf = new StringBuilder(size);
+		int lastChunkIndex = chunks.size() - 1;
+
+		for (int i = 0; i < lastChunkIndex; i++) {
+			buf.append(chunks.get(i), 0, CHUNK_SIZE);
+		}
+
+		if (lastChunkIndex >= 0) {
+			buf.append(chunks.get(lastChunkIndex), 0, lastChunkLength);
+		}
+
+		return buf.toString();
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+
+		char[] chunk = getWritableChunk();
+		chunk[lastChunkLength++] = (char) c;
+		size++;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+
+		if ((off < 0) || (len < 0) || (off > (cbuf.length - len))) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		while (len > 0) {
+
+			char[] chunk = getWritableChunk();
+			int count = Math.min(len, CHUNK_SIZE - lastChunkLength);
+			System.arraycopy(cbuf, off, chunk, lastChunkLength, count);
+			lastChunkLength += count;
+			size += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+
+		if ((off < 0) || (len < 0) || (off > (str.length() - len))) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		while (len > 0) {
+
+			char[] chunk = getWritableChunk();
+			int count = Math.min(len, CHUNK_SIZE - lastChunkLength);
+			str.getChars(off, off + count, chunk, lastChunkLength);
+			lastChunkLength += count;
+			size += count;
+			off += count;
+			len -= count;
+		}
+	}
+
+	/**
+	 * Writes the delayed output to the specified writer, one chunk at a time.
+	 */
+	public void writeTo(Writer writer) throws IOException {
+
+		int lastChunkIndex = chunks.size() - 1;
+
+		for (int i = 0; i < lastChunkIndex; i++) {
+			writer.write(chunks.get(i), 0, CHUNK_SIZE);
+		}
+
+		if (lastChunkIndex >= 0) {
+			writer.write(chunks.get(lastChunkIndex), 0, lastChunkLength);
+		}
+	}
+
+	private char[] getWritableChunk() {
+
+		if (chunks.isEmpty() || (lastChunkLength == CHUNK_SIZE)) {
+
+			char[] chunk = CHUNK_POOL.poll();
+
+			if (chunk == null) {
+				chunk = new char[CHUNK_SIZE];
+			}
+
+			chunks.add(chunk);
+			lastChunkLength = 0;
+		}
 
+		return chunks.get(chunks.size() - 1);
+	}
 }
@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
 
+import com.liferay.faces.bridge.context.map.internal.UploadedFileMemoryImpl;
 import com.liferay.faces.bridge.model.UploadedFile;
 
 
@@ -54,7 +55,14 @@ public class UploadedFileBridgeImpl implements Serializable, UploadedFile {
 
 		try {
 			String tempDirPath = null;
-			String absolutePath = wrappedUploadedFile.getAbsolutePath();
+			String absolutePath = null;
+
+			// Since calling getAbsolutePath() causes the contents of an uploaded file that is kept in memory to be
+			// written to disk, only get the path of such a file if it has already been written to disk.
+			if (!(wrappedUploadedFile instanceof UploadedFileMemoryImpl) ||
+					((UploadedFileMemoryImpl) wrappedUploadedFile).isWritten()) {
+				absolutePath = wrappedUploadedFile.getAbsolutePath();
+			}
 
 			if (absolutePath != null) {
 				File wrappedFile = new File(absolutePath);
@@ -16,7 +16,6 @@
 package com.liferay.faces.bridge.renderkit.html_basic.internal;
 
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
 
 import javax.el.ELResolver;
@@ -32,6 +31,9 @@ import javax.faces.context.FacesContext;
  * execution of navigation-rules in a portlet. See the class-level comments in the {@link HeadPhaseListener} for more
  * details.</p>
  *
+ * <p>The resource ids are interned by the {@link HeadResourceIdRegistry} of the application so that each view only
+ * needs to keep track of a compact set of indexes (see {@link HeadResourceIdSet}).</p>
+ *
  * @author  Neil Griffin
  */
 @ManagedBean
@@ -42,7 +44,7 @@ public class HeadManagedBean implements Serializable {
 	private static final long serialVersionUID = 3829127137783852729L;
 
 	// Private Data Members
-	private Set<String> headResourceIds = new HashSet<String>();
+	private Set<String> headResourceIds = new HeadResourceIdSet();
 
 	public static HeadManagedBean getInstance(FacesContext facesContext) {
 		String elExpression = "headManagedBean";
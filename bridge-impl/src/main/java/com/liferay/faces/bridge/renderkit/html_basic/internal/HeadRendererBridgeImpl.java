@@ -32,11 +32,15 @@ import javax.portlet.PortalContext;
 import javax.portlet.PortletContext;
 import javax.portlet.PortletRequest;
 import javax.portlet.PortletResponse;
+import javax.portlet.faces.BridgeFactoryFinder;
 
 import com.liferay.faces.bridge.component.internal.ComponentUtil;
 import com.liferay.faces.bridge.context.BridgePortalContext;
 import com.liferay.faces.bridge.context.HeadResponseWriterFactory;
+import com.liferay.faces.bridge.internal.BridgeExt;
 import com.liferay.faces.util.application.ResourceUtil;
+import com.liferay.faces.util.cache.Cache;
+import com.liferay.faces.util.cache.CacheFactory;
 import com.liferay.faces.util.logging.Logger;
 import com.liferay.faces.util.logging.LoggerFactory;
 import com.liferay.faces.util.product.Product;
@@ -56,10 +60,22 @@ public class HeadRendererBridgeImpl extends Renderer {
 	private static final String FIRST_FACET = "first";
 	private static final String MIDDLE_FACET = "middle";
 	private static final String LAST_FACET = "last";
+	private static final int INITIAL_HEAD_RESOURCE_PLANS_CAPACITY = 16;
+	private static final int MAX_HEAD_RESOURCE_PLANS_CAPACITY = 256;
+
+	private static final String[] ADD_TO_HEAD_SUPPORT_PROPERTIES = new String[] {
+			BridgePortalContext.ADD_ELEMENT_TO_HEAD_SUPPORT, BridgePortalContext.ADD_SCRIPT_RESOURCE_TO_HEAD_SUPPORT,
+			BridgePortalContext.ADD_SCRIPT_TEXT_TO_HEAD_SUPPORT,
+			BridgePortalContext.ADD_STYLE_SHEET_RESOURCE_TO_HEAD_SUPPORT,
+			BridgePortalContext.ADD_STYLE_SHEET_TEXT_TO_HEAD_SUPPORT
+		};
 
 	// Logger
 	private static final Logger logger = LoggerFactory.getLogger(HeadRendererBridgeImpl.class);
 
+	// Private Data Members
+	private volatile Cache<String, HeadResourcePlan> headResourcePlans;
+
 	@Override
 	public void encodeBegin(FacesContext facesContext, UIComponent component) throws IOException {
 		// no-op because Portlets are forbidden from rendering the <head>...</head> section.
@@ -68,61 +84,63 @@ public class HeadRendererBridgeImpl extends Renderer {
 	@Override
 	public void encodeChildren(FacesContext facesContext, UIComponent uiComponent) throws IOException {
 
-		// Build up a list of components that are intended for the <head> section of the portal page.
+		// If the <head> section was already encoded in the HEADER_PHASE of the portlet lifecycle, then the resources
+		// have already been added to the <head> section of the portal page and the list of resources that are to be
+		// rendered in the body section has been restored in the FacesContext attributes.
+		if (isHeadEncodedInHeaderPhase(facesContext)) {
+			return;
+		}
+
+		// Get the head plan of the view, which contains the cached classification of head resources that have been
+		// encountered in previous renders of the view.
 		UIViewRoot uiViewRoot = facesContext.getViewRoot();
-		List<UIComponent> headResources = new ArrayList<UIComponent>();
+		ExternalContext externalContext = facesContext.getExternalContext();
+		PortletRequest portletRequest = (PortletRequest) externalContext.getRequest();
+		PortalContext portalContext = portletRequest.getPortalContext();
+		final Product BOOTSFACES = ProductFactory.getProductInstance(externalContext, Product.Name.BOOTSFACES);
+		final boolean BOOTSFACES_DETECTED = BOOTSFACES.isDetected();
+		HeadResourcePlan headResourcePlan = getHeadResourcePlan(externalContext, uiViewRoot.getViewId(),
+				portalContext, BOOTSFACES_DETECTED);
 
-		// Add the list of components that are to appear first.
+		// Classify the head resources in a fixed order so that each resource can be found in the head plan by its
+		// position.
 		List<UIComponent> firstResources = getFirstResources(facesContext, uiComponent);
+		List<UIComponent> headComponentResources = uiViewRoot.getComponentResources(facesContext, "head");
+		List<UIComponent> children = uiComponent.getChildren();
+		List<UIComponent> middleResources = getMiddleResources(facesContext, uiComponent);
+		List<UIComponent> lastResources = getLastResources(facesContext, uiComponent);
+		int headResourceIndex = 0;
+
+		// Build up a list of components that are intended for the <head> section of the portal page.
+		List<HeadResource> headResources = new ArrayList<HeadResource>();
 
+		// Add the list of components that are to appear first.
 		if (firstResources != null) {
-			headResources.addAll(firstResources);
+
+			for (UIComponent firstResource : firstResources) {
+				headResources.add(getHeadResource(headResourcePlan, headResourceIndex++, firstResource,
+						portalContext, BOOTSFACES_DETECTED));
+			}
 		}
 
 		// Sort the components that are in the view root into stylesheets, scripts, and other.
-		List<UIComponent> headComponentResources = uiViewRoot.getComponentResources(facesContext, "head");
-		ExternalContext externalContext = facesContext.getExternalContext();
-		final Product BOOTSFACES = ProductFactory.getProductInstance(externalContext, Product.Name.BOOTSFACES);
-		final boolean BOOTSFACES_DETECTED = BOOTSFACES.isDetected();
-		List<UIComponent> styleSheetResources = new ArrayList<UIComponent>();
-		List<UIComponent> scriptResources = new ArrayList<UIComponent>();
-		List<UIComponent> otherHeadResources = new ArrayList<UIComponent>();
+		List<HeadResource> styleSheetResources = new ArrayList<HeadResource>();
+		List<HeadResource> scriptResources = new ArrayList<HeadResource>();
+		List<HeadResource> otherHeadResources = new ArrayList<HeadResource>();
 
 		for (UIComponent headComponentResource : headComponentResources) {
 
-			if (RenderKitUtil.isStyleSheetResource(headComponentResource, BOOTSFACES_DETECTED) ||
-					isInlineStyleSheet(headComponentResource)) {
-				styleSheetResources.add(headComponentResource);
-			}
-			else if (RenderKitUtil.isScriptResource(headComponentResource, BOOTSFACES_DETECTED) ||
-					isInlineScript(headComponentResource)) {
-				scriptResources.add(headComponentResource);
-			}
-			else {
-
-				// Other head resources include <base>, <meta>, and <noscript> elments as well as passthrough <link>,
-				// <style>, and <script> elements.
-				otherHeadResources.add(headComponentResource);
-			}
+			HeadResource headResource = getHeadResource(headResourcePlan, headResourceIndex++,
+					headComponentResource, portalContext, BOOTSFACES_DETECTED);
+			addHeadResource(headResource, styleSheetResources, scriptResources, otherHeadResources);
 		}
 
 		// Sort children into stylesheets, scripts, and other.
-		List<UIComponent> children = uiComponent.getChildren();
-
 		for (UIComponent child : children) {
 
-			if (RenderKitUtil.isStyleSheetResource(child, BOOTSFACES_DETECTED) || isInlineStyleSheet(child)) {
-				styleSheetResources.add(child);
-			}
-			else if (RenderKitUtil.isScriptResource(child, BOOTSFACES_DETECTED) || isInlineScript(child)) {
-				scriptResources.add(child);
-			}
-			else {
-
-				// Other head resources include <base>, <meta>, and <noscript> elments as well as passthrough <link>,
-				// <style>, and <script> elements.
-				otherHeadResources.add(child);
-			}
+			HeadResource headResource = getHeadResource(headResourcePlan, headResourceIndex++, child,
+					portalContext, BOOTSFACES_DETECTED);
+			addHeadResource(headResource, styleSheetResources, scriptResources, otherHeadResources);
 		}
 
 		if (!otherHeadResources.isEmpty()) {
@@ -135,10 +153,12 @@ public class HeadRendererBridgeImpl extends Renderer {
 		}
 
 		// Add the list of components that are to appear in the middle.
-		List<UIComponent> middleResources = getMiddleResources(facesContext, uiComponent);
-
 		if (middleResources != null) {
-			headResources.addAll(middleResources);
+
+			for (UIComponent middleResource : middleResources) {
+				headResources.add(getHeadResource(headResourcePlan, headResourceIndex++, middleResource,
+						portalContext, BOOTSFACES_DETECTED));
+			}
 		}
 
 		// Add the list of script components that are in the view root.
@@ -147,45 +167,49 @@ public class HeadRendererBridgeImpl extends Renderer {
 		}
 
 		// Add the list of components that are to appear last.
-		List<UIComponent> lastResources = getLastResources(facesContext, uiComponent);
-
 		if (lastResources != null) {
-			headResources.addAll(lastResources);
+
+			for (UIComponent lastResource : lastResources) {
+				headResources.add(getHeadResource(headResourcePlan, headResourceIndex++, lastResource,
+						portalContext, BOOTSFACES_DETECTED));
+			}
 		}
 
 		List<UIComponent> headResourcesToRenderInBody = new ArrayList<UIComponent>();
-		PortletRequest portletRequest = (PortletRequest) externalContext.getRequest();
-		PortalContext portalContext = portletRequest.getPortalContext();
-		Iterator<UIComponent> iterator = headResources.iterator();
+		Iterator<HeadResource> iterator = headResources.iterator();
 
 		while (iterator.hasNext()) {
 
-			UIComponent headResource = iterator.next();
+			HeadResource headResource = iterator.next();
 
 			// If the portlet container does not have the ability to add the resource to the <head> section of the
 			// portal page, then
-			if (!ableToAddResourceToHead(portalContext, headResource, BOOTSFACES_DETECTED)) {
+			if (headResource.getHeadResourcePlanEntry().isRenderInBody()) {
+
+				UIComponent componentResource = headResource.getComponentResource();
 
 				// Add it to the list of resources that are to be rendered in the body section by the body renderer.
-				headResourcesToRenderInBody.add(headResource);
+				headResourcesToRenderInBody.add(componentResource);
 
-				// Remove it from the list of resources that are to be rendered in the head section by this renderer.
+				// Remove it from the list of resources that are to be rendered in the head section by this
+				// renderer.
 				iterator.remove();
 
 				if (logger.isDebugEnabled()) {
 
-					Map<String, Object> componentResourceAttributes = headResource.getAttributes();
+					Map<String, Object> componentResourceAttributes = componentResource.getAttributes();
 
 					logger.debug(
 						"Relocating resource to body: name=[{0}] library=[{1}] rendererType=[{2}] value=[{3}] className=[{4}]",
 						componentResourceAttributes.get("name"), componentResourceAttributes.get("library"),
-						headResource.getRendererType(), ComponentUtil.getComponentValue(headResource),
-						headResource.getClass().getName());
+						componentResource.getRendererType(), ComponentUtil.getComponentValue(componentResource),
+						componentResource.getClass().getName());
 				}
 			}
 		}
 
-		// Save the list of resources that are to be rendered in the body section so that the body renderer can find it.
+		// Save the list of resources that are to be rendered in the body section so that the body renderer can
+		// find it.
 		Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
 		facesContextAttributes.put(RenderKitUtil.HEAD_RESOURCES_TO_RENDER_IN_BODY, headResourcesToRenderInBody);
 
@@ -212,13 +236,14 @@ public class HeadRendererBridgeImpl extends Renderer {
 
 			Set<String> headResourceIds = RenderKitUtil.getHeadResourceIds(facesContext);
 
-			for (UIComponent headResource : headResources) {
+			for (HeadResource headResource : headResources) {
+
+				headResource.getComponentResource().encodeAll(facesContext);
 
-				headResource.encodeAll(facesContext);
+				String resourceId = headResource.getHeadResourcePlanEntry().getResourceId();
 
-				if (RenderKitUtil.isScriptResource(headResource, BOOTSFACES_DETECTED) ||
-						RenderKitUtil.isStyleSheetResource(headResource, BOOTSFACES_DETECTED)) {
-					headResourceIds.add(ResourceUtil.getResourceId(headResource));
+				if (resourceId != null) {
+					headResourceIds.add(resourceId);
 				}
 			}
 
@@ -279,6 +304,36 @@ public class HeadRendererBridgeImpl extends Renderer {
 		return resources;
 	}
 
+	/**
+	 * Returns true if the &lt;head&gt; section was already encoded in the HEADER_PHASE of the portlet lifecycle, in
+	 * which case the body of the view is being streamed in the RENDER_PHASE.
+	 */
+	protected boolean isHeadEncodedInHeaderPhase(FacesContext facesContext) {
+
+		Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
+
+		return Boolean.TRUE.equals(facesContextAttributes.get(BridgeExt.HEAD_ENCODED_IN_HEADER_PHASE));
+	}
+
+	private void addHeadResource(HeadResource headResource, List<HeadResource> styleSheetResources,
+		List<HeadResource> scriptResources, List<HeadResource> otherHeadResources) {
+
+		HeadResourcePlan.Category category = headResource.getHeadResourcePlanEntry().getCategory();
+
+		if (category == HeadResourcePlan.Category.STYLE_SHEET) {
+			styleSheetResources.add(headResource);
+		}
+		else if (category == HeadResourcePlan.Category.SCRIPT) {
+			scriptResources.add(headResource);
+		}
+		else {
+
+			// Other head resources include <base>, <meta>, and <noscript> elments as well as passthrough <link>,
+			// <style>, and <script> elements.
+			otherHeadResources.add(headResource);
+		}
+	}
+
 	private boolean ableToAddResourceToHead(PortalContext portalContext, UIComponent componentResource,
 		final boolean BOOTSFACES_DETECTED) {
 
@@ -299,6 +354,86 @@ public class HeadRendererBridgeImpl extends Renderer {
 		}
 	}
 
+	private HeadResource getHeadResource(HeadResourcePlan headResourcePlan, int index, UIComponent componentResource,
+		PortalContext portalContext, final boolean BOOTSFACES_DETECTED) {
+
+		HeadResourcePlan.Entry headResourcePlanEntry = headResourcePlan.getEntry(index, componentResource);
+
+		// If a different resource was encountered at the same position in a previous render of the view (for example,
+		// if the resource was added dynamically), then classify the resource and add it to the head plan.
+		if (headResourcePlanEntry == null) {
+
+			boolean styleSheetResource = RenderKitUtil.isStyleSheetResource(componentResource, BOOTSFACES_DETECTED);
+			boolean scriptResource = RenderKitUtil.isScriptResource(componentResource, BOOTSFACES_DETECTED);
+			HeadResourcePlan.Category category;
+
+			if (styleSheetResource || isInlineStyleSheet(componentResource)) {
+				category = HeadResourcePlan.Category.STYLE_SHEET;
+			}
+			else if (scriptResource || isInlineScript(componentResource)) {
+				category = HeadResourcePlan.Category.SCRIPT;
+			}
+			else {
+				category = HeadResourcePlan.Category.OTHER;
+			}
+
+			boolean renderInBody = !ableToAddResourceToHead(portalContext, componentResource, BOOTSFACES_DETECTED);
+			String resourceId = null;
+
+			if (scriptResource || styleSheetResource) {
+				resourceId = ResourceUtil.getResourceId(componentResource);
+			}
+
+			headResourcePlanEntry = headResourcePlan.newEntry(componentResource, category, renderInBody, resourceId);
+			headResourcePlan.putEntry(index, headResourcePlanEntry);
+		}
+
+		return new HeadResource(componentResource, headResourcePlanEntry);
+	}
+
+	private HeadResourcePlan getHeadResourcePlan(ExternalContext externalContext, String viewId,
+		PortalContext portalContext, final boolean BOOTSFACES_DETECTED) {
+
+		Cache<String, HeadResourcePlan> headResourcePlans = this.headResourcePlans;
+
+		if (headResourcePlans == null) {
+
+			synchronized (this) {
+
+				headResourcePlans = this.headResourcePlans;
+
+				if (headResourcePlans == null) {
+
+					PortletContext portletContext = (PortletContext) externalContext.getContext();
+					CacheFactory cacheFactory = (CacheFactory) BridgeFactoryFinder.getFactory(portletContext,
+							CacheFactory.class);
+					headResourcePlans = cacheFactory.getConcurrentLRUCache(INITIAL_HEAD_RESOURCE_PLANS_CAPACITY,
+							MAX_HEAD_RESOURCE_PLANS_CAPACITY);
+					this.headResourcePlans = headResourcePlans;
+				}
+			}
+		}
+
+		int portalCapabilities = 0;
+
+		for (int i = 0; i < ADD_TO_HEAD_SUPPORT_PROPERTIES.length; i++) {
+
+			if (portalContext.getProperty(ADD_TO_HEAD_SUPPORT_PROPERTIES[i]) != null) {
+				portalCapabilities |= (1 << i);
+			}
+		}
+
+		String headResourcePlanKey = HeadResourcePlan.getKey(viewId, BOOTSFACES_DETECTED, portalCapabilities);
+		HeadResourcePlan headResourcePlan = headResourcePlans.getValue(headResourcePlanKey);
+
+		if (headResourcePlan == null) {
+			headResourcePlan = headResourcePlans.putValueIfAbsent(headResourcePlanKey,
+					new HeadResourcePlan(BOOTSFACES_DETECTED));
+		}
+
+		return headResourcePlan;
+	}
+
 	private boolean isInlineScript(UIComponent componentResource) {
 
 		Map<String, Object> componentResourceAttributes = componentResource.getAttributes();
@@ -329,4 +464,27 @@ public class HeadRendererBridgeImpl extends Renderer {
 				((rendererType != null) && rendererType.startsWith("com.liferay.faces.") &&
 					rendererType.endsWith(".component.outputstylesheet.OutputStylesheetRenderer")));
 	}
+
+	/**
+	 * This class pairs a head resource of the current render with its classification in the head plan of the view.
+	 */
+	private static final class HeadResource {
+
+		// Private Final Data Members
+		private final UIComponent componentResource;
+		private final HeadResourcePlan.Entry headResourcePlanEntry;
+
+		public HeadResource(UIComponent componentResource, HeadResourcePlan.Entry headResourcePlanEntry) {
+			this.componentResource = componentResource;
+			this.headResourcePlanEntry = headResourcePlanEntry;
+		}
+
+		public UIComponent getComponentResource() {
+			return componentResource;
+		}
+
+		public HeadResourcePlan.Entry getHeadResourcePlanEntry() {
+			return headResourcePlanEntry;
+		}
+	}
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.faces.context.ExternalContext;
+
+
+/**
+ * This class is a registry that interns head resource ids (for example "library:name") by mapping each one to a small
+ * integer index. It makes it possible for each view to keep track of the resources that have been added to the
+ * &lt;head&gt; section of the portal page with a compact {@link java.util.BitSet} rather than with a set of strings.
+ * There is one instance per application, which is stored as an application-scoped attribute so that it is discarded
+ * along with the application (for example, when the application is redeployed). Since the number of distinct resources
+ * in an application is bounded, entries are never removed.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class HeadResourceIdRegistry {
+
+	// Private Constants
+	private static final String ATTRIBUTE_NAME = HeadResourceIdRegistry.class.getName();
+
+	// Private Final Data Members
+	private final ConcurrentMap<String, Integer> indexes = new ConcurrentHashMap<String, Integer>();
+	private final List<String> resourceIds = new CopyOnWriteArrayList<String>();
+
+	private HeadResourceIdRegistry() {
+		// Pseudo-singleton
+	}
+
+	/**
+	 * Returns the registry of the application associated with the specified external context.
+	 */
+	/* package-private */ static HeadResourceIdRegistry getInstance(ExternalContext externalContext) {
+
+		Map<String, Object> applicationMap = externalContext.getApplicationMap();
+		HeadResourceIdRegistry headResourceIdRegistry = (HeadResourceIdRegistry) applicationMap.get(ATTRIBUTE_NAME);
+
+		if (headResourceIdRegistry == null) {
+
+			synchronized (HeadResourceIdRegistry.class) {
+
+				headResourceIdRegistry = (HeadResourceIdRegistry) applicationMap.get(ATTRIBUTE_NAME);
+
+				if (headResourceIdRegistry == null) {
+
+					headResourceIdRegistry = new HeadResourceIdRegistry();
+					applicationMap.put(ATTRIBUTE_NAME, headResourceIdRegistry);
+				}
+			}
+		}
+
+		return headResourceIdRegistry;
+	}
+
+	/**
+	 * Returns the index of the specified resource id, or -1 if the resource id has not been interned.
+	 */
+	/* package-private */ int getIndex(String resourceId) {
+
+		Integer index = indexes.get(resourceId);
+
+		if (index == null) {
+			return -1;
+		}
+
+		return index;
+	}
+
+	/* package-private */ String getResourceId(int index) {
+		return resourceIds.get(index);
+	}
+
+	/**
+	 * Returns the index of the specified resource id, interning the resource id if necessary.
+	 */
+	/* package-private */ int intern(String resourceId) {
+
+		Integer index = indexes.get(resourceId);
+
+		if (index == null) {
+
+			synchronized (resourceIds) {
+
+				index = indexes.get(resourceId);
+
+				if (index == null) {
+
+					// The resource id must be added to the list before the index is published in the map so that
+					// getResourceId(int) is always able to resolve a published index.
+					index = resourceIds.size();
+					resourceIds.add(resourceId);
+					indexes.put(resourceId, index);
+				}
+			}
+		}
+
+		return index;
+	}
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+
+/**
+ * This class is a set of head resource ids that is backed by a {@link BitSet} of indexes that are interned by the
+ * {@link HeadResourceIdRegistry} of the current application, which is obtained from the current {@link FacesContext}
+ * the first time that the set is used. Since the indexes are only meaningful within the current application, the
+ * serialized form of this class consists of the resource ids themselves, which are re-interned the first time that the
+ * set is used after deserialization (for example, after session replication). Like {@link java.util.HashSet}, this
+ * class is not thread-safe.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class HeadResourceIdSet extends AbstractSet<String> implements Serializable {
+
+	// serialVersionUID
+	private static final long serialVersionUID = 6152734938574027315L;
+
+	// Private Data Members
+	private transient List<String> deserializedResourceIds;
+	private transient HeadResourceIdRegistry headResourceIdRegistry;
+	private transient BitSet indexes = new BitSet();
+
+	@Override
+	public boolean add(String resourceId) {
+
+		if (resourceId == null) {
+			return false;
+		}
+
+		BitSet indexes = getIndexes();
+		int index = headResourceIdRegistry.intern(resourceId);
+
+		if (indexes.get(index)) {
+			return false;
+		}
+
+		indexes.set(index);
+
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		getIndexes().clear();
+	}
+
+	@Override
+	public boolean contains(Object resourceId) {
+
+		if (resourceId instanceof String) {
+
+			BitSet indexes = getIndexes();
+			int index = headResourceIdRegistry.getIndex((String) resourceId);
+
+			return (index > -1) && indexes.get(index);
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return getIndexes().isEmpty();
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new HeadResourceIdIterator();
+	}
+
+	@Override
+	public boolean remove(Object resourceId) {
+
+		if (contains(resourceId)) {
+
+			indexes.clear(headResourceIdRegistry.getIndex((String) resourceId));
+
+			return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return getIndexes().cardinality();
+	}
+
+	private BitSet getIndexes() {
+
+		if (headResourceIdRegistry == null) {
+
+			FacesContext facesContext = FacesContext.getCurrentInstance();
+			ExternalContext externalContext = facesContext.getExternalContext();
+			headResourceIdRegistry = HeadResourceIdRegistry.getInstance(externalContext);
+
+			if (deserializedResourceIds != null) {
+
+				for (String resourceId : deserializedResourceIds) {
+					indexes.set(headResourceIdRegistry.intern(resourceId));
+				}
+
+				deserializedResourceIds = null;
+			}
+		}
+
+		return indexes;
+	}
+
+	private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException {
+
+		objectInputStream.defaultReadObject();
+		indexes = new BitSet();
+
+		// Since a FacesContext might not be available during deserialization, the resource ids are interned the
+		// first time that the set is used.
+		int size = objectInputStream.readInt();
+		deserializedResourceIds = new ArrayList<String>(size);
+
+		for (int i = 0; i < size; i++) {
+			deserializedResourceIds.add((String) objectInputStream.readObject());
+		}
+	}
+
+	private void writeObject(ObjectOutputStream objectOutputStream) throws IOException {
+
+		objectOutputStream.defaultWriteObject();
+
+		// Since a FacesContext might not be available during serialization, avoid resolving the registry.
+		if (headResourceIdRegistry == null) {
+
+			List<String> resourceIds = deserializedResourceIds;
+
+			if (resourceIds == null) {
+				resourceIds = new ArrayList<String>();
+			}
+
+			objectOutputStream.writeInt(resourceIds.size());
+
+			for (String resourceId : resourceIds) {
+				objectOutputStream.writeObject(resourceId);
+			}
+		}
+		else {
+
+			objectOutputStream.writeInt(indexes.cardinality());
+
+			for (String resourceId : this) {
+				objectOutputStream.writeObject(resourceId);
+			}
+		}
+	}
+
+	private final class HeadResourceIdIterator implements Iterator<String> {
+
+		// Private Data Members
+		private int lastIndex = -1;
+		private int nextIndex = getIndexes().nextSetBit(0);
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex > -1;
+		}
+
+		@Override
+		public String next() {
+
+			if (nextIndex < 0) {
+				throw new NoSuchElementException();
+			}
+
+			lastIndex = nextIndex;
+			nextIndex = indexes.nextSetBit(nextIndex + 1);
+
+			return headResourceIdRegistry.getResourceId(lastIndex);
+		}
+
+		@Override
+		public void remove() {
+
+			if (lastIndex < 0) {
+				throw new IllegalStateException();
+			}
+
+			indexes.clear(lastIndex);
+			lastIndex = -1;
+		}
+	}
+}
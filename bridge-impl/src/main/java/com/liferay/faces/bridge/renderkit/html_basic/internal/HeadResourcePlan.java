@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.faces.component.UIComponent;
+
+
+/**
+ * This class represents the "head plan" of a view, meaning the classification of each head resource (stylesheet,
+ * script, or other) along with whether or not the resource must be relocated to the body section of the portlet. Since
+ * the classification of a resource only depends on the attributes of the resource, the capabilities of the portal, and
+ * the presence of BootsFaces, entries can be replayed across renders of the same view. Entries are stored by the
+ * position of the resource in the view and are only replayed if the resource at that position has the same class, id,
+ * renderer type, name, and library (and the same url in the case of BootsFaces resources without a name) as the
+ * resource that was classified. This makes it possible to find the entry of a resource without building a key for it.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class HeadResourcePlan {
+
+	// Private Final Data Members
+	private final boolean bootsFacesDetected;
+
+	// Private Data Members
+	private volatile Entry[] entries;
+
+	/* package-private */ HeadResourcePlan(boolean bootsFacesDetected) {
+		this.bootsFacesDetected = bootsFacesDetected;
+		this.entries = new Entry[0];
+	}
+
+	/* package-private */ static String getKey(String viewId, boolean bootsFacesDetected, int portalCapabilities) {
+		return viewId + "|" + bootsFacesDetected + "|" + portalCapabilities;
+	}
+
+	/**
+	 * Returns the entry for the specified head resource at the specified position, or <code>null</code> if a different
+	 * resource (or no resource) was classified at that position in a previous render of the view.
+	 */
+	/* package-private */ Entry getEntry(int index, UIComponent headResource) {
+
+		Entry[] entries = this.entries;
+
+		if (index < entries.length) {
+
+			Entry entry = entries[index];
+
+			if ((entry != null) && entry.matches(headResource, bootsFacesDetected)) {
+				return entry;
+			}
+		}
+
+		return null;
+	}
+
+	/* package-private */ Entry newEntry(UIComponent headResource, Category category, boolean renderInBody,
+		String resourceId) {
+		return new Entry(headResource, bootsFacesDetected, category, renderInBody, resourceId);
+	}
+
+	/* package-private */ synchronized void putEntry(int index, Entry entry) {
+
+		// Copy the entries (rather than modifying them in place) so that readers never observe a partially written
+		// array.
+		Entry[] entries;
+
+		if (index < this.entries.length) {
+			entries = this.entries.clone();
+		}
+		else {
+			entries = Arrays.copyOf(this.entries, index + 1);
+		}
+
+		entries[index] = entry;
+		this.entries = entries;
+	}
+
+	private static boolean equals(Object object1, Object object2) {
+		return (object1 == null) ? (object2 == null) : object1.equals(object2);
+	}
+
+	/* package-private */ enum Category {
+		OTHER, SCRIPT, STYLE_SHEET
+	}
+
+	/* package-private */ static final class Entry {
+
+		// Private Final Data Members
+		private final Category category;
+		private final Class<?> componentClass;
+		private final String id;
+		private final String library;
+		private final String name;
+		private final boolean renderInBody;
+		private final String rendererType;
+		private final String resourceId;
+		private final Object url;
+
+		private Entry(UIComponent headResource, boolean bootsFacesDetected, Category category, boolean renderInBody,
+			String resourceId) {
+
+			Map<String, Object> attributes = headResource.getAttributes();
+			this.componentClass = headResource.getClass();
+			this.id = headResource.getId();
+			this.rendererType = headResource.getRendererType();
+			this.name = (String) attributes.get("name");
+			this.library = (String) attributes.get("library");
+
+			// BootsFaces resources without a name are classified according to their URL.
+			if ((name == null) && bootsFacesDetected) {
+				this.url = attributes.get("url");
+			}
+			else {
+				this.url = null;
+			}
+
+			this.category = category;
+			this.renderInBody = renderInBody;
+			this.resourceId = resourceId;
+		}
+
+		/* package-private */ Category getCategory() {
+			return category;
+		}
+
+		/**
+		 * Returns the resource id of the script or stylesheet resource, or <code>null</code> if the head resource is
+		 * not a script or stylesheet resource.
+		 */
+		/* package-private */ String getResourceId() {
+			return resourceId;
+		}
+
+		/* package-private */ boolean isRenderInBody() {
+			return renderInBody;
+		}
+
+		private boolean matches(UIComponent headResource, boolean bootsFacesDetected) {
+
+			if ((componentClass != headResource.getClass()) || !HeadResourcePlan.equals(id, headResource.getId()) ||
+					!HeadResourcePlan.equals(rendererType, headResource.getRendererType())) {
+				return false;
+			}
+
+			Map<String, Object> attributes = headResource.getAttributes();
+			Object name = attributes.get("name");
+
+			if (!HeadResourcePlan.equals(this.name, name) ||
+					!HeadResourcePlan.equals(library, attributes.get("library"))) {
+				return false;
+			}
+
+			// Otherwise, if the resource is a BootsFaces resource without a name, then compare the url.
+			else if ((name == null) && bootsFacesDetected) {
+				return HeadResourcePlan.equals(url, attributes.get("url"));
+			}
+
+			// Otherwise, the resource is the same resource that was classified.
+			else {
+				return true;
+			}
+		}
+	}
+}
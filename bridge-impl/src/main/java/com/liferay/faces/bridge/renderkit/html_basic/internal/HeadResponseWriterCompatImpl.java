@@ -125,26 +125,55 @@ public class HeadResponseWriterCompatImpl extends HeadResponseWriterBase {
 		}
 	}
 
+	/**
+	 * Adds the specified markup as a dependency of the portal page.
+	 */
+	protected void addDependency(String name, String scope, String version, String markup) {
+		headerResponse.addDependency(name, scope, version, markup);
+	}
+
 	@Override
 	protected Node createElement(String nodeName) {
 		return new ElementImpl(nodeName, getCurrentNode());
 	}
 
+	protected boolean isBootsFacesDetected() {
+		return bootsFacesDetectedAccessor.get(null);
+	}
+
 	@Override
 	protected void writeNodeToHeadSection(Node node, UIComponent componentResource) throws IOException {
 
+		if (isElement(node)) {
+			writeToHeadSection(XMLUtil.elementToString(node, true), componentResource, (Element) node);
+		}
+		else {
+			writeToHeadSection(XMLUtil.nodeToString(node), componentResource, null);
+		}
+	}
+
+	/**
+	 * Adds the specified markup of a direct descendant of the &lt;head&gt; element as a dependency of the portal page.
+	 * If the specified component resource is a script or stylesheet resource, then the dependency is identified by the
+	 * name, library, and version of the resource. Otherwise, a unique name is generated for the dependency.
+	 *
+	 * @param  markup             The markup of the direct descendant of the &lt;head&gt; element.
+	 * @param  componentResource  The component resource that rendered the markup, or null.
+	 * @param  element            The element that was rendered, or null if it is not available.
+	 */
+	protected void writeToHeadSection(String markup, UIComponent componentResource, Element element)
+		throws IOException {
+
 		String name = null;
 		String scope = null;
 		String version = null;
-		String nodeString;
 
-		if (isElement(node)) {
+		if (componentResource != null) {
 
-			Element element = (Element) node;
+			boolean bootsFacesDetected = isBootsFacesDetected();
 
-			if ((componentResource != null) &&
-					(RenderKitUtil.isScriptResource(componentResource, bootsFacesDetectedAccessor.get(null)) ||
-						RenderKitUtil.isStyleSheetResource(componentResource, bootsFacesDetectedAccessor.get(null)))) {
+			if (RenderKitUtil.isScriptResource(componentResource, bootsFacesDetected) ||
+					RenderKitUtil.isStyleSheetResource(componentResource, bootsFacesDetected)) {
 
 				Map<String, Object> attributes = componentResource.getAttributes();
 				name = (String) attributes.get("name");
@@ -156,7 +185,7 @@ public class HeadResponseWriterCompatImpl extends HeadResponseWriterBase {
 				// TODO add option to configure this boolean on a portlet wide basis.
 				boolean obtainComponentResourceVersionFromURL = false;
 
-				if ((version == null) && obtainComponentResourceVersionFromURL) {
+				if ((version == null) && obtainComponentResourceVersionFromURL && (element != null)) {
 
 					String url = element.getAttribute("src");
 
@@ -188,23 +217,19 @@ public class HeadResponseWriterCompatImpl extends HeadResponseWriterBase {
 					}
 				}
 			}
-
-			nodeString = XMLUtil.elementToString(node, true);
-		}
-		else {
-			nodeString = XMLUtil.nodeToString(node);
 		}
 
 		if (name == null) {
 
 			// Generate a unique id for each element that is not a JSF resource.
-			name = Integer.toString(node.hashCode()) + Integer.toString(headerResponse.hashCode());
+			name = Integer.toString(System.identityHashCode(markup)) +
+				Integer.toString(System.identityHashCode(headerResponse));
 		}
 
-		headerResponse.addDependency(name, scope, version, nodeString);
+		addDependency(name, scope, version, markup);
 
 		if (logger.isDebugEnabled()) {
-			logger.debug("Added resource to Liferay's <head>...</head> section, node=[{0}]", getNodeInfo(node));
+			logger.debug("Added resource to Liferay's <head>...</head> section, markup=[{0}]", markup);
 		}
 	}
 
@@ -37,7 +37,7 @@ public class HeadResponseWriterFactoryImpl extends HeadResponseWriterFactory imp
 
 		HeaderResponse headerResponse = (HeaderResponse) portletResponse;
 
-		return new HeadResponseWriterCompatImpl(responseWriter, headerResponse);
+		return new HeadResponseWriterStreamingImpl(responseWriter, headerResponse);
 	}
 
 	@Override
@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.faces.component.UIComponent;
+import javax.faces.context.ResponseWriter;
+import javax.portlet.HeaderResponse;
+
+import com.liferay.faces.bridge.util.internal.XMLUtil;
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+
+
+/**
+ * Custom {@link ResponseWriter} that has the ability to write to the &lt;head&gt;...&lt;/head&gt; section of the portal
+ * page. Rather than building a DOM for each element like {@link HeadResponseWriterCompatImpl}, this implementation
+ * streams the markup of each direct descendant of the &lt;head&gt; element into a reusable {@link StringBuilder} and
+ * produces the same markup as {@link XMLUtil#elementToString(org.w3c.dom.Node, boolean)}. The only difference is that
+ * an attribute that is written again after the children of an element have been written is appended rather than
+ * replaced. Every method that would build the DOM is overridden, and the markup is added to the portal page via {@link
+ * HeadResponseWriterCompatImpl#writeToHeadSection(String, UIComponent, org.w3c.dom.Element)} so that dependencies are
+ * identified in the same way by both implementations.
+ *
+ * @author  Neil Griffin
+ */
+public class HeadResponseWriterStreamingImpl extends HeadResponseWriterCompatImpl {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(HeadResponseWriterStreamingImpl.class);
+
+	// Private Constants
+	private static final String CDATA_END = "]]>";
+	private static final String CDATA_START = "<![CDATA[";
+
+	// Private Final Data Members
+	private final List<String> attributeNames;
+	private final List<String> attributeValues;
+	private final StringBuilder buf;
+
+	// Private Data Members
+	private boolean cdata;
+	private UIComponent componentResource;
+	private int depth;
+	private String[] elementNames;
+	private int linkDepth;
+	private int[] startTagEnds;
+	private boolean startTagOpen;
+	private boolean titleElement;
+
+	public HeadResponseWriterStreamingImpl(ResponseWriter wrappedResponseWriter, HeaderResponse headerResponse) {
+
+		super(wrappedResponseWriter, headerResponse);
+		this.attributeNames = new ArrayList<String>();
+		this.attributeValues = new ArrayList<String>();
+		this.buf = new StringBuilder(256);
+		this.elementNames = new String[8];
+		this.startTagEnds = new int[8];
+	}
+
+	@Override
+	public Writer append(CharSequence csq) throws IOException {
+
+		if (csq != null) {
+
+			String text = csq.toString();
+
+			if (CDATA_START.equalsIgnoreCase(text)) {
+				startCDATA();
+			}
+			else if (CDATA_END.equalsIgnoreCase(text)) {
+				endCDATA();
+			}
+			else if (cdata || (depth > 0)) {
+				appendContent(text);
+			}
+			else {
+				writeToHeadSection(text, null, null);
+			}
+		}
+
+		return this;
+	}
+
+	@Override
+	public void endCDATA() throws IOException {
+
+		if (!cdata) {
+			throw new IllegalArgumentException("ResponseWriter.endCDATA() called before startCDATA().");
+		}
+
+		cdata = false;
+
+		if (depth == 0) {
+
+			buf.append(CDATA_END);
+			writeToHeadSection(buf.toString(), null, null);
+			buf.setLength(0);
+		}
+		else if (linkDepth == 0) {
+			buf.append(CDATA_END);
+		}
+	}
+
+	@Override
+	public void endElement(String name) throws IOException {
+
+		if ("head".equals(name)) {
+			// no-op
+		}
+		else if ("title".equals(name)) {
+			titleElement = false;
+		}
+		else {
+
+			if (depth == 0) {
+				throw new IllegalStateException("ResponseWriter.endElement(\"" + name +
+					"\") called before startElement(\"" + name + "\", uiComponent)");
+			}
+
+			if (cdata) {
+				throw new IllegalStateException(
+					"ResponseWriter.endElement() called, but current node is not an element.");
+			}
+
+			closeStartTag();
+
+			String elementName = elementNames[--depth];
+			elementNames[depth] = null;
+
+			if ((depth == 0) && !name.equals(elementName)) {
+				throw new IllegalStateException("Current element node name [\"" + elementName +
+					"\"] does not match name passed to endElement() [\"" + name + "\"].");
+			}
+
+			// Since the children of a <link> element are not rendered, the <link> element has no end tag.
+			if (linkDepth == (depth + 1)) {
+				linkDepth = 0;
+			}
+			else if (linkDepth == 0) {
+				buf.append("</").append(elementName).append(">");
+			}
+
+			if (depth == 0) {
+
+				writeToHeadSection(buf.toString(), componentResource, null);
+				buf.setLength(0);
+				componentResource = null;
+			}
+		}
+	}
+
+	@Override
+	public void startCDATA() throws IOException {
+
+		if (cdata) {
+			throw new IllegalStateException("CDATA cannot be nested.");
+		}
+
+		cdata = true;
+
+		if (depth == 0) {
+			buf.setLength(0);
+			buf.append(CDATA_START);
+		}
+		else if (linkDepth == 0) {
+			closeStartTag();
+			buf.append(CDATA_START);
+		}
+	}
+
+	@Override
+	public void startElement(String name, UIComponent uiComponent) throws IOException {
+
+		if ("head".equals(name)) {
+			// no-op
+		}
+		else if ("title".equals(name)) {
+
+			logger.warn(
+				"Title removed because multiple <title> elements are invalid and the portlet container controls the <title>.");
+			titleElement = true;
+		}
+		else {
+
+			if (cdata) {
+				throw new IllegalStateException(
+					"ResponseWriter.startElement() called, but parent node is not an element.");
+			}
+
+			if (depth == 0) {
+				buf.setLength(0);
+				componentResource = uiComponent;
+			}
+			else {
+				closeStartTag();
+			}
+
+			if (depth == elementNames.length) {
+				elementNames = Arrays.copyOf(elementNames, depth * 2);
+				startTagEnds = Arrays.copyOf(startTagEnds, depth * 2);
+			}
+
+			elementNames[depth++] = name;
+
+			// Since the children of a <link> element are not rendered, only write the element if it is not a
+			// descendant of a <link> element.
+			if (linkDepth == 0) {
+
+				buf.append("<").append(name);
+				startTagOpen = true;
+
+				if ("link".equals(name)) {
+					linkDepth = depth;
+				}
+			}
+
+			logger.trace("PUSHED element name=[{0}]", name);
+		}
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+
+		// Interpret len as the number of characters (rather than as an end index) as required by Writer.
+		write(String.valueOf(cbuf, off, len));
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		write(str.substring(off, off + len));
+	}
+
+	@Override
+	public void writeAttribute(String name, Object value, String property) throws IOException {
+
+		if ((depth == 0) || cdata) {
+			throw new IllegalStateException("ResponseWriter.writeAttribute() called before startElement().");
+		}
+
+		String attributeValue = null;
+
+		if (value != null) {
+			attributeValue = value.toString();
+		}
+
+		if (startTagOpen) {
+
+			// If the attribute has already been written, then replace the value in order to preserve the order of the
+			// attributes.
+			int index = attributeNames.indexOf(name);
+
+			if (index >= 0) {
+				attributeValues.set(index, attributeValue);
+			}
+			else {
+				attributeNames.add(name);
+				attributeValues.add(attributeValue);
+			}
+		}
+
+		// Otherwise, if the children of the element have already been written, then insert the attribute at the end
+		// of the start tag.
+		else if ((linkDepth == 0) || (linkDepth == depth)) {
+
+			StringBuilder attribute = new StringBuilder();
+			appendAttribute(attribute, name, attributeValue);
+
+			int startTagEnd = startTagEnds[depth - 1];
+			buf.insert(startTagEnd, attribute);
+			startTagEnds[depth - 1] = startTagEnd + attribute.length();
+		}
+	}
+
+	@Override
+	public void writeComment(Object comment) throws IOException {
+
+		if (comment != null) {
+
+			String text = XMLUtil.escapeXML(comment.toString());
+
+			if (cdata) {
+
+				// The text content of a comment is rendered without the comment delimiters inside of CDATA.
+				appendContent(text);
+			}
+			else if (depth > 0) {
+				appendContent("<!--" + text + "-->");
+			}
+			else {
+				writeToHeadSection("<!--" + text + "-->", null, null);
+			}
+		}
+	}
+
+	@Override
+	public void writeText(Object text, String property) throws IOException {
+
+		if ((text != null) && !titleElement) {
+
+			String string = text.toString();
+
+			if (isEscapeTextXML()) {
+				string = XMLUtil.escapeXML(string);
+			}
+
+			write(string);
+		}
+	}
+
+	@Override
+	public void writeText(char[] textArray, int off, int len) throws IOException {
+
+		if (textArray != null) {
+			writeText(String.valueOf(textArray, off, len), null);
+		}
+	}
+
+	private void appendAttribute(StringBuilder sb, String name, String value) {
+
+		sb.append(" ");
+		sb.append(name);
+		sb.append("=\"");
+
+		if (value != null) {
+			sb.append(XMLUtil.escapeXML(value));
+		}
+
+		sb.append("\"");
+	}
+
+	private void appendContent(String text) {
+
+		if (linkDepth == 0) {
+			closeStartTag();
+			buf.append(text);
+		}
+	}
+
+	private void closeStartTag() {
+
+		if (startTagOpen) {
+
+			int totalAttributes = attributeNames.size();
+
+			for (int i = 0; i < totalAttributes; i++) {
+				appendAttribute(buf, attributeNames.get(i), attributeValues.get(i));
+			}
+
+			attributeNames.clear();
+			attributeValues.clear();
+			startTagEnds[depth - 1] = buf.length();
+			buf.append(">");
+			startTagOpen = false;
+		}
+	}
+
+	private boolean isEscapeTextXML() {
+
+		boolean escapeTextXML = !cdata;
+
+		if (escapeTextXML && (depth > 0)) {
+
+			String elementName = elementNames[depth - 1];
+			escapeTextXML = !("script".equalsIgnoreCase(elementName) || "style".equalsIgnoreCase(elementName));
+		}
+
+		return escapeTextXML;
+	}
+}
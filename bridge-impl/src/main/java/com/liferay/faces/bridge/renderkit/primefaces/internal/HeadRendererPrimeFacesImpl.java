@@ -31,12 +31,16 @@ import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 import javax.faces.render.Renderer;
+import javax.portlet.PortletContext;
+import javax.portlet.faces.BridgeFactoryFinder;
 
 import com.liferay.faces.bridge.component.internal.ResourceComponent;
 import com.liferay.faces.bridge.renderkit.html_basic.internal.HeadRendererBridgeImpl;
 import com.liferay.faces.bridge.renderkit.html_basic.internal.InlineScript;
 import com.liferay.faces.bridge.util.internal.TCCLUtil;
 import com.liferay.faces.bridge.util.internal.URLUtil;
+import com.liferay.faces.util.cache.Cache;
+import com.liferay.faces.util.cache.CacheFactory;
 import com.liferay.faces.util.lang.ThreadSafeAccessor;
 import com.liferay.faces.util.logging.Logger;
 import com.liferay.faces.util.logging.LoggerFactory;
@@ -54,8 +58,14 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 	private static final Logger logger = LoggerFactory.getLogger(HeadRendererPrimeFacesImpl.class);
 
 	// Private Constants
+	private static final int INITIAL_PRIMEFACES_HEAD_CAPTURES_CAPACITY = 16;
+	private static final int MAX_PRIMEFACES_HEAD_CAPTURES_CAPACITY = 256;
 	private static final String MOBILE_COMPONENT_RESOURCES_KEY = HeadRendererPrimeFacesImpl.class.getName() +
 		"_mobileComponentResources";
+	private static final String PRIMEFACES_CLIENT_SIDE_VALIDATION = "primefaces.CLIENT_SIDE_VALIDATION";
+	private static final String PRIMEFACES_CSP = "primefaces.CSP";
+	private static final String PRIMEFACES_FONT_AWESOME = "primefaces.FONT_AWESOME";
+	private static final String PRIMEFACES_THEME = "primefaces.THEME";
 	private static final String PRIMEFACES_THEME_PREFIX = "primefaces-";
 	private static final String PRIMEFACES_THEME_RESOURCE_NAME = "theme.css";
 
@@ -64,9 +74,71 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 	private final PrimeFacesMobileHeadRendererAccessor primeFacesMobileHeadRendererAccessor =
 		new PrimeFacesMobileHeadRendererAccessor();
 
+	// Private Data Members
+	private volatile Cache<String, PrimeFacesHeadCapture> primeFacesHeadCaptures;
+
 	@Override
 	public void encodeBegin(FacesContext facesContext, UIComponent uiComponent) throws IOException {
 
+		// If the <head> section was already encoded in the HEADER_PHASE of the portlet lifecycle, then the resources
+		// that the PrimeFaces HeadRenderer wants to add to the head section have already been added to the view root.
+		if (!isHeadEncodedInHeaderPhase(facesContext)) {
+			addPrimeFacesHeadResources(facesContext, uiComponent);
+		}
+
+		// Delegate rendering to the superclass so that it can write resources found in the view root to the head
+		// section of the portal page.
+		super.encodeBegin(facesContext, uiComponent);
+	}
+
+	@Override
+	protected List<UIComponent> getFirstResources(FacesContext facesContext, UIComponent uiComponent) {
+
+		List<UIComponent> firstResources = super.getFirstResources(facesContext, uiComponent);
+
+		if (firstResources == null) {
+			firstResources = new ArrayList<UIComponent>();
+		}
+
+		Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
+		ResourceComponent primefacesThemeResource = (ResourceComponent) facesContextAttributes.remove(
+				"primefacesTheme");
+
+		if (primefacesThemeResource != null) {
+			firstResources.add(primefacesThemeResource);
+		}
+
+		return firstResources;
+	}
+
+	@Override
+	protected List<UIComponent> getMiddleResources(FacesContext facesContext, UIComponent uiComponent) {
+
+		List<UIComponent> middleResources = super.getMiddleResources(facesContext, uiComponent);
+
+		if (isMobile(facesContext)) {
+
+			if (middleResources == null) {
+				middleResources = new ArrayList<UIComponent>();
+			}
+
+			Map<Object, Object> attributes = facesContext.getAttributes();
+			@SuppressWarnings(value = { "unchecked" })
+			List<UIComponent> mobileComponentResources = (List<UIComponent>) attributes.remove(
+					MOBILE_COMPONENT_RESOURCES_KEY);
+
+			// Add mobile resources to the list of middle resources so that they are rendered before other scripts. For
+			// more information, see HeadRendererBridgeImpl.encodeChildren(),
+			// http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html, and
+			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
+			middleResources.addAll(mobileComponentResources);
+		}
+
+		return middleResources;
+	}
+
+	private void addPrimeFacesHeadResources(FacesContext facesContext, UIComponent uiComponent) throws IOException {
+
 		UIViewRoot originalUIViewRoot = facesContext.getViewRoot();
 
 		if (isMobile(facesContext)) {
@@ -97,9 +169,127 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 			}
 		}
 
+		// Get the resources that the PrimeFaces HeadRenderer wants to add to the head section. If possible, the
+		// resources will have been captured during a previous request.
+		PrimeFacesHeadCapture primeFacesHeadCapture = getPrimeFacesHeadCapture(facesContext, uiComponent);
+		List<UIComponent> capturedResources = new ArrayList<UIComponent>();
+		List<UIComponent> capturedMobileResources = new ArrayList<UIComponent>();
+
+		for (PrimeFacesHeadCapture.CapturedResource capturedResource : primeFacesHeadCapture.getCapturedResources()) {
+
+			UIComponent resource = capturedResource.getComponent();
+
+			// If the captured resource is described by name/library, then create the corresponding JSF2 resource.
+			if (resource == null) {
+
+				String resourceName = capturedResource.getResourceName();
+				String libraryName = capturedResource.getLibraryName();
+				Application application = facesContext.getApplication();
+				resource = application.createComponent(UIOutput.COMPONENT_TYPE);
+				resource.setRendererType(capturedResource.getRendererType());
+				resource.setTransient(true);
+				resource.getAttributes().put("name", resourceName);
+				resource.getAttributes().put("library", libraryName);
+				resource.getAttributes().put("target", "head");
+
+				if (capturedResource.isExternal() && isMobile(facesContext)) {
+
+					if (isMobileComponentResource(resourceName, libraryName)) {
+						capturedMobileResources.add(resource);
+					}
+					else {
+
+						if (isComponentResourceSuppressedWhenMobile(resourceName, libraryName)) {
+							resource.setRendered(false);
+						}
+
+						capturedResources.add(resource);
+					}
+				}
+				else {
+					capturedResources.add(resource);
+				}
+			}
+			else {
+				capturedResources.add(resource);
+			}
+		}
+
+		String themeResourceName = primeFacesHeadCapture.getThemeResourceName();
+
+		if (themeResourceName != null) {
+
+			ExternalContext externalContext = facesContext.getExternalContext();
+			ResourceComponent primefacesThemeResource = new ResourceComponent(facesContext, themeResourceName,
+					primeFacesHeadCapture.getThemeLibraryName(), externalContext.encodeNamespace(""));
+			Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
+			facesContextAttributes.put("primefacesTheme", primefacesThemeResource);
+		}
+
+		// Add each component resources that was captured to the real view root so that they will be rendered by the
+		// superclass.
+		for (UIComponent componentResource : capturedResources) {
+			originalUIViewRoot.addComponentResource(facesContext, componentResource, "head");
+		}
+
+		// FACES-2061: If the PrimeFaces HeadRenderer attempted to render an inline script (as is the case when
+		// PrimeFaces client side validation is activated) then add a component that can render the script to the view
+		// root.
+		List<InlineScript> inlineScripts = new ArrayList<InlineScript>();
+
+		for (String inlineScript : primeFacesHeadCapture.getInlineScripts()) {
+			inlineScripts.add(new InlineScript(inlineScript, "primefaces"));
+		}
+
+		if (!inlineScripts.isEmpty()) {
+
+			// If the PrimeFaces Mobile HeadRenderer is being used, the first inline script in the <head> section must
+			// be rendered after jQuery.js is rendered/loaded and before other mobile resources. For more information,
+			// see http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html and
+			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
+			if (isMobile(facesContext)) {
+
+				InlineScript mobileInlineScript = inlineScripts.remove(0);
+				ListIterator<UIComponent> listIterator = capturedMobileResources.listIterator();
+
+				while (listIterator.hasNext()) {
+
+					UIComponent mobileComponentResource = listIterator.next();
+					Map<String, Object> attributes = mobileComponentResource.getAttributes();
+					String name = (String) attributes.get("name");
+
+					if (name.equals("jquery/jquery.js")) {
+
+						listIterator.add(mobileInlineScript);
+
+						break;
+					}
+				}
+			}
+
+			for (InlineScript primeFacesInlineScript : inlineScripts) {
+				originalUIViewRoot.addComponentResource(facesContext, primeFacesInlineScript, "head");
+			}
+		}
+
+		if (isMobile(facesContext)) {
+
+			// Save captured mobile resources so that they can be rendered in as middle resources before other scripts.
+			// For more information, see HeadRendererBridgeImpl.encodeChildren(),
+			// http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html, and
+			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
+			Map<Object, Object> attributes = facesContext.getAttributes();
+			attributes.put(MOBILE_COMPONENT_RESOURCES_KEY, capturedMobileResources);
+		}
+	}
+
+	private PrimeFacesHeadCapture capturePrimeFacesHead(FacesContext facesContext, UIComponent uiComponent)
+		throws IOException {
+
 		// Invoke the PrimeFaces HeadRenderer so that it has the opportunity to add css and/or script resources to the
 		// view root. However, the PrimeFaces HeadRenderer must be captured (and thus prevented from actually rendering
 		// any resources) so that they can instead be rendered by the superclass.
+		UIViewRoot originalUIViewRoot = facesContext.getViewRoot();
 		FacesContext primeFacesContext = new FacesContextPrimeFacesHeadImpl(facesContext);
 		ResponseWriter origResponseWriter = primeFacesContext.getResponseWriter();
 		PrimeFacesHeadResponseWriter primeFacesHeadResponseWriter = new PrimeFacesHeadResponseWriter();
@@ -113,9 +303,30 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 		primeFacesContext.setViewRoot(originalUIViewRoot);
 		primeFacesContext.setResponseWriter(origResponseWriter);
 
-		// Get the list of captured resources.
-		List<UIComponent> capturedResources = resourceCapturingUIViewRoot.getCapturedComponentResources("head");
-		List<UIComponent> capturedMobileResources = new ArrayList<UIComponent>();
+		// Get the list of captured resources. Resources that are described only by name/library are recorded as such
+		// so that they can be re-created in subsequent requests.
+		List<PrimeFacesHeadCapture.CapturedResource> capturedResources =
+			new ArrayList<PrimeFacesHeadCapture.CapturedResource>();
+
+		for (UIComponent capturedComponentResource :
+			resourceCapturingUIViewRoot.getCapturedComponentResources("head")) {
+
+			Map<String, Object> attributes = capturedComponentResource.getAttributes();
+			String resourceName = (String) attributes.get("name");
+
+			if ((capturedComponentResource instanceof UIOutput) && (resourceName != null) &&
+					capturedComponentResource.isRendered() && (capturedComponentResource.getChildCount() == 0)) {
+
+				capturedResources.add(new PrimeFacesHeadCapture.CapturedResource(resourceName,
+						(String) attributes.get("library"), capturedComponentResource.getRendererType(), false));
+			}
+			else {
+				capturedResources.add(new PrimeFacesHeadCapture.CapturedResource(capturedComponentResource));
+			}
+		}
+
+		String themeResourceName = null;
+		String themeLibraryName = null;
 
 		// The PrimeFaces 5.1+ HeadRenderer properly adds resources like "validation/validation.js" to the view root,
 		// which makes it possible to easily capture the resources that it wants to add to the head. However, the
@@ -183,153 +394,114 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 					}
 				}
 
-				// If the "javax.faces.resource" and "ln" parameters were found, then create the corresponding JSF2
-				// resource and add it to the view root.
+				// If the "javax.faces.resource" and "ln" parameters were found, then record the name/library of the
+				// corresponding JSF2 resource.
 				if ((resourceName != null) && (libraryName != null)) {
 
 					if (resourceName.equals(PRIMEFACES_THEME_RESOURCE_NAME) &&
 							libraryName.startsWith(PRIMEFACES_THEME_PREFIX)) {
 
-						ResourceComponent primefacesThemeResource = new ResourceComponent(facesContext, resourceName,
-								libraryName, externalContext.encodeNamespace(""));
-						Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
-						facesContextAttributes.put("primefacesTheme", primefacesThemeResource);
+						themeResourceName = resourceName;
+						themeLibraryName = libraryName;
 					}
 					else {
 
 						Application application = facesContext.getApplication();
 						ResourceHandler resourceHandler = application.getResourceHandler();
-						UIComponent resource = application.createComponent(UIOutput.COMPONENT_TYPE);
 						String rendererType = resourceHandler.getRendererTypeForResourceName(resourceName);
-						resource.setRendererType(rendererType);
-						resource.setTransient(true);
-						resource.getAttributes().put("name", resourceName);
-						resource.getAttributes().put("library", libraryName);
-						resource.getAttributes().put("target", "head");
-
-						if (isMobile(facesContext)) {
-
-							if (isMobileComponentResource(resourceName, libraryName)) {
-								capturedMobileResources.add(resource);
-							}
-							else {
-
-								if (isComponentResourceSuppressedWhenMobile(resourceName, libraryName)) {
-									resource.setRendered(false);
-								}
-
-								capturedResources.add(resource);
-							}
-						}
-						else {
-							capturedResources.add(resource);
-						}
+						capturedResources.add(new PrimeFacesHeadCapture.CapturedResource(resourceName, libraryName,
+								rendererType, true));
 					}
 				}
 			}
 		}
 
-		// Add each component resources that was captured to the real view root so that they will be rendered by the
-		// superclass.
-		for (UIComponent componentResource : capturedResources) {
-			originalUIViewRoot.addComponentResource(facesContext, componentResource, "head");
-		}
+		return new PrimeFacesHeadCapture(capturedResources, themeResourceName, themeLibraryName,
+				primeFacesHeadResponseWriter.getInlineScripts());
+	}
 
-		// FACES-2061: If the PrimeFaces HeadRenderer attempted to render an inline script (as is the case when
-		// PrimeFaces client side validation is activated) then add a component that can render the script to the view
-		// root.
-		List<InlineScript> inlineScripts = primeFacesHeadResponseWriter.getInlineScripts();
+	/**
+	 * Returns the key of the cached {@link PrimeFacesHeadCapture}, or <code>null</code> if the resources captured from
+	 * the PrimeFaces HeadRenderer must not be cached. Since the theme may be specified as an EL expression (for
+	 * example, in order to let each user select a theme), the key includes the value of the theme so that a capture is
+	 * cached for each theme. The number of cached captures is bounded by the LRU cache.
+	 */
+	private String getPrimeFacesHeadCaptureKey(FacesContext facesContext, UIComponent uiComponent) {
 
-		if (!inlineScripts.isEmpty()) {
+		ExternalContext externalContext = facesContext.getExternalContext();
 
-			// If the PrimeFaces Mobile HeadRenderer is being used, the first inline script in the <head> section must
-			// be rendered after jQuery.js is rendered/loaded and before other mobile resources. For more information,
-			// see http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html and
-			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
-			if (isMobile(facesContext)) {
+		// If the h:head component has facets, then the PrimeFaces HeadRenderer encodes them and they might render
+		// different markup in each request. Likewise, a Content Security Policy nonce is different in each request.
+		if ((uiComponent.getFacetCount() > 0) ||
+				"true".equalsIgnoreCase(externalContext.getInitParameter(PRIMEFACES_CSP))) {
+			return null;
+		}
 
-				InlineScript mobileInlineScript = inlineScripts.remove(0);
-				ListIterator<UIComponent> listIterator = capturedMobileResources.listIterator();
+		UIViewRoot uiViewRoot = facesContext.getViewRoot();
+		StringBuilder buf = new StringBuilder();
+		buf.append(isMobile(facesContext));
+		buf.append("|");
+		buf.append(uiViewRoot.getViewId());
+		buf.append("|");
+		buf.append(uiViewRoot.getLocale());
+		buf.append("|");
+		buf.append(externalContext.encodeNamespace(""));
+		buf.append("|");
+		buf.append(externalContext.getInitParameter(PRIMEFACES_CLIENT_SIDE_VALIDATION));
+		buf.append("|");
+		buf.append(externalContext.getInitParameter(PRIMEFACES_FONT_AWESOME));
+		buf.append("|");
+		buf.append(getPrimeFacesTheme(facesContext));
+
+		return buf.toString();
+	}
 
-				while (listIterator.hasNext()) {
+	private PrimeFacesHeadCapture getPrimeFacesHeadCapture(FacesContext facesContext, UIComponent uiComponent)
+		throws IOException {
 
-					UIComponent mobileComponentResource = listIterator.next();
-					Map<String, Object> attributes = mobileComponentResource.getAttributes();
-					String name = (String) attributes.get("name");
+		String primeFacesHeadCaptureKey = getPrimeFacesHeadCaptureKey(facesContext, uiComponent);
+		PrimeFacesHeadCapture primeFacesHeadCapture = null;
 
-					if (name.equals("jquery/jquery.js")) {
+		if (primeFacesHeadCaptureKey != null) {
+			primeFacesHeadCapture = getPrimeFacesHeadCaptures(facesContext).getValue(primeFacesHeadCaptureKey);
+		}
 
-						listIterator.add(mobileInlineScript);
+		if (primeFacesHeadCapture == null) {
 
-						break;
-					}
-				}
-			}
+			primeFacesHeadCapture = capturePrimeFacesHead(facesContext, uiComponent);
 
-			for (InlineScript primeFacesInlineScript : inlineScripts) {
-				originalUIViewRoot.addComponentResource(facesContext, primeFacesInlineScript, "head");
+			if ((primeFacesHeadCaptureKey != null) && primeFacesHeadCapture.isCacheable()) {
+				getPrimeFacesHeadCaptures(facesContext).putValue(primeFacesHeadCaptureKey, primeFacesHeadCapture);
 			}
 		}
 
-		if (isMobile(facesContext)) {
-
-			// Save captured mobile resources so that they can be rendered in as middle resources before other scripts.
-			// For more information, see HeadRendererBridgeImpl.encodeChildren(),
-			// http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html, and
-			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
-			Map<Object, Object> attributes = facesContext.getAttributes();
-			attributes.put(MOBILE_COMPONENT_RESOURCES_KEY, capturedMobileResources);
-		}
-
-		// Delegate rendering to the superclass so that it can write resources found in the view root to the head
-		// section of the portal page.
-		super.encodeBegin(facesContext, uiComponent);
+		return primeFacesHeadCapture;
 	}
 
-	@Override
-	protected List<UIComponent> getFirstResources(FacesContext facesContext, UIComponent uiComponent) {
+	private Cache<String, PrimeFacesHeadCapture> getPrimeFacesHeadCaptures(FacesContext facesContext) {
 
-		List<UIComponent> firstResources = super.getFirstResources(facesContext, uiComponent);
+		Cache<String, PrimeFacesHeadCapture> primeFacesHeadCaptures = this.primeFacesHeadCaptures;
 
-		if (firstResources == null) {
-			firstResources = new ArrayList<UIComponent>();
-		}
+		if (primeFacesHeadCaptures == null) {
 
-		Map<Object, Object> facesContextAttributes = facesContext.getAttributes();
-		ResourceComponent primefacesThemeResource = (ResourceComponent) facesContextAttributes.remove(
-				"primefacesTheme");
+			synchronized (this) {
 
-		if (primefacesThemeResource != null) {
-			firstResources.add(primefacesThemeResource);
-		}
+				primeFacesHeadCaptures = this.primeFacesHeadCaptures;
 
-		return firstResources;
-	}
+				if (primeFacesHeadCaptures == null) {
 
-	@Override
-	protected List<UIComponent> getMiddleResources(FacesContext facesContext, UIComponent uiComponent) {
-
-		List<UIComponent> middleResources = super.getMiddleResources(facesContext, uiComponent);
-
-		if (isMobile(facesContext)) {
-
-			if (middleResources == null) {
-				middleResources = new ArrayList<UIComponent>();
+					ExternalContext externalContext = facesContext.getExternalContext();
+					PortletContext portletContext = (PortletContext) externalContext.getContext();
+					CacheFactory cacheFactory = (CacheFactory) BridgeFactoryFinder.getFactory(portletContext,
+							CacheFactory.class);
+					primeFacesHeadCaptures = cacheFactory.getConcurrentLRUCache(
+							INITIAL_PRIMEFACES_HEAD_CAPTURES_CAPACITY, MAX_PRIMEFACES_HEAD_CAPTURES_CAPACITY);
+					this.primeFacesHeadCaptures = primeFacesHeadCaptures;
+				}
 			}
-
-			Map<Object, Object> attributes = facesContext.getAttributes();
-			@SuppressWarnings(value = { "unchecked" })
-			List<UIComponent> mobileComponentResources = (List<UIComponent>) attributes.remove(
-					MOBILE_COMPONENT_RESOURCES_KEY);
-
-			// Add mobile resources to the list of middle resources so that they are rendered before other scripts. For
-			// more information, see HeadRendererBridgeImpl.encodeChildren(),
-			// http://demos.jquerymobile.com/1.0/docs/api/globalconfig.html, and
-			// https://github.com/primefaces/primefaces/blob/6_0/src/main/java/org/primefaces/mobile/renderkit/HeadRenderer.java#L68-L87.
-			middleResources.addAll(mobileComponentResources);
 		}
 
-		return middleResources;
+		return primeFacesHeadCaptures;
 	}
 
 	private Renderer getPrimeFacesHeadRenderer(FacesContext facesContext) {
@@ -342,6 +514,23 @@ public class HeadRendererPrimeFacesImpl extends HeadRendererBridgeImpl {
 		}
 	}
 
+	private String getPrimeFacesTheme(FacesContext facesContext) {
+
+		ExternalContext externalContext = facesContext.getExternalContext();
+		String theme = externalContext.getInitParameter(PRIMEFACES_THEME);
+
+		// The PrimeFaces theme may be specified as an EL expression, for example in order to let each user select
+		// a theme.
+		if ((theme != null) && theme.contains("#{")) {
+
+			Application application = facesContext.getApplication();
+			Object value = application.evaluateExpressionGet(facesContext, theme, Object.class);
+			theme = String.valueOf(value);
+		}
+
+		return String.valueOf(theme);
+	}
+
 	/**
 	 * Returns true if a resource should be suppressed when PrimeFaces' PRIMEFACES_MOBILE RenderKit is used. For more
 	 * information, see {@link #isComponentResourceSuppressedWhenMobile(java.lang.String, java.lang.String)}.
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.primefaces.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.faces.component.UIComponent;
+
+
+/**
+ * This class represents the result of invoking the PrimeFaces HeadRenderer against a {@link
+ * ResourceCapturingUIViewRoot} and a {@link PrimeFacesHeadResponseWriter}, namely the resources that the PrimeFaces
+ * HeadRenderer wants to add to the head section, the PrimeFaces theme resource, and the inline scripts. Since the
+ * resources are recorded by name/library rather than by component instance, the capture can be replayed in subsequent
+ * requests as long as it {@link #isCacheable() is cacheable}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class PrimeFacesHeadCapture {
+
+	// Private Final Data Members
+	private final List<CapturedResource> capturedResources;
+	private final List<String> inlineScripts;
+	private final String themeLibraryName;
+	private final String themeResourceName;
+
+	/* package-private */ PrimeFacesHeadCapture(List<CapturedResource> capturedResources, String themeResourceName,
+		String themeLibraryName, List<String> inlineScripts) {
+
+		this.capturedResources = Collections.unmodifiableList(new ArrayList<CapturedResource>(capturedResources));
+		this.themeResourceName = themeResourceName;
+		this.themeLibraryName = themeLibraryName;
+		this.inlineScripts = Collections.unmodifiableList(new ArrayList<String>(inlineScripts));
+	}
+
+	/* package-private */ List<CapturedResource> getCapturedResources() {
+		return capturedResources;
+	}
+
+	/* package-private */ List<String> getInlineScripts() {
+		return inlineScripts;
+	}
+
+	/* package-private */ String getThemeLibraryName() {
+		return themeLibraryName;
+	}
+
+	/* package-private */ String getThemeResourceName() {
+		return themeResourceName;
+	}
+
+	/**
+	 * Returns true if each captured resource can be re-created from its name/library, meaning that none of the
+	 * captured resources is a component instance that can only be rendered in the request in which it was captured.
+	 */
+	/* package-private */ boolean isCacheable() {
+
+		for (CapturedResource capturedResource : capturedResources) {
+
+			if (capturedResource.getComponent() != null) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/* package-private */ static final class CapturedResource {
+
+		// Private Final Data Members
+		private final UIComponent component;
+		private final boolean external;
+		private final String libraryName;
+		private final String rendererType;
+		private final String resourceName;
+
+		/* package-private */ CapturedResource(UIComponent component) {
+			this(component, null, null, null, false);
+		}
+
+		/* package-private */ CapturedResource(String resourceName, String libraryName, String rendererType,
+			boolean external) {
+			this(null, resourceName, libraryName, rendererType, external);
+		}
+
+		private CapturedResource(UIComponent component, String resourceName, String libraryName, String rendererType,
+			boolean external) {
+
+			this.component = component;
+			this.resourceName = resourceName;
+			this.libraryName = libraryName;
+			this.rendererType = rendererType;
+			this.external = external;
+		}
+
+		/**
+		 * Returns the component instance that was captured if it could not be described by name/library, otherwise
+		 * <code>null</code>.
+		 */
+		/* package-private */ UIComponent getComponent() {
+			return component;
+		}
+
+		/* package-private */ String getLibraryName() {
+			return libraryName;
+		}
+
+		/* package-private */ String getRendererType() {
+			return rendererType;
+		}
+
+		/* package-private */ String getResourceName() {
+			return resourceName;
+		}
+
+		/**
+		 * Returns true if the resource was reverse-engineered from the URL of an external script or stylesheet that
+		 * was encoded by the PrimeFaces HeadRenderer, or false if it was added to the view root.
+		 */
+		/* package-private */ boolean isExternal() {
+			return external;
+		}
+	}
+}
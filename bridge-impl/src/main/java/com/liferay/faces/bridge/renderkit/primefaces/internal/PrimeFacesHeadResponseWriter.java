@@ -24,8 +24,6 @@ import java.util.List;
 import javax.faces.component.UIComponent;
 import javax.faces.context.ResponseWriter;
 
-import com.liferay.faces.bridge.renderkit.html_basic.internal.InlineScript;
-
 
 /**
  * This class is part of a workaround for FACES-2061 and is responsible for capturing inline scripts that are encoded by
@@ -38,7 +36,7 @@ public class PrimeFacesHeadResponseWriter extends ResponseWriter {
 	// Private Data Members
 	private List<String> externalResourceURLs;
 	private boolean inlineScript;
-	private List<InlineScript> inlineScripts;
+	private List<String> inlineScripts;
 	private StringWriter stringWriter;
 	private boolean writingScript;
 	private boolean writingCss;
@@ -49,7 +47,7 @@ public class PrimeFacesHeadResponseWriter extends ResponseWriter {
 
 		this.externalResourceURLs = new ArrayList<String>();
 		this.inlineScript = true;
-		this.inlineScripts = new ArrayList<InlineScript>();
+		this.inlineScripts = new ArrayList<String>();
 		this.stringWriter = new StringWriter();
 	}
 
@@ -76,8 +74,7 @@ public class PrimeFacesHeadResponseWriter extends ResponseWriter {
 
 			if (inlineScript) {
 
-				InlineScript inlineScript = new InlineScript(stringWriter.toString(), "primefaces");
-				inlineScripts.add(inlineScript);
+				inlineScripts.add(stringWriter.toString());
 				stringWriter.getBuffer().setLength(0);
 			}
 
@@ -110,7 +107,7 @@ public class PrimeFacesHeadResponseWriter extends ResponseWriter {
 		return externalResourceURLs;
 	}
 
-	public List<InlineScript> getInlineScripts() {
+	public List<String> getInlineScripts() {
 		return inlineScripts;
 	}
 
@@ -48,6 +48,7 @@ import javax.portlet.faces.RequestAttributeInspectorFactory;
 
 import com.liferay.faces.bridge.context.BridgePortalContext;
 import com.liferay.faces.bridge.context.internal.IncongruityContext;
+import com.liferay.faces.bridge.context.map.internal.RequestAttributeSnapshot;
 import com.liferay.faces.bridge.internal.PortletConfigParam;
 import com.liferay.faces.bridge.util.internal.FacesMessageWrapper;
 import com.liferay.faces.util.helper.BooleanHelper;
@@ -441,15 +442,16 @@ public class BridgeRequestScopeImpl extends BridgeRequestScopeCompat_2_2_Impl im
 			// If appropriate, save the non-excluded request attributes. This would include, for example, managed-bean
 			// instances that may have been created during the ACTION_PHASE that need to survive to the RENDER_PHASE.
 			if (saveNonExcludedAttributes) {
-				Map<String, Object> requestMap = externalContext.getRequestMap();
-				Set<String> nonExcludedAttributeNames = getNonExcludedRequestAttributes(requestMap);
+				RequestAttributeSnapshot requestAttributes = RequestAttributeSnapshot.of(
+						externalContext.getRequestMap());
+				Set<String> nonExcludedAttributeNames = getNonExcludedRequestAttributes(requestAttributes);
 				List<RequestAttribute> savedRequestAttributes = new ArrayList<RequestAttribute>();
 
-				for (Map.Entry<String, Object> mapEntry : requestMap.entrySet()) {
-					String attributeName = mapEntry.getKey();
+				for (int i = 0; i < requestAttributes.size(); i++) {
+					String attributeName = requestAttributes.getName(i);
 
 					if (nonExcludedAttributeNames.contains(attributeName)) {
-						Object attributeValue = mapEntry.getValue();
+						Object attributeValue = requestAttributes.getValue(i);
 						logger.trace("SAVING non-excluded request attribute name=[{0}] value=[{1}]", attributeName,
 							attributeValue);
 						savedRequestAttributes.add(new RequestAttribute(attributeName, attributeValue));
@@ -542,14 +544,26 @@ public class BridgeRequestScopeImpl extends BridgeRequestScopeCompat_2_2_Impl im
 
 	private Set<String> getNonExcludedRequestAttributes(Map<String, Object> requestMap) {
 
+		Set<String> attributeNames = nonExcludedAttributeNames;
+
+		// Only take a snapshot of the request attributes if the non-excluded attribute names have not been determined.
+		if (attributeNames == null) {
+			attributeNames = getNonExcludedRequestAttributes(RequestAttributeSnapshot.of(requestMap));
+		}
+
+		return attributeNames;
+	}
+
+	private Set<String> getNonExcludedRequestAttributes(RequestAttributeSnapshot requestAttributes) {
+
 		if (nonExcludedAttributeNames == null) {
 
 			nonExcludedAttributeNames = new HashSet<String>();
 
-			for (Map.Entry<String, Object> mapEntry : requestMap.entrySet()) {
+			for (int i = 0; i < requestAttributes.size(); i++) {
 
-				String attributeName = mapEntry.getKey();
-				Object attributeValue = mapEntry.getValue();
+				String attributeName = requestAttributes.getName(i);
+				Object attributeValue = requestAttributes.getValue(i);
 
 				boolean excluded = requestAttributeInspector.isExcludedByConfig(attributeName, attributeValue) ||
 					requestAttributeInspector.isExcludedByAnnotation(attributeName, attributeValue) ||
@@ -15,6 +15,8 @@
  */
 package com.liferay.faces.bridge.scope.internal;
 
+import java.util.Set;
+
 import javax.faces.context.FacesContext;
 import javax.portlet.PortletConfig;
 import javax.portlet.PortletContext;
@@ -49,4 +51,13 @@ public interface BridgeRequestScopeManager {
 	 * @param  httpSession  The current {@link HttpSession}.
 	 */
 	public void removeBridgeRequestScopesBySession(HttpSession httpSession);
+
+	/**
+	 * Removes all of the {@link BridgeRequestScope} instances from the underlying cache that are associated with any
+	 * of the specified session ids. Since the cache is only scanned once, this method should be preferred over {@link
+	 * #removeBridgeRequestScopesBySession(HttpSession)} when several sessions are cleaned up at the same time.
+	 *
+	 * @param  sessionIds  The ids of the sessions that were invalidated or expired.
+	 */
+	public void removeBridgeRequestScopesBySessionIds(Set<String> sessionIds);
 }
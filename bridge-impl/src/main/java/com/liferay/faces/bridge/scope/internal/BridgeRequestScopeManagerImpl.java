@@ -66,6 +66,36 @@ public class BridgeRequestScopeManagerImpl implements BridgeRequestScopeManager
 		removeBridgeRequestScopes(false, sessionId);
 	}
 
+	@Override
+	public void removeBridgeRequestScopesBySessionIds(Set<String> sessionIds) {
+
+		List<String> keysToRemove = new ArrayList<String>();
+		Set<String> keySet = (Set<String>) bridgeRequestScopeCache.getKeys();
+
+		for (String bridgeRequestScopeId : keySet) {
+
+			int indexOfSessionIdSection = bridgeRequestScopeId.indexOf(":::") + ":::".length();
+			int indexOfSessionIdSuffix = bridgeRequestScopeId.indexOf(":::", indexOfSessionIdSection);
+
+			if (indexOfSessionIdSuffix > 0) {
+
+				String sessionId = bridgeRequestScopeId.substring(indexOfSessionIdSection, indexOfSessionIdSuffix);
+
+				if (sessionIds.contains(sessionId)) {
+					keysToRemove.add(bridgeRequestScopeId);
+				}
+			}
+		}
+
+		for (String keyToRemove : keysToRemove) {
+
+			Object bridgeRequestScope = bridgeRequestScopeCache.removeValue(keyToRemove);
+			logger.debug(
+				"Removed bridgeRequestScopeId=[{0}] bridgeRequestScope=[{1}] from cache due to session timeout",
+				keyToRemove, bridgeRequestScope);
+		}
+	}
+
 	private void removeBridgeRequestScopes(boolean removeByPortletId, String portletOrSessionId) {
 
 		// Iterate over the map entries, and build up a list of BridgeRequestScope keys that are to be
@@ -15,6 +15,8 @@
  */
 package com.liferay.faces.bridge.scope.internal;
 
+import java.util.Set;
+
 import javax.faces.FacesWrapper;
 import javax.portlet.PortletConfig;
 import javax.servlet.http.HttpSession;
@@ -35,4 +37,8 @@ public abstract class BridgeRequestScopeManagerWrapper implements BridgeRequestS
 	public void removeBridgeRequestScopesBySession(HttpSession httpSession) {
 		getWrapped().removeBridgeRequestScopesBySession(httpSession);
 	}
+
+	public void removeBridgeRequestScopesBySessionIds(Set<String> sessionIds) {
+		getWrapped().removeBridgeRequestScopesBySessionIds(sessionIds);
+	}
 }
@@ -15,8 +15,10 @@
  */
 package com.liferay.faces.bridge.servlet;
 
+import java.util.Collections;
 import java.util.Enumeration;
 
+import javax.portlet.PortletConfig;
 import javax.portlet.PortletContext;
 import javax.portlet.faces.BridgeFactoryFinder;
 import javax.servlet.ServletContext;
@@ -28,10 +30,10 @@ import javax.servlet.http.HttpSessionListener;
 
 import com.liferay.faces.bridge.bean.BeanManager;
 import com.liferay.faces.bridge.bean.BeanManagerFactory;
-import com.liferay.faces.bridge.bean.PreDestroyInvoker;
-import com.liferay.faces.bridge.bean.PreDestroyInvokerFactory;
 import com.liferay.faces.bridge.context.internal.PortletContextAdapter;
-import com.liferay.faces.bridge.scope.internal.BridgeRequestScopeManager;
+import com.liferay.faces.bridge.context.map.internal.UploadedFileStorageManager;
+import com.liferay.faces.bridge.internal.PortletConfigEmptyImpl;
+import com.liferay.faces.bridge.internal.PortletConfigParam;
 import com.liferay.faces.bridge.scope.internal.BridgeRequestScopeManagerFactory;
 import com.liferay.faces.util.config.ApplicationConfig;
 import com.liferay.faces.util.lang.ThreadSafeAccessor;
@@ -42,7 +44,8 @@ import com.liferay.faces.util.product.ProductFactory;
 
 
 /**
- * This class provides the ability to cleanup session-scoped and view-scoped managed-beans upon session expiration.
+ * This class provides the ability to cleanup session-scoped and view-scoped managed-beans (as well as uploaded files)
+ * upon session expiration.
  *
  * @author  Neil Griffin
  */
@@ -62,11 +65,22 @@ public class BridgeSessionListener implements HttpSessionListener, ServletContex
 
 	// Private Data Members
 	private boolean firstInstance;
+	private SessionCleanupExecutor sessionCleanupExecutor;
 
 	@Override
 	public void contextDestroyed(ServletContextEvent servletContextEvent) {
 		ServletContext servletContext = servletContextEvent.getServletContext();
+
+		// Finish cleaning up the sessions that have already expired before the factories are released.
+		if (sessionCleanupExecutor != null) {
+			sessionCleanupExecutor.shutdown();
+			sessionCleanupExecutor = null;
+		}
+
 		PortletContext portletContext = new PortletContextAdapter(servletContext);
+
+		// Stop the thread that deletes orphaned directories of uploaded files.
+		UploadedFileStorageManager.destroyInstance(portletContext);
 		BridgeFactoryFinder.getInstance().releaseFactories(portletContext);
 	}
 
@@ -86,6 +100,13 @@ public class BridgeSessionListener implements HttpSessionListener, ServletContex
 			servletContext.setAttribute(BridgeSessionListener.class.getName(), Boolean.TRUE);
 			firstInstance = true;
 
+			PortletConfig emptyPortletConfig = new PortletConfigEmptyImpl(new PortletContextAdapter(servletContext));
+
+			if (PortletConfigParam.SessionCleanupAsyncEnabled.getBooleanValue(emptyPortletConfig)) {
+
+				int queueCapacity = PortletConfigParam.SessionCleanupQueueCapacity.getIntegerValue(emptyPortletConfig);
+				sessionCleanupExecutor = new SessionCleanupExecutor(servletContext.getContextPath(), queueCapacity);
+			}
 		}
 		else {
 			logger.debug("Preventing multiple instantiation for contextPath=[{0}]", servletContext.getContextPath());
@@ -140,10 +161,12 @@ public class BridgeSessionListener implements HttpSessionListener, ServletContex
 
 			if ((beanManagerFactory != null) && (bridgeRequestScopeManagerFactory != null)) {
 
-				// Cleanup instances of BridgeRequestScope that are associated with the expiring session.
-				BridgeRequestScopeManager bridgeRequestScopeManager =
-					bridgeRequestScopeManagerFactory.getBridgeRequestScopeManager(portletContext);
-				bridgeRequestScopeManager.removeBridgeRequestScopesBySession(httpSession);
+				// Since the session is no longer valid after this method returns, the session attributes have to be
+				// detached now. But the rest of the cleanup (removing the instances of BridgeRequestScope that are
+				// associated with the expiring session, deleting the files that were uploaded during the expiring
+				// session, and invoking methods annotated with @PreDestroy) only requires the session id and the
+				// detached managed-beans, so it is collected here and performed after the attributes are detached.
+				ExpiredSession expiredSession = new ExpiredSession(servletContext, httpSession.getId());
 
 				// For each session attribute:
 				String appConfigAttrName = ApplicationConfig.class.getName();
@@ -182,13 +205,7 @@ public class BridgeSessionListener implements HttpSessionListener, ServletContex
 									// would have the same session attribute names for managed-beans, and only the last
 									// one would get cleaned-up by Mojarra.
 									if (beanManager.isManagedBean(attributeName, attributeValue)) {
-
-										PreDestroyInvokerFactory preDestroyInvokerFactory = (PreDestroyInvokerFactory)
-											BridgeFactoryFinder.getFactory(portletContext,
-												PreDestroyInvokerFactory.class);
-										PreDestroyInvoker preDestroyInvoker =
-											preDestroyInvokerFactory.getPreDestroyInvoker(servletContext);
-										preDestroyInvoker.invokeAnnotatedMethods(attributeValue, true);
+										expiredSession.addManagedBean(attributeValue);
 									}
 
 									// Otherwise,
@@ -253,6 +270,12 @@ public class BridgeSessionListener implements HttpSessionListener, ServletContex
 				catch (IllegalStateException e) {
 					logger.warn("Server does not permit cleanup of Mojarra managed-beans during session expiration");
 				}
+
+				// If background cleanup is enabled and there is room in the queue, then the expired session will be
+				// cleaned up by the SessionCleanupExecutor. Otherwise, clean it up on the current thread.
+				if ((sessionCleanupExecutor == null) || !sessionCleanupExecutor.submit(expiredSession)) {
+					SessionCleanupExecutor.cleanUp(Collections.singletonList(expiredSession));
+				}
 			}
 		}
 	}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletContext;
+
+
+/**
+ * This class holds what is needed in order to clean up an expired session after the servlet container has invalidated
+ * it: the session id and the managed-beans that were detached from the session. See {@link SessionCleanupExecutor}.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ final class ExpiredSession {
+
+	// Private Final Data Members
+	private final List<Object> managedBeans;
+	private final ServletContext servletContext;
+	private final String sessionId;
+
+	/* package-private */ ExpiredSession(ServletContext servletContext, String sessionId) {
+		this.servletContext = servletContext;
+		this.sessionId = sessionId;
+		this.managedBeans = new ArrayList<Object>();
+	}
+
+	/* package-private */ void addManagedBean(Object managedBean) {
+		managedBeans.add(managedBean);
+	}
+
+	/* package-private */ List<Object> getManagedBeans() {
+		return managedBeans;
+	}
+
+	/* package-private */ ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	/* package-private */ String getSessionId() {
+		return sessionId;
+	}
+}
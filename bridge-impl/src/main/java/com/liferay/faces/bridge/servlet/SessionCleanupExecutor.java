@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.servlet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.portlet.PortletContext;
+import javax.portlet.faces.BridgeFactoryFinder;
+import javax.servlet.ServletContext;
+
+import com.liferay.faces.bridge.bean.PreDestroyInvoker;
+import com.liferay.faces.bridge.bean.PreDestroyInvokerFactory;
+import com.liferay.faces.bridge.context.internal.PortletContextAdapter;
+import com.liferay.faces.bridge.context.map.internal.UploadedFileStorageManager;
+import com.liferay.faces.bridge.scope.internal.BridgeRequestScopeManager;
+import com.liferay.faces.bridge.scope.internal.BridgeRequestScopeManagerFactory;
+import com.liferay.faces.bridge.util.internal.BackgroundExecutorUtil;
+import com.liferay.faces.util.logging.Logger;
+import com.liferay.faces.util.logging.LoggerFactory;
+
+
+/**
+ * This class cleans up expired sessions on a single background thread so that a wave of session expirations does not
+ * stall the thread of the servlet container that expires sessions. Expired sessions are processed in batches so that
+ * the cache of bridge request scopes is only scanned once per batch. The background thread belongs to an executor that
+ * is created by {@link BackgroundExecutorUtil} and that is shut down by {@link #shutdown()}. If the queue is full (or
+ * the executor has been shut down) then {@link #submit(ExpiredSession)} returns false and the caller is expected to
+ * call {@link #cleanUp(List)} itself, which applies backpressure to the servlet container.
+ *
+ * @author  Neil Griffin
+ */
+/* package-private */ class SessionCleanupExecutor {
+
+	// Logger
+	private static final Logger logger = LoggerFactory.getLogger(SessionCleanupExecutor.class);
+
+	// Private Constants
+	private static final int MAX_BATCH_SIZE = 100;
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+	private static final String THREAD_NAME = "Liferay Faces Bridge Session Cleanup";
+
+	// Private Final Data Members
+	private final Runnable batchCleanupTask;
+	private final Executor executor;
+	private final BlockingQueue<ExpiredSession> expiredSessions;
+
+	// Private Data Members
+	private boolean batchCleanupTaskScheduled;
+	private boolean shutdown;
+
+	/* package-private */ SessionCleanupExecutor(String contextPath, int queueCapacity) {
+		this(queueCapacity, BackgroundExecutorUtil.newSingleThreadExecutor(THREAD_NAME + " " + contextPath,
+				new LinkedBlockingQueue<Runnable>()));
+	}
+
+	/* package-private */ SessionCleanupExecutor(int queueCapacity, Executor executor) {
+
+		this.batchCleanupTask = new BatchCleanupTask();
+		this.executor = executor;
+		this.expiredSessions = new ArrayBlockingQueue<ExpiredSession>(Math.max(queueCapacity, 1));
+	}
+
+	/**
+	 * Cleans up the specified expired sessions on the calling thread by removing their bridge request scopes, deleting
+	 * the files that were uploaded during the sessions, and invoking the &#064;PreDestroy methods of their
+	 * managed-beans. All of the specified sessions must belong to the same servlet context.
+	 */
+	/* package-private */ static void cleanUp(List<ExpiredSession> expiredSessions) {
+
+		ServletContext servletContext = expiredSessions.get(0).getServletContext();
+		PortletContext portletContext = new PortletContextAdapter(servletContext);
+
+		// Cleanup instances of BridgeRequestScope that are associated with the expired sessions.
+		try {
+
+			Set<String> sessionIds = new HashSet<String>();
+
+			for (ExpiredSession expiredSession : expiredSessions) {
+				sessionIds.add(expiredSession.getSessionId());
+			}
+
+			BridgeRequestScopeManagerFactory bridgeRequestScopeManagerFactory = (BridgeRequestScopeManagerFactory)
+				BridgeFactoryFinder.getFactory(portletContext, BridgeRequestScopeManagerFactory.class);
+			BridgeRequestScopeManager bridgeRequestScopeManager =
+				bridgeRequestScopeManagerFactory.getBridgeRequestScopeManager(portletContext);
+			bridgeRequestScopeManager.removeBridgeRequestScopesBySessionIds(sessionIds);
+		}
+		catch (Exception e) {
+			logger.error(e);
+		}
+
+		// Delete the files that were uploaded during the expired sessions.
+		UploadedFileStorageManager uploadedFileStorageManager = UploadedFileStorageManager.getInstance(portletContext);
+
+		for (ExpiredSession expiredSession : expiredSessions) {
+
+			try {
+				uploadedFileStorageManager.removeSession(expiredSession.getSessionId());
+			}
+			catch (Exception e) {
+				logger.error(e);
+			}
+		}
+
+		// Cleanup the managed-beans by invoking methods annotated with @PreDestroy.
+		PreDestroyInvoker preDestroyInvoker = null;
+
+		for (ExpiredSession expiredSession : expiredSessions) {
+
+			for (Object managedBean : expiredSession.getManagedBeans()) {
+
+				try {
+
+					if (preDestroyInvoker == null) {
+
+						PreDestroyInvokerFactory preDestroyInvokerFactory = (PreDestroyInvokerFactory)
+							BridgeFactoryFinder.getFactory(portletContext, PreDestroyInvokerFactory.class);
+						preDestroyInvoker = preDestroyInvokerFactory.getPreDestroyInvoker(servletContext);
+					}
+
+					preDestroyInvoker.invokeAnnotatedMethods(managedBean, true);
+				}
+				catch (Exception e) {
+					logger.error(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Cleans up the specified batch of expired sessions. This method is called by the background thread and by {@link
+	 * #shutdown()}.
+	 */
+	/* package-private */ void cleanUpBatch(List<ExpiredSession> batch) {
+		cleanUp(batch);
+	}
+
+	/**
+	 * Stops accepting expired sessions and waits for the background thread to finish cleaning up the batch of expired
+	 * sessions that it is working on. The expired sessions that remain in the queue are cleaned up on the calling
+	 * thread.
+	 */
+	/* package-private */ void shutdown() {
+
+		// Since submit(ExpiredSession) checks the flag while holding the same lock, no expired session can be added to
+		// the queue after this point.
+		synchronized (this) {
+			shutdown = true;
+		}
+
+		if (executor instanceof ExecutorService) {
+
+			ExecutorService executorService = (ExecutorService) executor;
+			executorService.shutdown();
+
+			try {
+
+				if (!executorService.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					logger.warn("Timed out waiting for the batch of expired sessions to be cleaned up");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		List<ExpiredSession> remainingExpiredSessions = new ArrayList<ExpiredSession>();
+		expiredSessions.drainTo(remainingExpiredSessions);
+
+		if (!remainingExpiredSessions.isEmpty()) {
+
+			logger.debug("Cleaning up {0} remaining expired sessions during shutdown", remainingExpiredSessions.size());
+			cleanUpBatch(remainingExpiredSessions);
+		}
+	}
+
+	/**
+	 * Queues the specified expired session for cleanup on the background thread.
+	 *
+	 * @return  true if the expired session was queued, or false if the queue is full or the executor has been shut down
+	 *          (in which case the caller must clean up the expired session itself).
+	 */
+	/* package-private */ synchronized boolean submit(ExpiredSession expiredSession) {
+
+		if (shutdown || !expiredSessions.offer(expiredSession)) {
+			return false;
+		}
+
+		if (!batchCleanupTaskScheduled) {
+			batchCleanupTaskScheduled = true;
+			executor.execute(batchCleanupTask);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes the next batch of expired sessions from the queue. If the queue is empty, then the batch cleanup task is
+	 * no longer considered to be scheduled, so that the next call to {@link #submit(ExpiredSession)} schedules it
+	 * again.
+	 */
+	private synchronized List<ExpiredSession> nextBatch() {
+
+		List<ExpiredSession> batch = new ArrayList<ExpiredSession>(MAX_BATCH_SIZE);
+		expiredSessions.drainTo(batch, MAX_BATCH_SIZE);
+
+		if (batch.isEmpty()) {
+			batchCleanupTaskScheduled = false;
+		}
+
+		return batch;
+	}
+
+	private final class BatchCleanupTask implements Runnable {
+
+		@Override
+		public void run() {
+
+			List<ExpiredSession> batch = nextBatch();
+
+			while (!batch.isEmpty()) {
+
+				try {
+					logger.debug("Cleaning up a batch of {0} expired sessions", batch.size());
+					cleanUpBatch(batch);
+				}
+				catch (Exception e) {
+					logger.error(e);
+				}
+
+				batch = nextBatch();
+			}
+		}
+	}
+}
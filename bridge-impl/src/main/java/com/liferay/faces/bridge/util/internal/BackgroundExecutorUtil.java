@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.util.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class creates the executors that run the background tasks of the bridge, such as deleting orphaned directories
+ * of uploaded files and cleaning up expired sessions. Since the bridge does not have a thread pool that is managed by
+ * the portlet container, each executor has at most one daemon thread. The thread is only started when a task is
+ * submitted and exits after it has been idle for a minute. The owner of an executor must shut it down when the
+ * servlet context is destroyed (see {@link
+ * com.liferay.faces.bridge.servlet.BridgeSessionListener#contextDestroyed(javax.servlet.ServletContextEvent)}).
+ *
+ * @author  Neil Griffin
+ */
+public final class BackgroundExecutorUtil {
+
+	// Private Constants
+	private static final long KEEP_ALIVE_SECONDS = 60L;
+
+	private BackgroundExecutorUtil() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a new executor with at most one daemon thread that has the specified name.
+	 *
+	 * @param  threadName  The name of the thread.
+	 * @param  workQueue   The queue of tasks that are waiting for the thread. A {@link
+	 *                     java.util.concurrent.SynchronousQueue} causes tasks to be rejected while the thread is busy,
+	 *                     and a {@link java.util.concurrent.LinkedBlockingQueue} causes tasks to wait for the thread.
+	 */
+	public static ThreadPoolExecutor newSingleThreadExecutor(String threadName, BlockingQueue<Runnable> workQueue) {
+		return new ThreadPoolExecutor(0, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, workQueue,
+				new DaemonThreadFactory(threadName));
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		// Private Final Data Members
+		private final String threadName;
+
+		public DaemonThreadFactory(String threadName) {
+			this.threadName = threadName;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+
+			return thread;
+		}
+	}
+}
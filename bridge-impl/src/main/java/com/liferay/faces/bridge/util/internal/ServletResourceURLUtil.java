@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.util.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.faces.application.ResourceHandler;
+import javax.portlet.PortletConfig;
+
+import com.liferay.faces.bridge.internal.PortletConfigParam;
+import com.liferay.faces.util.config.ConfiguredServletMapping;
+
+
+/**
+ * This is a utility class that determines whether or not the URL of a JSF2 library resource can target the
+ * FacesServlet of the webapp directly (rather than being encoded as a portlet {@link javax.portlet.ResourceURL}). Doing
+ * so avoids the overhead of the portal's request pipeline for static resources that do not depend on the portlet
+ * namespace or the portlet session.
+ *
+ * @author  Neil Griffin
+ */
+public final class ServletResourceURLUtil {
+
+	// Private Constants
+	private static final Set<String> STATIC_RESOURCE_EXTENSIONS = Collections.unmodifiableSet(new HashSet<String>(
+				Arrays.asList(".css", ".eot", ".gif", ".ico", ".jpeg", ".jpg", ".js", ".map", ".otf", ".png", ".svg",
+					".ttf", ".woff", ".woff2")));
+	private static final String RESOURCE_PATH_PREFIX = ResourceHandler.RESOURCE_IDENTIFIER + "/";
+
+	private ServletResourceURLUtil() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Determines whether or not the specified context-relative path of a JSF2 resource can be served directly by the
+	 * FacesServlet. In order to qualify, the resource must belong to a library, it must have the extension of a static
+	 * file type (such as .js, .css, or .png), and the path must match a servlet-mapping of the FacesServlet that is
+	 * explicitly declared in the WEB-INF/web.xml descriptor.
+	 *
+	 * @param  portletConfig                   The portlet configuration.
+	 * @param  contextRelativePath             The path of the resource (without the context-path and query-string).
+	 * @param  libraryName                     The name of the library that contains the resource.
+	 * @param  configuredFacesServletMappings  The servlet-mappings of the FacesServlet.
+	 */
+	public static boolean isServletResourcePath(PortletConfig portletConfig, String contextRelativePath,
+		String libraryName, List<ConfiguredServletMapping> configuredFacesServletMappings) {
+
+		boolean servletResourcePath = false;
+
+		if ((contextRelativePath != null) && (libraryName != null) && (libraryName.length() > 0) &&
+				(configuredFacesServletMappings != null) &&
+				PortletConfigParam.ServletResourceURLsEnabled.getBooleanValue(portletConfig)) {
+
+			int pos = contextRelativePath.indexOf(RESOURCE_PATH_PREFIX);
+
+			if (pos >= 0) {
+
+				for (ConfiguredServletMapping configuredFacesServletMapping : configuredFacesServletMappings) {
+
+					// Implicit servlet-mappings are not actually served by the servlet container, so only consider
+					// explicit servlet-mapping entries.
+					if (!configuredFacesServletMapping.isImplicit() &&
+							configuredFacesServletMapping.isMatch(contextRelativePath)) {
+
+						String resourceName = contextRelativePath.substring(pos + RESOURCE_PATH_PREFIX.length());
+
+						if (configuredFacesServletMapping.isExtensionMapped()) {
+
+							String extension = configuredFacesServletMapping.getExtension();
+
+							if (resourceName.endsWith(extension)) {
+								resourceName = resourceName.substring(0, resourceName.length() - extension.length());
+							}
+						}
+
+						servletResourcePath = isStaticResourceName(resourceName);
+
+						break;
+					}
+				}
+			}
+		}
+
+		return servletResourcePath;
+	}
+
+	/**
+	 * Returns the specified URL without the context-path prefix and without the query-string.
+	 */
+	public static String toContextRelativePath(String url, String contextPath) {
+
+		String contextRelativePath = url;
+		int queryPos = contextRelativePath.indexOf('?');
+
+		if (queryPos >= 0) {
+			contextRelativePath = contextRelativePath.substring(0, queryPos);
+		}
+
+		if ((contextPath != null) && (contextPath.length() > 0) && contextRelativePath.startsWith(contextPath)) {
+			contextRelativePath = contextRelativePath.substring(contextPath.length());
+		}
+
+		return contextRelativePath;
+	}
+
+	private static boolean isStaticResourceName(String resourceName) {
+
+		boolean staticResourceName = false;
+		int pos = resourceName.lastIndexOf('.');
+
+		if (pos > 0) {
+			staticResourceName = STATIC_RESOURCE_EXTENSIONS.contains(resourceName.substring(pos).toLowerCase());
+		}
+
+		return staticResourceName;
+	}
+}
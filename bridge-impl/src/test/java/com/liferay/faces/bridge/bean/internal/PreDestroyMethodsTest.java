@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.bean.internal;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.portlet.faces.annotation.BridgePreDestroy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PreDestroyMethodsTest {
+
+	@Test
+	public void testInvokeAnnotatedMethods() {
+
+		PreDestroyInvokerImpl preDestroyInvokerImpl = new PreDestroyInvokerImpl();
+		CallbackBean callbackBean = new CallbackBean();
+		preDestroyInvokerImpl.invokeAnnotatedMethods(callbackBean, true);
+		Assert.assertEquals(1, callbackBean.getInvocations().size());
+		Assert.assertEquals("preDestroy", callbackBean.getInvocations().get(0));
+
+		callbackBean = new CallbackBean();
+		preDestroyInvokerImpl.invokeAnnotatedMethods(callbackBean, false);
+		Assert.assertEquals(1, callbackBean.getInvocations().size());
+		Assert.assertEquals("bridgePreDestroy", callbackBean.getInvocations().get(0));
+
+		// An exception thrown by a callback must not propagate.
+		preDestroyInvokerImpl.invokeAnnotatedMethods(new FailingBean(), true);
+	}
+
+	@Test
+	public void testMetadata() {
+
+		PreDestroyMethods preDestroyMethods = new PreDestroyInvokerImpl().getPreDestroyMethods(CallbackBean.class);
+
+		// Instances of PreDestroyInvokerImpl that do not override the annotation methods share the same metadata.
+		Assert.assertTrue(preDestroyMethods == new PreDestroyInvokerImpl().getPreDestroyMethods(CallbackBean.class));
+		Assert.assertEquals(1, preDestroyMethods.getPreDestroyMethods().length);
+		Assert.assertEquals("preDestroy", preDestroyMethods.getPreDestroyMethods()[0].getName());
+		Assert.assertEquals(1, preDestroyMethods.getBridgePreDestroyMethods().length);
+		Assert.assertEquals("bridgePreDestroy", preDestroyMethods.getBridgePreDestroyMethods()[0].getName());
+		Assert.assertTrue(preDestroyMethods.isPreDestroyDeclared());
+
+		// A non-public @PreDestroy method of a superclass cannot be invoked by the bridge, but must still be detected
+		// so that the Mojarra InjectionProvider is called.
+		PreDestroyInvokerImpl preDestroyInvokerImpl = new PreDestroyInvokerImpl();
+		preDestroyMethods = preDestroyInvokerImpl.getPreDestroyMethods(PrivateCallbackBean.class);
+		Assert.assertEquals(0, preDestroyMethods.getPreDestroyMethods().length);
+		Assert.assertTrue(preDestroyMethods.isPreDestroyDeclared());
+
+		// Classes without callbacks must share the same empty metadata.
+		preDestroyMethods = preDestroyInvokerImpl.getPreDestroyMethods(Object.class);
+		Assert.assertTrue(preDestroyMethods == preDestroyInvokerImpl.getPreDestroyMethods(String.class));
+		Assert.assertEquals(0, preDestroyMethods.getPreDestroyMethods().length);
+		Assert.assertEquals(0, preDestroyMethods.getBridgePreDestroyMethods().length);
+		Assert.assertFalse(preDestroyMethods.isPreDestroyDeclared());
+	}
+
+	@Test
+	public void testOverriddenAnnotationMethods() {
+
+		// Subclasses of PreDestroyInvokerImpl that override the annotation methods must be consulted.
+		PreDestroyInvokerImpl preDestroyInvokerImpl = new CustomPreDestroyInvokerImpl();
+
+		CustomCallbackBean customCallbackBean = new CustomCallbackBean();
+		preDestroyInvokerImpl.invokeAnnotatedMethods(customCallbackBean, true);
+		Assert.assertEquals(1, customCallbackBean.getInvocations().size());
+		Assert.assertEquals("customPreDestroy", customCallbackBean.getInvocations().get(0));
+
+		customCallbackBean = new CustomCallbackBean();
+		preDestroyInvokerImpl.invokeAnnotatedMethods(customCallbackBean, false);
+		Assert.assertEquals(1, customCallbackBean.getInvocations().size());
+		Assert.assertEquals("customBridgePreDestroy", customCallbackBean.getInvocations().get(0));
+
+		// The metadata that is determined by the overridden annotation methods must not be shared with other
+		// instances.
+		PreDestroyMethods preDestroyMethods = new PreDestroyInvokerImpl().getPreDestroyMethods(
+				CustomCallbackBean.class);
+		Assert.assertEquals(0, preDestroyMethods.getPreDestroyMethods().length);
+		Assert.assertEquals(0, preDestroyMethods.getBridgePreDestroyMethods().length);
+		Assert.assertTrue(preDestroyInvokerImpl.getPreDestroyMethods(CustomCallbackBean.class) != preDestroyMethods);
+
+		// However, instances of the same subclass must share the same metadata.
+		Assert.assertTrue(preDestroyInvokerImpl.getPreDestroyMethods(CustomCallbackBean.class) ==
+			new CustomPreDestroyInvokerImpl().getPreDestroyMethods(CustomCallbackBean.class));
+	}
+
+	public static class CallbackBean {
+
+		// Private Data Members
+		private List<String> invocations = new ArrayList<String>();
+
+		@BridgePreDestroy
+		public void bridgePreDestroy() {
+			invocations.add("bridgePreDestroy");
+		}
+
+		public List<String> getInvocations() {
+			return invocations;
+		}
+
+		@PreDestroy
+		public void preDestroy() {
+			invocations.add("preDestroy");
+		}
+
+		@PreDestroy
+		public String preDestroyWithReturnType() {
+			invocations.add("preDestroyWithReturnType");
+
+			return null;
+		}
+	}
+
+	public static class CustomCallbackBean {
+
+		// Private Data Members
+		private List<String> invocations = new ArrayList<String>();
+
+		public void customBridgePreDestroy() {
+			invocations.add("customBridgePreDestroy");
+		}
+
+		public void customPreDestroy() {
+			invocations.add("customPreDestroy");
+		}
+
+		public List<String> getInvocations() {
+			return invocations;
+		}
+	}
+
+	public static class CustomPreDestroyInvokerImpl extends PreDestroyInvokerImpl {
+
+		@Override
+		protected boolean hasBridgePreDestroyAnnotation(Method method) {
+			return method.getName().equals("customBridgePreDestroy");
+		}
+
+		@Override
+		protected boolean hasPreDestroyAnnotation(Method method) {
+			return method.getName().equals("customPreDestroy");
+		}
+	}
+
+	public static class FailingBean {
+
+		@PreDestroy
+		public void preDestroy() {
+			throw new IllegalStateException("Expected exception");
+		}
+	}
+
+	public static class PrivateCallbackBean extends PrivateCallbackBeanBase {
+	}
+
+	public static class PrivateCallbackBeanBase {
+
+		@PreDestroy
+		private void preDestroy() {
+			// Never invoked by the bridge.
+		}
+	}
+}
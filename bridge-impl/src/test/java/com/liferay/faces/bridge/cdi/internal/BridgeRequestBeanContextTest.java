@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.cdi.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.portlet.faces.annotation.BridgeRequestScoped;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class BridgeRequestBeanContextTest {
+
+	@Test
+	public void testRemoveThenGet() {
+
+		BridgeRequestBeanContext bridgeRequestBeanContext = new BridgeRequestBeanContext();
+		BeanMockImpl beanMockImpl = new BeanMockImpl("myBean");
+		CreationalContext<StringBuilder> creationalContext = new CreationalContextMockImpl<StringBuilder>();
+		Map<String, Object> requestMap = new HashMap<String, Object>();
+
+		StringBuilder bridgeRequestScopedBean = bridgeRequestBeanContext.get(beanMockImpl, creationalContext,
+				requestMap);
+		Assert.assertNotNull(bridgeRequestScopedBean);
+		Assert.assertTrue(bridgeRequestScopedBean == requestMap.get("myBean"));
+		Assert.assertTrue(bridgeRequestScopedBean == bridgeRequestBeanContext.get(beanMockImpl, null, requestMap));
+
+		// After the request attribute has been removed, the instance must no longer be found.
+		requestMap.remove("myBean");
+		Assert.assertNull(bridgeRequestBeanContext.get(beanMockImpl, null, requestMap));
+
+		StringBuilder newBridgeRequestScopedBean = bridgeRequestBeanContext.get(beanMockImpl, creationalContext,
+				requestMap);
+		Assert.assertNotNull(newBridgeRequestScopedBean);
+		Assert.assertTrue(newBridgeRequestScopedBean != bridgeRequestScopedBean);
+		Assert.assertTrue(newBridgeRequestScopedBean == requestMap.get("myBean"));
+		Assert.assertEquals(2, beanMockImpl.getCreateCount());
+	}
+
+	@Test
+	public void testReplaceThenGet() {
+
+		BridgeRequestBeanContext bridgeRequestBeanContext = new BridgeRequestBeanContext();
+
+		// A bean without a name is stored under the name of its class.
+		BeanMockImpl beanMockImpl = new BeanMockImpl(null);
+		CreationalContext<StringBuilder> creationalContext = new CreationalContextMockImpl<StringBuilder>();
+		Map<String, Object> requestMap = new HashMap<String, Object>();
+
+		StringBuilder bridgeRequestScopedBean = bridgeRequestBeanContext.get(beanMockImpl, creationalContext,
+				requestMap);
+		Assert.assertTrue(bridgeRequestScopedBean == requestMap.get(StringBuilder.class.getName()));
+
+		// After the request attribute has been replaced (for example, when the bridge request scope is restored), the
+		// replacement must be returned.
+		StringBuilder replacement = new StringBuilder();
+		requestMap.put(StringBuilder.class.getName(), replacement);
+		Assert.assertTrue(replacement == bridgeRequestBeanContext.get(beanMockImpl, creationalContext, requestMap));
+		Assert.assertTrue(replacement == bridgeRequestBeanContext.get(beanMockImpl, null, requestMap));
+		Assert.assertEquals(1, beanMockImpl.getCreateCount());
+	}
+
+	private static final class BeanMockImpl implements Bean<StringBuilder> {
+
+		// Private Final Data Members
+		private final String name;
+
+		// Private Data Members
+		private int createCount;
+
+		public BeanMockImpl(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public StringBuilder create(CreationalContext<StringBuilder> creationalContext) {
+
+			createCount++;
+
+			return new StringBuilder();
+		}
+
+		@Override
+		public void destroy(StringBuilder instance, CreationalContext<StringBuilder> creationalContext) {
+			// no-op
+		}
+
+		@Override
+		public Class<?> getBeanClass() {
+			return StringBuilder.class;
+		}
+
+		public int getCreateCount() {
+			return createCount;
+		}
+
+		@Override
+		public Set<InjectionPoint> getInjectionPoints() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Set<Annotation> getQualifiers() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Class<? extends Annotation> getScope() {
+			return BridgeRequestScoped.class;
+		}
+
+		@Override
+		public Set<Class<? extends Annotation>> getStereotypes() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<Type> getTypes() {
+			return Collections.<Type>singleton(StringBuilder.class);
+		}
+
+		@Override
+		public boolean isAlternative() {
+			return false;
+		}
+
+		@Override
+		public boolean isNullable() {
+			return false;
+		}
+	}
+
+	private static final class CreationalContextMockImpl<T> implements CreationalContext<T> {
+
+		@Override
+		public void push(T incompleteInstance) {
+			// no-op
+		}
+
+		@Override
+		public void release() {
+			// no-op
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.faces.render.ResponseStateManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.liferay.faces.util.context.map.FacesRequestParameterMap;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class FacesRequestParameterMapImplTest {
+
+	// Private Constants
+	private static final String NAMESPACE = "_1_WAR_myportlet_";
+
+	@Test
+	public void testAddValue() {
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(NAMESPACE, null,
+				Collections.<String, String>emptyMap(), null, ":", true, false);
+
+		facesRequestParameterMap.addValue("foo", "1");
+		facesRequestParameterMap.addValue("foo", "2");
+		Assert.assertArrayEquals(new String[] { "1", "2" }, facesRequestParameterMap.get("foo"));
+		Assert.assertArrayEquals(new String[] { "1", "2" }, facesRequestParameterMap.get(NAMESPACE + "foo"));
+		Assert.assertTrue(facesRequestParameterMap.keySet().contains(NAMESPACE + "foo"));
+	}
+
+	@Test
+	public void testEntrySetModification() {
+
+		Map<String, String[]> parameterMap = new HashMap<String, String[]>();
+		parameterMap.put(NAMESPACE + "foo", new String[] { "1" });
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(parameterMap, NAMESPACE,
+				null, Collections.<String, String>emptyMap(), null, null, false, false);
+
+		Assert.assertEquals("1", facesRequestParameterMap.getFirst("foo"));
+
+		for (Map.Entry<String, String[]> mapEntry : facesRequestParameterMap.entrySet()) {
+			mapEntry.setValue(new String[] { "2" });
+		}
+
+		Assert.assertEquals("2", facesRequestParameterMap.getFirst("foo"));
+		facesRequestParameterMap.values().clear();
+		Assert.assertNull(facesRequestParameterMap.getFirst("foo"));
+		Assert.assertFalse(facesRequestParameterMap.containsKey("foo"));
+	}
+
+	@Test
+	public void testGet() {
+
+		Map<String, String[]> parameterMap = new HashMap<String, String[]>();
+		parameterMap.put("plain", new String[] { "plain" });
+		parameterMap.put(NAMESPACE + "namespaced", new String[] { "namespaced" });
+		parameterMap.put(NAMESPACE + ":prefixed", new String[] { "prefixed" });
+		parameterMap.put(NAMESPACE + "both", new String[] { "namespaced" });
+		parameterMap.put(NAMESPACE + ":both", new String[] { "prefixed" });
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(parameterMap, NAMESPACE,
+				null, Collections.<String, String>emptyMap(), "HTML_BASIC", ":", false, false);
+
+		Assert.assertEquals("plain", facesRequestParameterMap.getFirst("plain"));
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst("namespaced"));
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst(NAMESPACE + "namespaced"));
+		Assert.assertEquals("prefixed", facesRequestParameterMap.getFirst("prefixed"));
+
+		// The namespaced name takes precedence over the prefixed name.
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst("both"));
+		Assert.assertTrue(facesRequestParameterMap.containsKey("prefixed"));
+		Assert.assertFalse(facesRequestParameterMap.containsKey("missing"));
+		Assert.assertNull(facesRequestParameterMap.get("missing"));
+
+		// Section 6.9 of the Bridge Spec
+		Assert.assertEquals("HTML_BASIC", facesRequestParameterMap.getFirst(ResponseStateManager.RENDER_KIT_ID_PARAM));
+		Assert.assertTrue(facesRequestParameterMap.keySet().contains(ResponseStateManager.RENDER_KIT_ID_PARAM));
+	}
+
+	@Test
+	public void testIndexedMiss() {
+
+		final Set<Object> lookedUpKeys = new HashSet<Object>();
+		Map<String, String[]> parameterMap = new HashMap<String, String[]>() {
+
+				// serialVersionUID
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public String[] get(Object key) {
+
+					lookedUpKeys.add(key);
+
+					return super.get(key);
+				}
+			};
+
+		parameterMap.put(NAMESPACE + "namespaced", new String[] { "namespaced" });
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(parameterMap, NAMESPACE,
+				null, Collections.<String, String>emptyMap(), null, ":", false, false);
+
+		// Since all of the parameters were indexed, a miss must not build the namespaced (or prefixed) name.
+		Assert.assertNull(facesRequestParameterMap.get("javax.faces.partial.ajax"));
+		Assert.assertFalse(facesRequestParameterMap.containsKey("javax.faces.source"));
+		Assert.assertFalse(lookedUpKeys.contains(NAMESPACE + "javax.faces.partial.ajax"));
+		Assert.assertFalse(lookedUpKeys.contains(NAMESPACE + ":javax.faces.partial.ajax"));
+		Assert.assertFalse(lookedUpKeys.contains(NAMESPACE + "javax.faces.source"));
+		Assert.assertFalse(lookedUpKeys.contains(NAMESPACE + ":javax.faces.source"));
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst("namespaced"));
+	}
+
+	@Test
+	public void testKeySet() {
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(
+				new HashMap<String, String[]>(), NAMESPACE, null, Collections.<String, String>emptyMap(), null, null,
+				false, false);
+
+		Set<String> keySet = facesRequestParameterMap.keySet();
+		Assert.assertFalse(keySet.contains(NAMESPACE + "foo"));
+
+		// The key set is not cached, so it must reflect parameters that were added after it was returned.
+		facesRequestParameterMap.put(NAMESPACE + "foo", new String[] { "bar" });
+		Assert.assertTrue(facesRequestParameterMap.keySet().contains(NAMESPACE + "foo"));
+	}
+
+	@Test
+	public void testNonIterableParameterMap() {
+
+		// Simulate a parameter-map (such as that of a Liferay WSRP producer portlet) that is unable to iterate over all
+		// of the parameters.
+		Map<String, String[]> parameterMap = new HashMap<String, String[]>() {
+
+				// serialVersionUID
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Set<Map.Entry<String, String[]>> entrySet() {
+					return Collections.emptySet();
+				}
+
+				@Override
+				public Set<String> keySet() {
+					return Collections.emptySet();
+				}
+			};
+
+		parameterMap.put(NAMESPACE + "namespaced", new String[] { "namespaced" });
+		parameterMap.put(NAMESPACE + ":prefixed", new String[] { "prefixed" });
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(parameterMap, NAMESPACE,
+				null, Collections.<String, String>emptyMap(), null, ":", false, false);
+
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst("namespaced"));
+		Assert.assertEquals("namespaced", facesRequestParameterMap.getFirst(NAMESPACE + "namespaced"));
+		Assert.assertEquals("prefixed", facesRequestParameterMap.getFirst("prefixed"));
+		Assert.assertTrue(facesRequestParameterMap.containsKey("namespaced"));
+		Assert.assertTrue(facesRequestParameterMap.containsKey("prefixed"));
+	}
+
+	@Test
+	public void testPutAndRemove() {
+
+		FacesRequestParameterMap facesRequestParameterMap = new FacesRequestParameterMapImpl(
+				new HashMap<String, String[]>(), NAMESPACE, null, Collections.<String, String>emptyMap(), null, null,
+				false, false);
+
+		Assert.assertFalse(facesRequestParameterMap.containsKey("foo"));
+		facesRequestParameterMap.put(NAMESPACE + "foo", new String[] { "bar" });
+		Assert.assertEquals("bar", facesRequestParameterMap.getFirst("foo"));
+		Assert.assertTrue(facesRequestParameterMap.keySet().contains(NAMESPACE + "foo"));
+		facesRequestParameterMap.remove(NAMESPACE + "foo");
+		Assert.assertFalse(facesRequestParameterMap.containsKey("foo"));
+		Assert.assertNull(facesRequestParameterMap.getFirst("foo"));
+		Assert.assertFalse(facesRequestParameterMap.keySet().contains(NAMESPACE + "foo"));
+	}
+}
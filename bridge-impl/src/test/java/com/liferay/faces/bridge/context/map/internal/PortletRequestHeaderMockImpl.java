@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.portlet.faces.Bridge;
+
+import com.liferay.faces.portlet.PortletRequestMockImpl;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class PortletRequestHeaderMockImpl extends PortletRequestMockImpl {
+
+	// Private Final Data Members
+	private final List<Locale> locales;
+	private final Bridge.PortletPhase portletPhase;
+	private final Map<String, List<String>> properties;
+
+	// Private Data Members
+	private int propertyLookupCount;
+
+	public PortletRequestHeaderMockImpl(Bridge.PortletPhase portletPhase, Locale... locales) {
+
+		super("/my-portlet");
+		this.portletPhase = portletPhase;
+		this.locales = Arrays.asList(locales);
+		this.properties = new LinkedHashMap<String, List<String>>();
+	}
+
+	public void addProperty(String name, String value) {
+
+		List<String> values = getPropertyValues(name);
+
+		if (values == null) {
+			values = new ArrayList<String>();
+			properties.put(name, values);
+		}
+
+		values.add(value);
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+
+		Object value = null;
+
+		if (Bridge.PORTLET_LIFECYCLE_PHASE.equals(name)) {
+			value = portletPhase;
+		}
+
+		return value;
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(locales);
+	}
+
+	/**
+	 * Returns the values of the specified property. Like HTTP header names, property names are case-insensitive.
+	 */
+	@Override
+	public Enumeration<String> getProperties(String name) {
+
+		propertyLookupCount++;
+
+		List<String> values = getPropertyValues(name);
+
+		if (values == null) {
+			values = Collections.emptyList();
+		}
+
+		return Collections.enumeration(values);
+	}
+
+	@Override
+	public Enumeration<String> getPropertyNames() {
+		return Collections.enumeration(properties.keySet());
+	}
+
+	/**
+	 * Returns the number of times that {@link #getProperties(String)} has been called.
+	 */
+	public int getPropertyLookupCount() {
+		return propertyLookupCount;
+	}
+
+	@Override
+	public Enumeration<String> getResponseContentTypes() {
+		return Collections.enumeration(Arrays.asList("text/html", "application/xhtml+xml"));
+	}
+
+	private List<String> getPropertyValues(String name) {
+
+		List<String> values = null;
+
+		for (Map.Entry<String, List<String>> mapEntry : properties.entrySet()) {
+
+			if (mapEntry.getKey().equalsIgnoreCase(name)) {
+				values = mapEntry.getValue();
+
+				break;
+			}
+		}
+
+		return values;
+	}
+}
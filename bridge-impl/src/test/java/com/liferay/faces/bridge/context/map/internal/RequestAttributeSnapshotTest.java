@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class RequestAttributeSnapshotTest {
+
+	@Test
+	public void testSnapshotIsUnaffectedByRemoval() {
+
+		Map<String, Object> requestMap = new LinkedHashMap<String, Object>();
+		requestMap.put("foo", "fooValue");
+		requestMap.put("bar", Boolean.TRUE);
+		requestMap.put("baz", null);
+
+		RequestAttributeSnapshot requestAttributeSnapshot = RequestAttributeSnapshot.of(requestMap);
+		Assert.assertEquals(3, requestAttributeSnapshot.size());
+
+		for (int i = 0; i < requestAttributeSnapshot.size(); i++) {
+			requestMap.remove(requestAttributeSnapshot.getName(i));
+		}
+
+		Assert.assertTrue(requestMap.isEmpty());
+		Assert.assertEquals("foo", requestAttributeSnapshot.getName(0));
+		Assert.assertEquals("fooValue", requestAttributeSnapshot.getValue(0));
+		Assert.assertEquals("bar", requestAttributeSnapshot.getName(1));
+		Assert.assertEquals(Boolean.TRUE, requestAttributeSnapshot.getValue(1));
+		Assert.assertEquals("baz", requestAttributeSnapshot.getName(2));
+		Assert.assertNull(requestAttributeSnapshot.getValue(2));
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.portlet.faces.Bridge;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class RequestHeaderValuesMapTest {
+
+	@Test
+	public void testCaseInsensitiveAccess() {
+
+		Map<String, String[]> requestHeaderValuesMap = new RequestHeaderValuesMap(newPortletRequest(
+					Bridge.PortletPhase.HEADER_PHASE));
+
+		Assert.assertArrayEquals(new String[] { "foo,bar" }, requestHeaderValuesMap.get("X-Custom"));
+		Assert.assertArrayEquals(new String[] { "foo,bar" }, requestHeaderValuesMap.get("x-custom"));
+		Assert.assertArrayEquals(new String[] { "foo,bar" }, requestHeaderValuesMap.get("X-CUSTOM"));
+		Assert.assertTrue(requestHeaderValuesMap.containsKey("x-CuStOm"));
+		Assert.assertArrayEquals(new String[] { "www.liferay.com" }, requestHeaderValuesMap.get("HOST"));
+		Assert.assertFalse(requestHeaderValuesMap.containsKey("X-Missing"));
+		Assert.assertNull(requestHeaderValuesMap.get("X-Missing"));
+
+		Map<String, String> requestHeaderMap = new RequestHeaderMap(requestHeaderValuesMap);
+		Assert.assertEquals("foo,bar", requestHeaderMap.get("x-custom"));
+		Assert.assertEquals("foo,bar", requestHeaderMap.get("X-Custom"));
+		Assert.assertTrue(requestHeaderMap.containsKey("HOST"));
+		Assert.assertFalse(requestHeaderMap.containsKey("X-Missing"));
+	}
+
+	@Test
+	public void testAbsentKeyIsRemembered() {
+
+		PortletRequestHeaderMockImpl portletRequest = newPortletRequest(Bridge.PortletPhase.HEADER_PHASE);
+		Map<String, String[]> requestHeaderValuesMap = new RequestHeaderValuesMap(portletRequest);
+
+		Assert.assertNull(requestHeaderValuesMap.get("X-Missing"));
+
+		int propertyLookupCount = portletRequest.getPropertyLookupCount();
+		Assert.assertNull(requestHeaderValuesMap.get("X-Missing"));
+		Assert.assertFalse(requestHeaderValuesMap.containsKey("x-missing"));
+		Assert.assertEquals(propertyLookupCount, portletRequest.getPropertyLookupCount());
+
+		// A value that is put into the map after the key was found to be absent must be visible.
+		requestHeaderValuesMap.put("X-Missing", new String[] { "found" });
+		Assert.assertArrayEquals(new String[] { "found" }, requestHeaderValuesMap.get("x-missing"));
+	}
+
+	@Test
+	public void testLazyLookupMatchesIteration() {
+
+		for (Bridge.PortletPhase portletPhase : Bridge.PortletPhase.values()) {
+
+			if (portletPhase != Bridge.PortletPhase.RESOURCE_PHASE) {
+
+				Map<String, String[]> lazyMap = new RequestHeaderValuesMap(newPortletRequest(portletPhase));
+				Map<String, String[]> iteratedMap = new HashMap<String, String[]>(new RequestHeaderValuesMap(
+							newPortletRequest(portletPhase)));
+
+				String[] headerNames = new String[] {
+						"Accept", "Accept-Language", "Content-Length", "Content-Type", "Faces-Request", "Host",
+						"X-Custom", "X-Missing"
+					};
+
+				for (String headerName : headerNames) {
+
+					String lowerCaseHeaderName = headerName.toLowerCase();
+					Assert.assertEquals(headerName, iteratedMap.containsKey(lowerCaseHeaderName),
+						lazyMap.containsKey(headerName));
+					Assert.assertArrayEquals(headerName, iteratedMap.get(lowerCaseHeaderName),
+						lazyMap.get(headerName));
+				}
+
+				Assert.assertEquals(iteratedMap.keySet(), lazyMap.keySet());
+			}
+		}
+	}
+
+	@Test
+	public void testPutBeforeIteration() {
+
+		Map<String, String[]> requestHeaderValuesMap = new RequestHeaderValuesMap(newPortletRequest(
+					Bridge.PortletPhase.HEADER_PHASE));
+
+		requestHeaderValuesMap.put("X-Added", new String[] { "added" });
+		requestHeaderValuesMap.put("Host", new String[] { "www.example.com" });
+
+		// Iterating the map computes all of the values, which must not discard the values that were put into the map.
+		Assert.assertTrue(requestHeaderValuesMap.keySet().contains("x-added"));
+		Assert.assertTrue(requestHeaderValuesMap.keySet().contains("x-custom"));
+		Assert.assertArrayEquals(new String[] { "added" }, requestHeaderValuesMap.get("X-Added"));
+		Assert.assertArrayEquals(new String[] { "www.example.com" }, requestHeaderValuesMap.get("HOST"));
+	}
+
+	@Test
+	public void testSynthesizedHeaders() {
+
+		Map<String, String[]> requestHeaderValuesMap = new RequestHeaderValuesMap(newPortletRequest(
+					Bridge.PortletPhase.HEADER_PHASE));
+
+		// The "Accept-Language" header is synthesized from the locales of the request.
+		Assert.assertArrayEquals(new String[] { "en-US,de" }, requestHeaderValuesMap.get("accept-language"));
+
+		// The empty "Accept" header is replaced with the response content types of the request.
+		Assert.assertArrayEquals(new String[] { "text/html,application/xhtml+xml" },
+			requestHeaderValuesMap.get("Accept"));
+
+		// FACES-3232: Within a HEADER_REQUEST the map must exclude the "Content-Type" and "Content-Length" properties.
+		Assert.assertFalse(requestHeaderValuesMap.containsKey("Content-Type"));
+		Assert.assertFalse(requestHeaderValuesMap.containsKey("content-length"));
+		Assert.assertFalse(requestHeaderValuesMap.keySet().contains("content-type"));
+		Assert.assertTrue(requestHeaderValuesMap.keySet().contains("accept"));
+	}
+
+	private PortletRequestHeaderMockImpl newPortletRequest(Bridge.PortletPhase portletPhase) {
+
+		PortletRequestHeaderMockImpl portletRequest = new PortletRequestHeaderMockImpl(portletPhase, Locale.US,
+				Locale.GERMAN);
+		portletRequest.addProperty("Host", "www.liferay.com");
+		portletRequest.addProperty("X-Custom", "foo");
+		portletRequest.addProperty("x-custom", "bar");
+		portletRequest.addProperty("Accept", "");
+		portletRequest.addProperty("Accept-Language", "fr");
+		portletRequest.addProperty("Content-Type", "text/html");
+		portletRequest.addProperty("Content-Length", "123");
+
+		return portletRequest;
+	}
+}
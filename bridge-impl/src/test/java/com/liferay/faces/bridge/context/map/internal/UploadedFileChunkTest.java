@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class UploadedFileChunkTest {
+
+	@Test
+	public void testGetPartialFileName() {
+
+		UploadedFileChunk uploadedFileChunk = UploadedFileChunk.parse("bytes 0-4/11");
+		String partialFileName = uploadedFileChunk.getPartialFileName("A_portlet/file/foo.txt");
+		Assert.assertTrue(partialFileName.endsWith(".part"));
+
+		// The chunks of an upload are written to the same partial file.
+		Assert.assertEquals(partialFileName,
+				UploadedFileChunk.parse("bytes 5-10/11").getPartialFileName("A_portlet/file/foo.txt"));
+
+		// The same file name that is uploaded by a different portlet or field, or with a different complete length, is
+		// written to a different partial file.
+		Assert.assertFalse(partialFileName.equals(uploadedFileChunk.getPartialFileName("B_portlet/file/foo.txt")));
+		Assert.assertFalse(partialFileName.equals(uploadedFileChunk.getPartialFileName("A_portlet/file2/foo.txt")));
+		Assert.assertFalse(partialFileName.equals(
+				UploadedFileChunk.parse("bytes 0-4/12").getPartialFileName("A_portlet/file/foo.txt")));
+
+		// The chunks of an upload are written while holding the same lock.
+		File uploadedFilesPath = new File(System.getProperty("java.io.tmpdir"));
+		Object partialFileLock = UploadedFileChunk.getPartialFileLock(new File(uploadedFilesPath, partialFileName));
+		Assert.assertTrue(partialFileLock ==
+				UploadedFileChunk.getPartialFileLock(new File(uploadedFilesPath, partialFileName)));
+	}
+
+	@Test
+	public void testParse() {
+
+		UploadedFileChunk uploadedFileChunk = UploadedFileChunk.parse("bytes 0-4/11");
+		Assert.assertEquals(0L, uploadedFileChunk.getFirstBytePos());
+		Assert.assertEquals(5L, uploadedFileChunk.getLength());
+		Assert.assertEquals(11L, uploadedFileChunk.getCompleteLength());
+		Assert.assertFalse(uploadedFileChunk.isLast());
+		Assert.assertTrue(UploadedFileChunk.parse("Bytes 5-10/11").isLast());
+		Assert.assertNull(UploadedFileChunk.parse(null));
+		Assert.assertNull(UploadedFileChunk.parse("bytes 0-4/*"));
+		Assert.assertNull(UploadedFileChunk.parse("bytes 5-4/11"));
+		Assert.assertNull(UploadedFileChunk.parse("bytes 0-11/11"));
+		Assert.assertNull(UploadedFileChunk.parse("items 0-4/11"));
+	}
+
+	@Test
+	public void testMissingChunkDoesNotCreateFile() throws IOException {
+
+		File uploadedFilesPath = Files.createTempDirectory("uploadedFiles").toFile();
+		File partialFile = new File(uploadedFilesPath, "foo.txt.part");
+
+		// A chunk that is not the first chunk cannot create the partial file.
+		Assert.assertFalse(UploadedFileChunk.parse("bytes 5-10/11").writeTo(partialFile, newInputStream(" World")));
+		Assert.assertFalse(partialFile.exists());
+
+		uploadedFilesPath.delete();
+	}
+
+	@Test
+	public void testWriteTo() throws IOException {
+
+		File partialFile = File.createTempFile("uploadedFile", ".part");
+
+		try {
+
+			// The first chunk is written at the beginning of the (empty) partial file.
+			Assert.assertTrue(UploadedFileChunk.parse("bytes 0-4/11").writeTo(partialFile, newInputStream("Hello")));
+
+			// A chunk that is beyond the end of the partial file is not written since a chunk is missing.
+			Assert.assertFalse(UploadedFileChunk.parse("bytes 6-10/11").writeTo(partialFile,
+					newInputStream("World")));
+			Assert.assertEquals(5L, partialFile.length());
+
+			// A re-sent chunk replaces the bytes that were previously received.
+			Assert.assertTrue(UploadedFileChunk.parse("bytes 0-4/11").writeTo(partialFile, newInputStream("HELLO")));
+			Assert.assertTrue(UploadedFileChunk.parse("bytes 5-10/11").writeTo(partialFile,
+					newInputStream(" World")));
+			Assert.assertEquals("HELLO World", new String(Files.readAllBytes(partialFile.toPath()), "UTF-8"));
+
+			// A chunk that contains fewer bytes than specified by its range is discarded.
+			boolean incomplete = false;
+
+			try {
+				UploadedFileChunk.parse("bytes 5-10/11").writeTo(partialFile, newInputStream(" Wor"));
+			}
+			catch (IOException e) {
+				incomplete = true;
+			}
+
+			Assert.assertTrue(incomplete);
+			Assert.assertEquals("HELLO", new String(Files.readAllBytes(partialFile.toPath()), "UTF-8"));
+		}
+		finally {
+			partialFile.delete();
+		}
+	}
+
+	private ByteArrayInputStream newInputStream(String value) throws IOException {
+		return new ByteArrayInputStream(value.getBytes("UTF-8"));
+	}
+}
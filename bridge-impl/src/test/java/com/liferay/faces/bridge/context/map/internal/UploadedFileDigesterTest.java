@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.liferay.faces.bridge.internal.BridgeExt;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class UploadedFileDigesterTest {
+
+	// Private Constants
+	private static final String EMPTY_SHA_256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+	private static final String HELLO_WORLD_SHA_256 =
+		"a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e";
+
+	@Test
+	public void testDigest() throws IOException, NoSuchAlgorithmException {
+
+		UploadedFileDigester uploadedFileDigester = new UploadedFileDigester(MessageDigest.getInstance("SHA-256"));
+		Map<String, Object> attributeMap = new HashMap<String, Object>();
+		uploadedFileDigester.digest("Hello World".getBytes("UTF-8"), attributeMap);
+		Assert.assertEquals(HELLO_WORLD_SHA_256, attributeMap.get(BridgeExt.UPLOADED_FILE_DIGEST));
+		Assert.assertEquals("SHA-256", attributeMap.get(BridgeExt.UPLOADED_FILE_DIGEST_ALGORITHM));
+		Assert.assertEquals(11L, attributeMap.get(BridgeExt.UPLOADED_FILE_BYTE_COUNT));
+
+		// A zero-byte uploaded file has the digest of the empty input.
+		attributeMap = new HashMap<String, Object>();
+		uploadedFileDigester.digest(new byte[0], attributeMap);
+		Assert.assertEquals(EMPTY_SHA_256, attributeMap.get(BridgeExt.UPLOADED_FILE_DIGEST));
+		Assert.assertEquals(0L, attributeMap.get(BridgeExt.UPLOADED_FILE_BYTE_COUNT));
+	}
+
+	@Test
+	public void testWriteAfterFailedWrite() throws IOException, NoSuchAlgorithmException {
+
+		File uploadedFilesPath = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileDigester uploadedFileDigester = new UploadedFileDigester(MessageDigest.getInstance("SHA-256"));
+
+		// Simulate an uploaded file whose stream fails after some of the bytes have been read.
+		InputStream failingInputStream = new InputStream() {
+
+				private int count;
+
+				@Override
+				public int read() throws IOException {
+
+					if (count++ < 5) {
+						return 'x';
+					}
+
+					throw new IOException("Connection reset");
+				}
+			};
+
+		File failedFile = new File(uploadedFilesPath, "failed.txt");
+		Map<String, Object> attributeMap = new HashMap<String, Object>();
+		boolean failed = false;
+
+		try {
+			uploadedFileDigester.write(failingInputStream, failedFile, attributeMap);
+		}
+		catch (IOException e) {
+			failed = true;
+		}
+
+		Assert.assertTrue(failed);
+		Assert.assertFalse(failedFile.exists());
+		Assert.assertTrue(attributeMap.isEmpty());
+
+		// The digest of the next uploaded file must not include any of the bytes of the failed uploaded file.
+		File savedFile = new File(uploadedFilesPath, "saved.txt");
+		byte[] bytes = "Hello World".getBytes("UTF-8");
+		uploadedFileDigester.write(new ByteArrayInputStream(bytes), savedFile, attributeMap);
+		Assert.assertEquals(HELLO_WORLD_SHA_256, attributeMap.get(BridgeExt.UPLOADED_FILE_DIGEST));
+		Assert.assertEquals(11L, attributeMap.get(BridgeExt.UPLOADED_FILE_BYTE_COUNT));
+		Assert.assertArrayEquals(bytes, Files.readAllBytes(savedFile.toPath()));
+
+		savedFile.delete();
+		uploadedFilesPath.delete();
+	}
+}
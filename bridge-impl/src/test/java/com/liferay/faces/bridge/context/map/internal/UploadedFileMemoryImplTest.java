@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.liferay.faces.bridge.model.internal.UploadedFileBridgeImpl;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class UploadedFileMemoryImplTest {
+
+	@Test
+	public void testBridgeDeleteDoesNotWriteFile() throws IOException {
+
+		File uploadedFilesPath = Files.createTempDirectory("uploadedFiles").toFile();
+		File uploadedFile = new File(new File(uploadedFilesPath, "session"), "foo.txt");
+		byte[] bytes = "Hello World".getBytes("UTF-8");
+		UploadedFileMemoryImpl uploadedFileMemoryImpl = new UploadedFileMemoryImpl(uploadedFile.getAbsolutePath(),
+				new HashMap<String, Object>(), "UTF-8", "text/plain", new HashMap<String, List<String>>(), "1",
+				"foo.txt", bytes, null);
+
+		// PrimeFaces 8+ calls getInputStream() (which deletes the uploaded file) more than once.
+		UploadedFileBridgeImpl uploadedFileBridgeImpl = new UploadedFileBridgeImpl(uploadedFileMemoryImpl, true, 8);
+
+		for (int i = 0; i < 2; i++) {
+
+			InputStream inputStream = uploadedFileBridgeImpl.getInputStream();
+			Assert.assertEquals('H', inputStream.read());
+			inputStream.close();
+		}
+
+		Assert.assertFalse(uploadedFileMemoryImpl.isWritten());
+		Assert.assertFalse(uploadedFile.exists());
+		Assert.assertFalse(uploadedFile.getParentFile().exists());
+
+		// Since the uploaded file has been deleted, it no longer has a path.
+		Assert.assertNull(uploadedFileMemoryImpl.getAbsolutePath());
+
+		uploadedFilesPath.delete();
+	}
+
+	@Test
+	public void testDelayedWriteEnforcesQuota() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(16L, 0L, 0L,
+				new Executor() {
+
+					@Override
+					public void execute(Runnable runnable) {
+						runnable.run();
+					}
+				});
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+		byte[] bytes = "Hello World".getBytes("UTF-8");
+		UploadedFileMemoryImpl uploadedFileMemoryImpl1 = new UploadedFileMemoryImpl(new File(uploadedFilesPath,
+					"foo.txt").getAbsolutePath(), new HashMap<String, Object>(), "UTF-8", "text/plain",
+				new HashMap<String, List<String>>(), "1", "foo.txt", bytes, uploadedFileStorageManager);
+		UploadedFileMemoryImpl uploadedFileMemoryImpl2 = new UploadedFileMemoryImpl(new File(uploadedFilesPath,
+					"bar.txt").getAbsolutePath(), new HashMap<String, Object>(), "UTF-8", "text/plain",
+				new HashMap<String, List<String>>(), "2", "bar.txt", bytes, uploadedFileStorageManager);
+
+		// Writing the first file to disk counts against the quota of the session.
+		Assert.assertNotNull(uploadedFileMemoryImpl1.getAbsolutePath());
+		Assert.assertEquals(bytes.length, uploadedFileStorageManager.getSessionBytes("session1"));
+
+		// Writing the second file to disk would exceed the quota of the session.
+		Assert.assertNull(uploadedFileMemoryImpl2.getAbsolutePath());
+		Assert.assertFalse(uploadedFileMemoryImpl2.isWritten());
+		Assert.assertEquals(bytes.length, uploadedFileStorageManager.getSessionBytes("session1"));
+
+		// Deleting the first file frees its bytes.
+		uploadedFileMemoryImpl1.delete();
+		Assert.assertEquals(0L, uploadedFileStorageManager.getSessionBytes("session1"));
+		Assert.assertNotNull(uploadedFileMemoryImpl2.getAbsolutePath());
+
+		uploadedFileMemoryImpl2.delete();
+		uploadedFilesPath.delete();
+		uploadedFilesPath.getParentFile().delete();
+		uploadedFilesDir.delete();
+	}
+
+	@Test
+	public void testFileWrittenOnlyWhenPathRequested() throws IOException {
+
+		File uploadedFilesPath = Files.createTempDirectory("uploadedFiles").toFile();
+		File uploadedFile = new File(new File(uploadedFilesPath, "session"), "foo.txt");
+		byte[] bytes = "Hello World".getBytes("UTF-8");
+		Map<String, List<String>> headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+		headers.put("Content-Type", new ArrayList<String>(Collections.singletonList("text/plain")));
+
+		UploadedFileMemoryImpl uploadedFileMemoryImpl = new UploadedFileMemoryImpl(uploadedFile.getAbsolutePath(),
+				new HashMap<String, Object>(), "UTF-8", "text/plain", headers, "1", "foo.txt", bytes, null);
+
+		Assert.assertEquals(bytes.length, uploadedFileMemoryImpl.getSize());
+		Assert.assertEquals("text/plain", uploadedFileMemoryImpl.getHeader("content-type"));
+		Assert.assertArrayEquals(bytes, uploadedFileMemoryImpl.getBytes());
+
+		InputStream inputStream = uploadedFileMemoryImpl.getInputStream();
+		Assert.assertEquals('H', inputStream.read());
+		inputStream.close();
+		Assert.assertFalse(uploadedFile.exists());
+
+		// Requesting the absolute path causes the file (and its parent directory) to be written to disk.
+		Assert.assertFalse(uploadedFileMemoryImpl.isWritten());
+		Assert.assertEquals(uploadedFile.getAbsolutePath(), uploadedFileMemoryImpl.getAbsolutePath());
+		Assert.assertTrue(uploadedFileMemoryImpl.isWritten());
+		Assert.assertTrue(uploadedFile.exists());
+		Assert.assertArrayEquals(bytes, Files.readAllBytes(uploadedFile.toPath()));
+
+		uploadedFileMemoryImpl.delete();
+		Assert.assertFalse(uploadedFile.exists());
+
+		boolean deleted = false;
+
+		try {
+			uploadedFileMemoryImpl.getInputStream();
+		}
+		catch (IOException e) {
+			deleted = true;
+		}
+
+		Assert.assertTrue(deleted);
+
+		uploadedFile.getParentFile().delete();
+		uploadedFilesPath.delete();
+	}
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.context.map.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class UploadedFileStorageManagerTest {
+
+	// Private Constants
+	private static final Executor CALLER_RUNS_EXECUTOR = new Executor() {
+
+			@Override
+			public void execute(Runnable runnable) {
+				runnable.run();
+			}
+		};
+
+	@Test
+	public void testCancel() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(10L, 0L, 0L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath, 8L));
+		uploadedFileStorageManager.cancel(uploadedFilesPath, 8L);
+		Assert.assertEquals(0L, uploadedFileStorageManager.getSessionBytes("session1"));
+		Assert.assertEquals(0L, uploadedFileStorageManager.getTotalBytes());
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath, 10L));
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	@Test
+	public void testReap() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		long expiredTime = System.currentTimeMillis() - 60000L;
+
+		// Directories that are not owned by the bridge must never be deleted, even if they are named like a session.
+		File unrelatedPath = new File(uploadedFilesDir, "unrelated1");
+		writeFile(new File(unrelatedPath, "foo.txt"), 1);
+		unrelatedPath.setLastModified(expiredTime);
+
+		File uploadsDir = new File(uploadedFilesDir, "liferay-faces-bridge-uploads");
+		File orphanedPath = new File(uploadsDir, "orphaned1");
+		writeFile(new File(orphanedPath, "foo.txt"), 1);
+		orphanedPath.setLastModified(expiredTime);
+
+		File unexpiredPath = new File(uploadsDir, "unexpired1");
+		writeFile(new File(unexpiredPath, "foo.txt"), 1);
+
+		File nonSessionPath = new File(uploadsDir, "not-a-session");
+		nonSessionPath.mkdirs();
+		nonSessionPath.setLastModified(expiredTime);
+
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(0L, 0L, 1000L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+
+		Assert.assertEquals(uploadsDir, uploadedFilesPath.getParentFile());
+		Assert.assertFalse(orphanedPath.exists());
+		Assert.assertTrue(unexpiredPath.exists());
+		Assert.assertTrue(nonSessionPath.exists());
+		Assert.assertTrue(unrelatedPath.exists());
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	@Test
+	public void testReapKeepsActiveSession() throws IOException, InterruptedException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(0L, 0L, 1L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+
+		// A file that was uploaded long ago during a session that is still active (for example, by the first step of a
+		// wizard) must not be deleted.
+		writeFile(new File(uploadedFilesPath, "foo.txt"), 1);
+		uploadedFilesPath.setLastModified(System.currentTimeMillis() - 60000L);
+		Thread.sleep(10L);
+		uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(), "session2");
+		Assert.assertTrue(new File(uploadedFilesPath, "foo.txt").exists());
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	@Test
+	public void testRemoveSession() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(0L, 0L, 0L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath, 8L));
+		writeFile(new File(uploadedFilesPath, "foo.txt"), 8);
+		uploadedFileStorageManager.commit(uploadedFilesPath, 8L);
+		Assert.assertEquals(8L, uploadedFileStorageManager.getTotalBytes());
+
+		uploadedFileStorageManager.removeSession("session1");
+		Assert.assertFalse(uploadedFilesPath.exists());
+		Assert.assertEquals(0L, uploadedFileStorageManager.getTotalBytes());
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	@Test
+	public void testSessionQuotaAfterDelete() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(10L, 0L, 0L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+		File uploadedFile = new File(uploadedFilesPath, "foo.txt");
+
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath, 8L));
+		writeFile(uploadedFile, 8);
+		uploadedFileStorageManager.commit(uploadedFilesPath, 8L);
+		Assert.assertFalse(uploadedFileStorageManager.reserve(uploadedFilesPath, 5L));
+
+		// Since time-to-live is disabled, the bytes of the deleted file must be freed when the quota is checked.
+		Assert.assertTrue(uploadedFile.delete());
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath, 5L));
+		Assert.assertEquals(5L, uploadedFileStorageManager.getSessionBytes("session1"));
+		Assert.assertEquals(5L, uploadedFileStorageManager.getTotalBytes());
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	@Test
+	public void testTotalQuotaAfterDelete() throws IOException {
+
+		File uploadedFilesDir = Files.createTempDirectory("uploadedFiles").toFile();
+		UploadedFileStorageManager uploadedFileStorageManager = new UploadedFileStorageManager(0L, 10L, 0L,
+				CALLER_RUNS_EXECUTOR);
+		File uploadedFilesPath1 = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session1");
+		File uploadedFilesPath2 = uploadedFileStorageManager.getUploadedFilesPath(uploadedFilesDir.getAbsolutePath(),
+				"session2");
+		File uploadedFile = new File(uploadedFilesPath1, "foo.txt");
+
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath1, 8L));
+		writeFile(uploadedFile, 8);
+		uploadedFileStorageManager.commit(uploadedFilesPath1, 8L);
+		Assert.assertFalse(uploadedFileStorageManager.reserve(uploadedFilesPath2, 5L));
+
+		// The bytes of a file that was deleted during another session are freed by a scan of all of the directories,
+		// which takes place in the background after a reservation is rejected.
+		Assert.assertTrue(uploadedFile.delete());
+		Assert.assertFalse(uploadedFileStorageManager.reserve(uploadedFilesPath2, 5L));
+		Assert.assertEquals(0L, uploadedFileStorageManager.getSessionBytes("session1"));
+		Assert.assertTrue(uploadedFileStorageManager.reserve(uploadedFilesPath2, 5L));
+		Assert.assertEquals(5L, uploadedFileStorageManager.getTotalBytes());
+
+		deleteRecursively(uploadedFilesDir);
+	}
+
+	private void deleteRecursively(File file) {
+
+		File[] files = file.listFiles();
+
+		if (files != null) {
+
+			for (File child : files) {
+				deleteRecursively(child);
+			}
+		}
+
+		file.delete();
+	}
+
+	private void writeFile(File file, int byteCount) throws IOException {
+
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), new byte[byteCount]);
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.faces.context.FacesContext;
+import javax.portlet.Event;
+import javax.portlet.faces.event.EventNavigationResult;
+import javax.xml.namespace.QName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class DispatchingBridgeEventHandlerTest {
+
+	// Private Constants
+	private static final String NAMESPACE = "http://liferay.com/events";
+
+	@Test
+	public void testDispatch() {
+
+		TestEventHandler testEventHandler = new TestEventHandler();
+		EventNavigationResult eventNavigationResult = testEventHandler.handleEvent(null,
+				new EventMockImpl(new QName(NAMESPACE, "ipc.customerSelected"), "1"));
+		Assert.assertEquals("customerSelected", eventNavigationResult.getOutcome());
+
+		// A method can handle more than one event name, and a method that returns void results in no navigation.
+		Assert.assertNull(testEventHandler.handleEvent(null, new EventMockImpl(new QName(NAMESPACE, "ipc.refresh"),
+					null)));
+		Assert.assertNull(testEventHandler.handleEvent(null, new EventMockImpl(new QName("ipc.reset"), null)));
+
+		List<String> handled = testEventHandler.getHandled();
+		Assert.assertEquals(3, handled.size());
+		Assert.assertEquals("customerSelected:1", handled.get(0));
+		Assert.assertEquals("refresh:ipc.refresh", handled.get(1));
+		Assert.assertEquals("refresh:ipc.reset", handled.get(2));
+	}
+
+	@Test
+	public void testDispatchTable() {
+
+		List<QName> handledEventNames = new ArrayList<QName>();
+
+		for (QName qName : new TestEventHandler().getHandledEventNames()) {
+			handledEventNames.add(qName);
+		}
+
+		// The method with the wrong signature must be ignored.
+		Assert.assertEquals(3, handledEventNames.size());
+		Assert.assertTrue(handledEventNames.contains(new QName(NAMESPACE, "ipc.customerSelected")));
+		Assert.assertTrue(handledEventNames.contains(new QName(NAMESPACE, "ipc.refresh")));
+		Assert.assertTrue(handledEventNames.contains(new QName("ipc.reset")));
+		Assert.assertFalse(handledEventNames.contains(new QName(NAMESPACE, "ipc.invalid")));
+	}
+
+	@Test
+	public void testUnmappedEvent() {
+
+		TestEventHandler testEventHandler = new TestEventHandler();
+
+		// An event without a namespace must not match a @HandlesEvent QName that has one, and vice versa.
+		Assert.assertNull(testEventHandler.handleEvent(null, new EventMockImpl(new QName("ipc.customerSelected"),
+					"1")));
+		Assert.assertNull(testEventHandler.handleEvent(null, new EventMockImpl(new QName(NAMESPACE, "ipc.reset"),
+					null)));
+		Assert.assertEquals(2, testEventHandler.getUnmappedCount());
+		Assert.assertTrue(testEventHandler.getHandled().isEmpty());
+	}
+
+	public static class TestEventHandler extends DispatchingBridgeEventHandler {
+
+		// Private Data Members
+		private List<String> handled = new ArrayList<String>();
+		private int unmappedCount;
+
+		public List<String> getHandled() {
+			return handled;
+		}
+
+		public int getUnmappedCount() {
+			return unmappedCount;
+		}
+
+		@HandlesEvent("{" + NAMESPACE + "}ipc.customerSelected")
+		public EventNavigationResult handleCustomerSelected(FacesContext facesContext, Event event) {
+
+			handled.add("customerSelected:" + event.getValue());
+
+			return new EventNavigationResult(null, "customerSelected");
+		}
+
+		@HandlesEvent("{" + NAMESPACE + "}ipc.invalid")
+		public String handleInvalid(Event event) {
+			return null;
+		}
+
+		@HandlesEvent({ "{" + NAMESPACE + "}ipc.refresh", "ipc.reset" })
+		public void handleRefresh(FacesContext facesContext, Event event) {
+			handled.add("refresh:" + event.getName());
+		}
+
+		@Override
+		protected EventNavigationResult handleUnmappedEvent(FacesContext facesContext, Event event) {
+
+			unmappedCount++;
+
+			return super.handleUnmappedEvent(facesContext, event);
+		}
+	}
+}
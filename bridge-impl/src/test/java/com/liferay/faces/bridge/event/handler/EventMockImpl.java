@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.event.handler;
+
+import java.io.Serializable;
+
+import javax.portlet.Event;
+import javax.xml.namespace.QName;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class EventMockImpl implements Event {
+
+	// Private Final Data Members
+	private final QName qName;
+	private final Serializable value;
+
+	public EventMockImpl(QName qName, Serializable value) {
+		this.qName = qName;
+		this.value = value;
+	}
+
+	@Override
+	public String getName() {
+		return qName.getLocalPart();
+	}
+
+	@Override
+	public QName getQName() {
+		return qName;
+	}
+
+	@Override
+	public Serializable getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.portlet.Event;
+import javax.xml.namespace.QName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.liferay.faces.bridge.event.batch.BatchedEventPayload;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class BatchedEventImplTest {
+
+	// Private Constants
+	private static final QName BAR = new QName("http://liferay.com/events", "bar");
+	private static final QName BAZ = new QName("http://liferay.com/events", "baz");
+	private static final QName FOO = new QName("http://liferay.com/events", "foo");
+
+	@Test
+	public void testAddEventWithoutName() {
+
+		boolean rejected = false;
+
+		try {
+			new BatchedEventPayload().addEvent(null, "1");
+		}
+		catch (IllegalArgumentException e) {
+			rejected = true;
+		}
+
+		Assert.assertTrue(rejected);
+	}
+
+	@Test
+	public void testBatchSurvivesSerialization() throws ClassNotFoundException, IOException {
+
+		BatchedEventPayload batchedEventPayload = new BatchedEventPayload().addEvent(FOO, "1").addEvent(BAR, null);
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
+		objectOutputStream.writeObject(batchedEventPayload);
+		objectOutputStream.close();
+
+		ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(
+					byteArrayOutputStream.toByteArray()));
+		BatchedEventPayload deserializedBatchedEventPayload = (BatchedEventPayload) objectInputStream.readObject();
+		Assert.assertEquals(2, deserializedBatchedEventPayload.getEventCount());
+		Assert.assertEquals(FOO, deserializedBatchedEventPayload.getEventName(0));
+		Assert.assertEquals("1", deserializedBatchedEventPayload.getEventValue(0));
+		Assert.assertEquals(BAR, deserializedBatchedEventPayload.getEventName(1));
+		Assert.assertNull(deserializedBatchedEventPayload.getEventValue(1));
+	}
+
+	@Test
+	public void testUnpack() {
+
+		BatchedEventPayload batchedEventPayload = new BatchedEventPayload().addEvent(FOO, "1").addEvent(BAZ, "2")
+			.addEvent(BAR, null).addEvent(FOO, "3");
+		Assert.assertEquals(4, batchedEventPayload.getEventCount());
+
+		// Since BAZ is not a processing event of the portlet, it must be ignored.
+		Set<QName> processingEventQNames = new HashSet<QName>(Arrays.asList(FOO, BAR));
+		List<Event> events = BatchedEventImpl.unpack(batchedEventPayload, processingEventQNames);
+		Assert.assertEquals(3, events.size());
+
+		Event event = events.get(0);
+		Assert.assertEquals(FOO, event.getQName());
+		Assert.assertEquals("foo", event.getName());
+		Assert.assertEquals("1", event.getValue());
+
+		event = events.get(1);
+		Assert.assertEquals(BAR, event.getQName());
+		Assert.assertNull(event.getValue());
+
+		event = events.get(2);
+		Assert.assertEquals(FOO, event.getQName());
+		Assert.assertEquals("3", event.getValue());
+	}
+
+	@Test
+	public void testUnpackWildcard() {
+
+		QName fooBar = new QName("http://liferay.com/events", "foo.bar");
+		QName fooBarOtherNamespace = new QName("http://liferay.com/other", "foo.bar");
+		BatchedEventPayload batchedEventPayload = new BatchedEventPayload().addEvent(fooBar, "1").addEvent(BAZ, "2")
+			.addEvent(fooBarOtherNamespace, "3").addEvent(BAR, "4");
+
+		// Since the local part of a processing event QName may end with the "*" wildcard character, fooBar must be
+		// unpacked. However, fooBarOtherNamespace must be ignored since its namespace URI differs.
+		Set<QName> processingEventQNames = new HashSet<QName>(Arrays.asList(
+					new QName("http://liferay.com/events", "foo.*"), BAR));
+		List<Event> events = BatchedEventImpl.unpack(batchedEventPayload, processingEventQNames);
+		Assert.assertEquals(2, events.size());
+		Assert.assertEquals(fooBar, events.get(0).getQName());
+		Assert.assertEquals("1", events.get(0).getValue());
+		Assert.assertEquals(BAR, events.get(1).getQName());
+
+		// A processing event QName that only consists of the wildcard character matches every event in its namespace.
+		processingEventQNames = new HashSet<QName>(Arrays.asList(new QName("http://liferay.com/events", "*")));
+		Assert.assertEquals(3, BatchedEventImpl.unpack(batchedEventPayload, processingEventQNames).size());
+	}
+}
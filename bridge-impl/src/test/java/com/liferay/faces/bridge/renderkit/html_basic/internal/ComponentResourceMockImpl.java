@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.faces.component.UIComponentBase;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class ComponentResourceMockImpl extends UIComponentBase {
+
+	// Private Final Data Members
+	private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+	public ComponentResourceMockImpl(String name, String library, String version) {
+
+		attributes.put("name", name);
+		attributes.put("library", library);
+		attributes.put("portlet:version", version);
+	}
+
+	@Override
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public String getFamily() {
+		return "javax.faces.Output";
+	}
+}
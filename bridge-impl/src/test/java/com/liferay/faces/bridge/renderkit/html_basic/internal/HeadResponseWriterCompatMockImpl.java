@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.faces.context.ResponseWriter;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class HeadResponseWriterCompatMockImpl extends HeadResponseWriterCompatImpl {
+
+	// Private Data Members
+	private List<String[]> dependencies = new ArrayList<String[]>();
+
+	public HeadResponseWriterCompatMockImpl(ResponseWriter wrappedResponseWriter) {
+		super(wrappedResponseWriter, null);
+	}
+
+	@Override
+	protected void addDependency(String name, String scope, String version, String markup) {
+		dependencies.add(new String[] { name, scope, version, markup });
+	}
+
+	@Override
+	protected boolean isBootsFacesDetected() {
+		return false;
+	}
+
+	/**
+	 * Returns the name, scope, version, and markup of each dependency that was added to the portal page.
+	 */
+	/* package-private */ List<String[]> getDependencies() {
+		return dependencies;
+	}
+
+	/* package-private */ List<String> getMarkups() {
+
+		List<String> markups = new ArrayList<String>(dependencies.size());
+
+		for (String[] dependency : dependencies) {
+			markups.add(dependency[3]);
+		}
+
+		return markups;
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.renderkit.html_basic.internal;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import javax.faces.context.ResponseWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class HeadResponseWriterStreamingImplTest {
+
+	/**
+	 * Verify that script and stylesheet resources are added to the portal page with the name, library, and version of
+	 * the component resource, and that a unique name is generated for all other markup.
+	 *
+	 * @throws  IOException
+	 */
+	@Test
+	public void testDependencyNameLibraryVersion() throws IOException {
+
+		HeadResponseWriterStreamingMockImpl headResponseWriterStreamingMockImpl =
+			new HeadResponseWriterStreamingMockImpl(new ResponseWriterMockImpl(new StringWriter()));
+		headResponseWriterStreamingMockImpl.startElement("head", null);
+
+		headResponseWriterStreamingMockImpl.startElement("script",
+			new ComponentResourceMockImpl("jsf.js", "javax.faces", "2.2"));
+		headResponseWriterStreamingMockImpl.writeURIAttribute("src", "jsf.js", null);
+		headResponseWriterStreamingMockImpl.endElement("script");
+
+		headResponseWriterStreamingMockImpl.startElement("link",
+			new ComponentResourceMockImpl("theme.css", "primefaces", null));
+		headResponseWriterStreamingMockImpl.writeURIAttribute("href", "theme.css", null);
+		headResponseWriterStreamingMockImpl.endElement("link");
+
+		headResponseWriterStreamingMockImpl.startElement("script",
+			new ComponentResourceMockImpl(null, "library", "1.0"));
+		headResponseWriterStreamingMockImpl.writeText("alert('inline');", null);
+		headResponseWriterStreamingMockImpl.endElement("script");
+
+		headResponseWriterStreamingMockImpl.endElement("head");
+
+		List<String[]> dependencies = headResponseWriterStreamingMockImpl.getDependencies();
+		Assert.assertEquals(3, dependencies.size());
+		Assert.assertArrayEquals(
+			new String[] { "jsf.js", "javax.faces", "2.2", "<script src=\"jsf.js\"></script>" },
+			dependencies.get(0));
+		Assert.assertArrayEquals(new String[] { "theme.css", "primefaces", null, "<link href=\"theme.css\">" },
+			dependencies.get(1));
+
+		String[] inlineScriptDependency = dependencies.get(2);
+		Assert.assertNotNull(inlineScriptDependency[0]);
+		Assert.assertNull(inlineScriptDependency[1]);
+		Assert.assertNull(inlineScriptDependency[2]);
+		Assert.assertEquals("<script>alert('inline');</script>", inlineScriptDependency[3]);
+	}
+
+	/**
+	 * Verify that {@link HeadResponseWriterStreamingImpl} produces exactly the same markup as the DOM based {@link
+	 * HeadResponseWriterCompatImpl}.
+	 *
+	 * @throws  IOException
+	 */
+	@Test
+	public void testSameMarkupAsCompatImpl() throws IOException {
+
+		HeadResponseWriterCompatMockImpl headResponseWriterCompatMockImpl = new HeadResponseWriterCompatMockImpl(
+				new ResponseWriterMockImpl(new StringWriter()));
+		writeHeadResources(headResponseWriterCompatMockImpl);
+
+		HeadResponseWriterStreamingMockImpl headResponseWriterStreamingMockImpl =
+			new HeadResponseWriterStreamingMockImpl(new ResponseWriterMockImpl(new StringWriter()));
+		writeHeadResources(headResponseWriterStreamingMockImpl);
+
+		List<String> expectedMarkups = headResponseWriterCompatMockImpl.getMarkups();
+		List<String> markups = headResponseWriterStreamingMockImpl.getMarkups();
+		Assert.assertEquals(expectedMarkups.size(), markups.size());
+
+		for (int i = 0; i < expectedMarkups.size(); i++) {
+			Assert.assertArrayEquals("Markup of head resource " + i + " differs.",
+				expectedMarkups.get(i).getBytes("UTF-8"), markups.get(i).getBytes("UTF-8"));
+		}
+	}
+
+	private void writeHeadResources(ResponseWriter responseWriter) throws IOException {
+
+		responseWriter.startElement("head", null);
+
+		// Title
+		responseWriter.startElement("title", null);
+		responseWriter.writeText("Title", null);
+		responseWriter.endElement("title");
+
+		// Script with a src attribute and without children
+		responseWriter.startElement("script", null);
+		responseWriter.writeAttribute("type", "text/javascript", null);
+		responseWriter.writeURIAttribute("src", "/o/portlet/javax.faces.resource/jsf.js?ln=javax.faces&v=1", null);
+		responseWriter.endElement("script");
+
+		// Inline script with text that must not be escaped
+		responseWriter.startElement("script", null);
+		responseWriter.writeAttribute("id", "first", null);
+		responseWriter.writeAttribute("data-value", null, null);
+		responseWriter.writeAttribute("id", "replaced", null);
+		responseWriter.writeText("if (a < b && c > d) { alert('\"hi\"'); }", null);
+		responseWriter.write(new char[] { ';', '\n' });
+		responseWriter.write(';');
+		responseWriter.endElement("script");
+
+		// Stylesheet link with an ignored child
+		responseWriter.startElement("link", null);
+		responseWriter.writeAttribute("rel", "stylesheet", null);
+		responseWriter.writeURIAttribute("href", "/o/portlet/javax.faces.resource/theme.css?ln=primefaces&x=<y>", null);
+		responseWriter.write("ignored");
+		responseWriter.startElement("span", null);
+		responseWriter.writeAttribute("class", "ignored", null);
+		responseWriter.endElement("span");
+		responseWriter.endElement("link");
+
+		// Style with CDATA
+		responseWriter.startElement("style", null);
+		responseWriter.write("<![CDATA[");
+		responseWriter.writeText(".a > .b { color: red; }", null);
+		responseWriter.write("]]>");
+		responseWriter.endElement("style");
+
+		// Nested elements inside of a script template
+		responseWriter.startElement("script", null);
+		responseWriter.writeAttribute("type", "data/template", null);
+		responseWriter.write("Template Text 1");
+		responseWriter.startElement("div", null);
+		responseWriter.writeAttribute("class", "template:div", null);
+		responseWriter.writeText("<escaped> & \u00bb", null);
+		responseWriter.writeComment("comment");
+		responseWriter.startElement("a", null);
+		responseWriter.writeAttribute("href", "http://liferay.com?a=1&b=2", null);
+		responseWriter.endElement("a");
+		responseWriter.startElement("link", null);
+		responseWriter.writeAttribute("href", "nested.css", null);
+		responseWriter.endElement("link");
+		responseWriter.endElement("div");
+		responseWriter.startElement("span", null);
+		responseWriter.endElement("span");
+		responseWriter.endElement("script");
+
+		// Top level text, comments, and CDATA
+		responseWriter.writeText("<text>", null);
+		responseWriter.write("raw text");
+		responseWriter.writeComment("<comment>");
+		responseWriter.startCDATA();
+		responseWriter.write("cdata text");
+		responseWriter.writeComment("cdata comment");
+		responseWriter.endCDATA();
+
+		responseWriter.endElement("head");
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2000-2021 Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.faces.bridge.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * @author  Neil Griffin
+ */
+public class SessionCleanupExecutorTest {
+
+	@Test
+	public void testBatchCleanup() {
+
+		ManualExecutor manualExecutor = new ManualExecutor();
+		RecordingSessionCleanupExecutor sessionCleanupExecutor = new RecordingSessionCleanupExecutor(1000,
+				manualExecutor);
+
+		for (int i = 0; i < 150; i++) {
+			Assert.assertTrue(sessionCleanupExecutor.submit(new ExpiredSession(null, "session" + i)));
+		}
+
+		// The batch cleanup task must only be scheduled once while it is waiting to run.
+		Assert.assertEquals(1, manualExecutor.tasks.size());
+		manualExecutor.runTasks();
+		Assert.assertEquals(2, sessionCleanupExecutor.batches.size());
+		Assert.assertEquals(100, sessionCleanupExecutor.batches.get(0).size());
+		Assert.assertEquals("session0", sessionCleanupExecutor.batches.get(0).get(0).getSessionId());
+		Assert.assertEquals(50, sessionCleanupExecutor.batches.get(1).size());
+		Assert.assertEquals("session149", sessionCleanupExecutor.batches.get(1).get(49).getSessionId());
+
+		// After the queue has been emptied, the next expired session must schedule the batch cleanup task again.
+		Assert.assertTrue(sessionCleanupExecutor.submit(new ExpiredSession(null, "session150")));
+		Assert.assertEquals(1, manualExecutor.tasks.size());
+		manualExecutor.runTasks();
+		Assert.assertEquals(3, sessionCleanupExecutor.batches.size());
+		Assert.assertEquals("session150", sessionCleanupExecutor.batches.get(2).get(0).getSessionId());
+	}
+
+	@Test
+	public void testQueueFull() {
+
+		RecordingSessionCleanupExecutor sessionCleanupExecutor = new RecordingSessionCleanupExecutor(2,
+				new ManualExecutor());
+		Assert.assertTrue(sessionCleanupExecutor.submit(new ExpiredSession(null, "session0")));
+		Assert.assertTrue(sessionCleanupExecutor.submit(new ExpiredSession(null, "session1")));
+		Assert.assertFalse(sessionCleanupExecutor.submit(new ExpiredSession(null, "session2")));
+	}
+
+	@Test
+	public void testShutdown() {
+
+		ManualExecutor manualExecutor = new ManualExecutor();
+		RecordingSessionCleanupExecutor sessionCleanupExecutor = new RecordingSessionCleanupExecutor(1000,
+				manualExecutor);
+
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue(sessionCleanupExecutor.submit(new ExpiredSession(null, "session" + i)));
+		}
+
+		// The expired sessions that are still queued must be cleaned up by the thread that shuts down the executor.
+		sessionCleanupExecutor.shutdown();
+		Assert.assertEquals(1, sessionCleanupExecutor.batches.size());
+		Assert.assertEquals(3, sessionCleanupExecutor.batches.get(0).size());
+
+		// After shutdown, expired sessions must be rejected so that the caller cleans them up itself.
+		Assert.assertFalse(sessionCleanupExecutor.submit(new ExpiredSession(null, "session3")));
+
+		// The batch cleanup task that was scheduled before shutdown must not find any expired sessions.
+		manualExecutor.runTasks();
+		Assert.assertEquals(1, sessionCleanupExecutor.batches.size());
+	}
+
+	private static final class ManualExecutor implements Executor {
+
+		// Private Final Data Members
+		private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+		@Override
+		public void execute(Runnable runnable) {
+			tasks.add(runnable);
+		}
+
+		public void runTasks() {
+
+			List<Runnable> runnables = new ArrayList<Runnable>(tasks);
+			tasks.clear();
+
+			for (Runnable runnable : runnables) {
+				runnable.run();
+			}
+		}
+	}
+
+	private static final class RecordingSessionCleanupExecutor extends SessionCleanupExecutor {
+
+		// Private Final Data Members
+		private final List<List<ExpiredSession>> batches = new ArrayList<List<ExpiredSession>>();
+
+		public RecordingSessionCleanupExecutor(int queueCapacity, Executor executor) {
+			super(queueCapacity, executor);
+		}
+
+		@Override
+		/* package-private */ void cleanUpBatch(List<ExpiredSession> batch) {
+			batches.add(new ArrayList<ExpiredSession>(batch));
+		}
+	}
+}